@@ -27,13 +27,20 @@
 package com.kolich.beacon;
 
 import com.google.common.io.Resources;
+import com.kolich.beacon.components.assets.BeaconStaticAssets;
+import com.kolich.beacon.servlets.EventStream;
+import com.kolich.beacon.servlets.EventStreamServlet;
+import com.kolich.beacon.servlets.StaticCacheControlFilter;
 import curacao.servlet.jakarta.CuracaoJakartaContextListener;
 import curacao.servlet.jakarta.CuracaoJakartaDispatcherServlet;
+import jakarta.servlet.DispatcherType;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.DefaultServlet;
 import org.eclipse.jetty.servlet.ErrorPageErrorHandler;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.util.resource.Resource;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
@@ -45,6 +52,7 @@ import picocli.CommandLine.Option;
 
 import javax.annotation.Nullable;
 import java.net.URL;
+import java.util.EnumSet;
 
 import static org.eclipse.jetty.servlet.ServletContextHandler.NO_SECURITY;
 import static org.eclipse.jetty.servlet.ServletContextHandler.NO_SESSIONS;
@@ -55,8 +63,14 @@ public final class Application {
 
     private static final String CONTEXT_PATH = "/beacon";
     private static final String CURACAO_SERVLET_MAPPING_UNDER_CONTEXT = "/*";
+    private static final String EVENT_STREAM_SERVLET_MAPPING_UNDER_CONTEXT = "/events";
+    private static final String STATIC_SERVLET_MAPPING_UNDER_CONTEXT = "/static/*";
+
+    private static final int EVENT_STREAM_SUBSCRIBER_QUEUE_SIZE = 8;
+    private static final long EVENT_STREAM_HEARTBEAT_INTERVAL_MS = 15000L; // 15-seconds
 
     public static final String CONTEXT_ATTRIBUTE_BASE_RESOURCE = "beacon.base-resource";
+    public static final String CONTEXT_ATTRIBUTE_EVENT_STREAM = "beacon.event-stream";
 
     @Option(names = {"--host"}, paramLabel = "HOST", description = "Server host.",
             defaultValue = "127.0.0.1")
@@ -130,6 +144,32 @@ public final class Application {
         context.addEventListener(new CuracaoJakartaContextListener()); // Required
         context.addServlet(curacaoHolder, CURACAO_SERVLET_MAPPING_UNDER_CONTEXT);
 
+        // The Server-Sent Events stream is served by its own (async) servlet, outside of Curacao,
+        // such that open event streams hold no request threads. The stream is attached to the
+        // context so that components can publish to it, and its lifecycle is managed by the server.
+        final EventStream eventStream = new EventStream(EVENT_STREAM_SUBSCRIBER_QUEUE_SIZE,
+                EVENT_STREAM_HEARTBEAT_INTERVAL_MS);
+        server.addBean(eventStream);
+        context.setAttribute(CONTEXT_ATTRIBUTE_EVENT_STREAM, eventStream);
+
+        final ServletHolder eventStreamHolder = new ServletHolder("events", new EventStreamServlet(eventStream));
+        eventStreamHolder.setAsyncSupported(true); // Async supported = true
+        context.addServlet(eventStreamHolder, EVENT_STREAM_SERVLET_MAPPING_UNDER_CONTEXT);
+
+        // Static assets are served straight by Jetty, outside of Curacao, along with their gzip'ed
+        // variants generated at build time. File backed resources are served from memory-mapped
+        // buffers. Only requests for the current fingerprint of an asset are cached forever.
+        final ServletHolder staticHolder = new ServletHolder("static", DefaultServlet.class);
+        staticHolder.setInitParameter("dirAllowed", "false");
+        staticHolder.setInitParameter("precompressed", "gzip=.gz");
+        staticHolder.setInitParameter("useFileMappedBuffer", "true");
+        staticHolder.setInitParameter("etags", "true");
+        context.addServlet(staticHolder, STATIC_SERVLET_MAPPING_UNDER_CONTEXT);
+        final StaticCacheControlFilter staticCacheControlFilter =
+                new StaticCacheControlFilter(baseResource.addPath(BeaconStaticAssets.STATIC_DIRECTORY));
+        context.addFilter(new FilterHolder(staticCacheControlFilter), STATIC_SERVLET_MAPPING_UNDER_CONTEXT,
+                EnumSet.of(DispatcherType.REQUEST));
+
         final ErrorPageErrorHandler errorHandler = new ErrorPageErrorHandler();
         errorHandler.addErrorPage(ErrorPageErrorHandler.GLOBAL_ERROR_PAGE, "/forward-errors");
         context.setErrorHandler(errorHandler);
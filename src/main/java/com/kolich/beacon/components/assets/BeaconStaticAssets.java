@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.assets;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.kolich.beacon.Application;
+import com.kolich.beacon.components.BeaconConfig;
+import com.kolich.beacon.exceptions.BeaconException;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+import curacao.core.servlet.ServletContext;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.jetty.util.resource.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Resolves the fingerprinted URLs of the static assets under <code>webapp/static</code>.
+ *
+ * Each asset is fingerprinted with a hash of its content, such that its URL changes
+ * whenever its content does and it can be cached by clients forever. Assets are
+ * fingerprinted once at startup, or on every lookup in dev mode where they're edited
+ * in place.
+ */
+@Component
+public final class BeaconStaticAssets {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconStaticAssets.class);
+
+    public static final String STATIC_DIRECTORY = "static/";
+
+    private static final String ASSET_URL_FORMAT = "%s/" + STATIC_DIRECTORY + "%s?v=%s";
+
+    /**
+     * Precompressed variants of assets, generated at build time, are not assets in their own right.
+     */
+    private static final String PRECOMPRESSED_EXTENSION = ".gz";
+
+    /**
+     * The number of hex characters of the content hash kept in a fingerprint.
+     */
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    private final Resource staticResource_;
+
+    private final String contextPath_;
+
+    private final boolean devMode_;
+
+    private final Map<String, String> fingerprints_;
+
+    @Injectable
+    public BeaconStaticAssets(
+            final ServletContext servletContext,
+            final BeaconConfig beaconConfig) throws Exception {
+        final Resource baseResource =
+                (Resource) servletContext.getAttribute(Application.CONTEXT_ATTRIBUTE_BASE_RESOURCE);
+
+        staticResource_ = baseResource.addPath(STATIC_DIRECTORY);
+        contextPath_ = beaconConfig.getViewSafeContentPath();
+        devMode_ = beaconConfig.isDevMode();
+
+        final ImmutableMap.Builder<String, String> fingerprints = ImmutableMap.builder();
+        fingerprintAssets(staticResource_, "", fingerprints);
+        fingerprints_ = fingerprints.build();
+        LOG.info("Fingerprinted {} static assets.", fingerprints_.size());
+    }
+
+    /**
+     * Returns the fingerprinted URL of the given asset, relative to <code>webapp/static</code>,
+     * e.g., <code>js/beacon.js</code> resolves to <code>/beacon/static/js/beacon.js?v=...</code>
+     */
+    public String getUrl(
+            final String assetPath) {
+        final String fingerprint;
+        try {
+            fingerprint = devMode_
+                    ? fingerprint(staticResource_.addPath(assetPath))
+                    : fingerprints_.get(assetPath);
+        } catch (final IOException e) {
+            throw new BeaconException("Failed to fingerprint static asset: " + assetPath, e);
+        }
+
+        if (fingerprint == null) {
+            throw new BeaconException("Unknown static asset: " + assetPath);
+        }
+
+        return String.format(ASSET_URL_FORMAT, contextPath_, assetPath, fingerprint);
+    }
+
+    private static void fingerprintAssets(
+            final Resource directory,
+            final String directoryName,
+            final ImmutableMap.Builder<String, String> fingerprints) throws IOException {
+        final String[] entries = directory.list();
+        if (entries == null) {
+            return;
+        }
+
+        for (final String entry : entries) {
+            if (entry.endsWith("/")) {
+                fingerprintAssets(directory.addPath(entry), directoryName + entry, fingerprints);
+            } else if (!entry.endsWith(PRECOMPRESSED_EXTENSION)) {
+                final String fingerprint = fingerprint(directory.addPath(entry));
+                if (fingerprint != null) {
+                    fingerprints.put(directoryName + entry, fingerprint);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the fingerprint of the given asset, or null if there is no such asset.
+     */
+    @Nullable
+    public static String fingerprint(
+            final Resource asset) throws IOException {
+        if (!asset.exists() || asset.isDirectory()) {
+            return null;
+        }
+
+        try (InputStream is = asset.getInputStream()) {
+            return Hashing.sha256().hashBytes(IOUtils.toByteArray(is)).toString()
+                    .substring(0, FINGERPRINT_LENGTH);
+        }
+    }
+
+}
@@ -26,8 +26,10 @@
 
 package com.kolich.beacon.components.aws;
 
+import com.kolich.beacon.entities.aws.Route53DesiredRecord;
 import software.amazon.awssdk.regions.Region;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public interface AwsConfig {
@@ -41,6 +43,23 @@ public interface AwsConfig {
     String AWS_ROUTE_53_HOSTED_ZONE_ID_PROP = "route-53.hosted-zone-id";
     String AWS_ROUTE_53_RESOURCE_RECORD_UPSERT_NAME_PROP = "route-53.resource-record-upsert-name";
     String AWS_ROUTE_53_RESOURCE_RECORD_UPSERT_TTL_PROP = "route-53.resource-record-upsert-ttl";
+    String AWS_ROUTE_53_RECORDS_PROP = "route-53.records";
+    String AWS_ROUTE_53_ASYNC_CLIENT_PROP = "route-53.async-client";
+    String AWS_ROUTE_53_DELETE_AAAA_WITHOUT_IPV6_PROP = "route-53.delete-aaaa-without-ipv6";
+    String AWS_ROUTE_53_RATE_LIMIT_REQUESTS_PER_SECOND_PROP = "route-53.rate-limit.requests-per-second";
+    String AWS_ROUTE_53_RATE_LIMIT_BURST_PROP = "route-53.rate-limit.burst";
+    String AWS_ROUTE_53_RETRY_BASE_DELAY_PROP = "route-53.retry.base-delay";
+    String AWS_ROUTE_53_RETRY_MAX_DELAY_PROP = "route-53.retry.max-delay";
+    String AWS_ROUTE_53_RETRY_BUDGET_PROP = "route-53.retry.budget";
+    String AWS_ROUTE_53_CHANGE_TRACKING_INITIAL_POLL_DELAY_PROP = "route-53.change-tracking.initial-poll-delay";
+    String AWS_ROUTE_53_CHANGE_TRACKING_MAX_POLL_DELAY_PROP = "route-53.change-tracking.max-poll-delay";
+    String AWS_ROUTE_53_CHANGE_TRACKING_TIMEOUT_PROP = "route-53.change-tracking.timeout";
+    String AWS_ROUTE_53_CHANGE_TRACKING_WAIT_FOR_INSYNC_PROP = "route-53.change-tracking.wait-for-insync";
+
+    String AWS_ROUTE_53_RECORD_HOSTED_ZONE_ID_PROP = "hosted-zone-id";
+    String AWS_ROUTE_53_RECORD_NAME_PROP = "name";
+    String AWS_ROUTE_53_RECORD_TYPE_PROP = "type";
+    String AWS_ROUTE_53_RECORD_TTL_PROP = "ttl";
 
     String getAwsAccessKey();
 
@@ -57,4 +76,53 @@ public interface AwsConfig {
     long getAwsRoute53ResourceRecordUpsertTtl(
             final TimeUnit timeUnit);
 
+    /**
+     * Returns the desired state of every DNS record managed in Route53. When no records are
+     * configured, falls back to the single record named by the legacy upsert name and TTL.
+     */
+    List<Route53DesiredRecord> getAwsRoute53Records();
+
+    /**
+     * Whether to use the non-blocking Route53 client on the shared event loop group.
+     */
+    boolean isAwsRoute53AsyncClient();
+
+    /**
+     * Whether configured AAAA records are deleted when the active WAN reports its IPv6
+     * addresses, none of them global, rather than left pointing at an address that may no
+     * longer be reachable. Off by default; records are never deleted when IPv6 is unknown.
+     */
+    boolean isAwsRoute53DeleteAaaaWithoutIpv6();
+
+    double getAwsRoute53RateLimitRequestsPerSecond();
+
+    int getAwsRoute53RateLimitBurst();
+
+    long getAwsRoute53RetryBaseDelay(
+            final TimeUnit timeUnit);
+
+    long getAwsRoute53RetryMaxDelay(
+            final TimeUnit timeUnit);
+
+    /**
+     * How long a single run may spend retrying throttled or failed Route53 requests.
+     */
+    long getAwsRoute53RetryBudget(
+            final TimeUnit timeUnit);
+
+    long getAwsRoute53ChangeTrackingInitialPollDelay(
+            final TimeUnit timeUnit);
+
+    long getAwsRoute53ChangeTrackingMaxPollDelay(
+            final TimeUnit timeUnit);
+
+    long getAwsRoute53ChangeTrackingTimeout(
+            final TimeUnit timeUnit);
+
+    /**
+     * Whether downstream updates, e.g., the NextDNS linked IP, wait until every submitted
+     * Route53 change is INSYNC.
+     */
+    boolean isAwsRoute53ChangeTrackingWaitForInsync();
+
 }
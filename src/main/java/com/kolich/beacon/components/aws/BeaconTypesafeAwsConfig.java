@@ -26,12 +26,17 @@
 
 package com.kolich.beacon.components.aws;
 
+import com.google.common.collect.ImmutableList;
 import com.kolich.beacon.components.BeaconConfig;
+import com.kolich.beacon.entities.aws.Route53DesiredRecord;
 import com.typesafe.config.Config;
 import curacao.annotations.Component;
 import curacao.annotations.Injectable;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.route53.model.RRType;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
 @Component
@@ -78,4 +83,99 @@ public final class BeaconTypesafeAwsConfig implements AwsConfig {
         return config_.getDuration(AWS_ROUTE_53_RESOURCE_RECORD_UPSERT_TTL_PROP, timeUnit);
     }
 
+    @Override
+    public List<Route53DesiredRecord> getAwsRoute53Records() {
+        if (!config_.hasPath(AWS_ROUTE_53_RECORDS_PROP)) {
+            return ImmutableList.of(new Route53DesiredRecord.Builder()
+                    .setHostedZoneId(getAwsRoute53HostedZoneId())
+                    .setName(getAwsRoute53ResourceRecordUpsertName())
+                    .setTtl(getAwsRoute53ResourceRecordUpsertTtl(TimeUnit.SECONDS))
+                    .build());
+        }
+
+        final ImmutableList.Builder<Route53DesiredRecord> records = ImmutableList.builder();
+        for (final Config record : config_.getConfigList(AWS_ROUTE_53_RECORDS_PROP)) {
+            // The hosted zone and TTL of each record default to the legacy, top-level settings.
+            final String hostedZoneId = record.hasPath(AWS_ROUTE_53_RECORD_HOSTED_ZONE_ID_PROP)
+                    ? record.getString(AWS_ROUTE_53_RECORD_HOSTED_ZONE_ID_PROP)
+                    : getAwsRoute53HostedZoneId();
+            final long ttl = record.hasPath(AWS_ROUTE_53_RECORD_TTL_PROP)
+                    ? record.getDuration(AWS_ROUTE_53_RECORD_TTL_PROP, TimeUnit.SECONDS)
+                    : getAwsRoute53ResourceRecordUpsertTtl(TimeUnit.SECONDS);
+            final RRType type = record.hasPath(AWS_ROUTE_53_RECORD_TYPE_PROP)
+                    ? RRType.fromValue(record.getString(AWS_ROUTE_53_RECORD_TYPE_PROP).toUpperCase(Locale.ROOT))
+                    : RRType.A;
+
+            records.add(new Route53DesiredRecord.Builder()
+                    .setHostedZoneId(hostedZoneId)
+                    .setName(record.getString(AWS_ROUTE_53_RECORD_NAME_PROP))
+                    .setType(type)
+                    .setTtl(ttl)
+                    .build());
+        }
+
+        return records.build();
+    }
+
+    @Override
+    public boolean isAwsRoute53AsyncClient() {
+        return config_.getBoolean(AWS_ROUTE_53_ASYNC_CLIENT_PROP);
+    }
+
+    @Override
+    public boolean isAwsRoute53DeleteAaaaWithoutIpv6() {
+        return config_.getBoolean(AWS_ROUTE_53_DELETE_AAAA_WITHOUT_IPV6_PROP);
+    }
+
+    @Override
+    public double getAwsRoute53RateLimitRequestsPerSecond() {
+        return config_.getDouble(AWS_ROUTE_53_RATE_LIMIT_REQUESTS_PER_SECOND_PROP);
+    }
+
+    @Override
+    public int getAwsRoute53RateLimitBurst() {
+        return config_.getInt(AWS_ROUTE_53_RATE_LIMIT_BURST_PROP);
+    }
+
+    @Override
+    public long getAwsRoute53RetryBaseDelay(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(AWS_ROUTE_53_RETRY_BASE_DELAY_PROP, timeUnit);
+    }
+
+    @Override
+    public long getAwsRoute53RetryMaxDelay(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(AWS_ROUTE_53_RETRY_MAX_DELAY_PROP, timeUnit);
+    }
+
+    @Override
+    public long getAwsRoute53RetryBudget(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(AWS_ROUTE_53_RETRY_BUDGET_PROP, timeUnit);
+    }
+
+    @Override
+    public long getAwsRoute53ChangeTrackingInitialPollDelay(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(AWS_ROUTE_53_CHANGE_TRACKING_INITIAL_POLL_DELAY_PROP, timeUnit);
+    }
+
+    @Override
+    public long getAwsRoute53ChangeTrackingMaxPollDelay(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(AWS_ROUTE_53_CHANGE_TRACKING_MAX_POLL_DELAY_PROP, timeUnit);
+    }
+
+    @Override
+    public long getAwsRoute53ChangeTrackingTimeout(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(AWS_ROUTE_53_CHANGE_TRACKING_TIMEOUT_PROP, timeUnit);
+    }
+
+    @Override
+    public boolean isAwsRoute53ChangeTrackingWaitForInsync() {
+        return config_.getBoolean(AWS_ROUTE_53_CHANGE_TRACKING_WAIT_FOR_INSYNC_PROP);
+    }
+
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.aws.route53;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.kolich.beacon.components.aws.AwsConfig;
+import com.kolich.beacon.components.metrics.BeaconMetrics;
+import com.kolich.beacon.components.state.BeaconStateTracker;
+import com.kolich.beacon.exceptions.BeaconException;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+import curacao.components.ComponentDestroyable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.route53.model.ChangeInfo;
+import software.amazon.awssdk.services.route53.model.ChangeStatus;
+import software.amazon.awssdk.services.route53.model.GetChangeRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks submitted Route53 changes in the background until they're INSYNC, meaning they've
+ * propagated to all of the Route53 name servers.
+ *
+ * Each change is polled with <code>GetChange</code> from a dedicated scheduler thread, never
+ * the thread that submitted it, with the delay between polls doubling every time up to a
+ * configured max. With the non-blocking Route53 client, polls don't even hold up the
+ * scheduler thread. The propagation latency of every change is recorded as a metric, and the
+ * latest is reflected in the state.
+ */
+@Component
+public final class BeaconRoute53ChangeTracker implements ComponentDestroyable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconRoute53ChangeTracker.class);
+
+    private static final String PROPAGATION_LATENCY_METRIC = "route53.change.propagation-latency-ms";
+    private static final String INSYNC_METRIC = "route53.change.insync";
+    private static final String TIMED_OUT_METRIC = "route53.change.timed-out";
+    private static final String POLLS_METRIC = "route53.change.polls";
+    private static final String POLL_FAILURES_METRIC = "route53.change.poll-failures";
+    private static final String PENDING_METRIC = "route53.change.pending";
+
+    private final AwsConfig awsConfig_;
+
+    private final BeaconRoute53Client route53Client_;
+
+    private final BeaconStateTracker beaconStateTracker_;
+
+    private final BeaconMetrics metrics_;
+
+    private final Set<String> pending_ = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler_;
+
+    @Injectable
+    public BeaconRoute53ChangeTracker(
+            final AwsConfig awsConfig,
+            final BeaconRoute53Client route53Client,
+            final BeaconStateTracker beaconStateTracker,
+            final BeaconMetrics metrics) {
+        awsConfig_ = awsConfig;
+        route53Client_ = route53Client;
+        beaconStateTracker_ = beaconStateTracker;
+        metrics_ = metrics;
+
+        scheduler_ = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("beacon-route53-change-%d")
+                .build());
+
+        metrics_.register(PENDING_METRIC, pending_::size);
+    }
+
+    /**
+     * Starts tracking the given Route53 change in the background.
+     *
+     * @return a future completed with the propagation latency of the change once it's
+     * INSYNC, or completed exceptionally if it isn't INSYNC before the tracking timeout
+     */
+    public CompletableFuture<Duration> track(
+            final String changeId) {
+        final Instant now = Instant.now();
+        final long timeoutInMs = awsConfig_.getAwsRoute53ChangeTrackingTimeout(TimeUnit.MILLISECONDS);
+        final TrackedChange change = new TrackedChange(changeId, now, now.plusMillis(timeoutInMs));
+
+        pending_.add(changeId);
+        change.insync_.whenComplete((latency, t) -> pending_.remove(changeId));
+
+        schedulePoll(change, awsConfig_.getAwsRoute53ChangeTrackingInitialPollDelay(TimeUnit.MILLISECONDS));
+        return change.insync_;
+    }
+
+    /**
+     * Starts tracking every given Route53 change in the background.
+     *
+     * @return a future completed once every change is INSYNC
+     */
+    public CompletableFuture<Void> trackAll(
+            final List<String> changeIds) {
+        return CompletableFuture.allOf(changeIds.stream()
+                .map(this::track)
+                .toArray(CompletableFuture<?>[]::new));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        scheduler_.shutdownNow();
+    }
+
+    private void schedulePoll(
+            final TrackedChange change,
+            final long delayInMs) {
+        try {
+            scheduler_.schedule(() -> poll(change, delayInMs), delayInMs, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            // Shutting down.
+            change.insync_.completeExceptionally(e);
+        }
+    }
+
+    private void poll(
+            final TrackedChange change,
+            final long delayInMs) {
+        metrics_.increment(POLLS_METRIC);
+        route53Client_.getChange(GetChangeRequest.builder()
+                .id(change.changeId_)
+                .build(), change.deadline_)
+                .whenComplete((response, t) -> {
+                    if (t != null) {
+                        metrics_.increment(POLL_FAILURES_METRIC);
+                        LOG.warn("Failed to get status of Route53 change: {}", change.changeId_, t);
+                    } else if (response.changeInfo().status() == ChangeStatus.INSYNC) {
+                        onInsync(change, response.changeInfo());
+                        return;
+                    }
+
+                    scheduleNextPoll(change, delayInMs);
+                });
+    }
+
+    private void scheduleNextPoll(
+            final TrackedChange change,
+            final long delayInMs) {
+        final long maxDelayInMs = awsConfig_.getAwsRoute53ChangeTrackingMaxPollDelay(TimeUnit.MILLISECONDS);
+        final long nextDelayInMs = Math.min(delayInMs * 2L, maxDelayInMs);
+        if (Instant.now().plusMillis(nextDelayInMs).isAfter(change.deadline_)) {
+            metrics_.increment(TIMED_OUT_METRIC);
+            change.insync_.completeExceptionally(new BeaconException(String.format(
+                    "Timed out waiting for Route53 change to be INSYNC: %s", change.changeId_)));
+            return;
+        }
+
+        schedulePoll(change, nextDelayInMs);
+    }
+
+    private void onInsync(
+            final TrackedChange change,
+            final ChangeInfo changeInfo) {
+        // Measured from when Route53 accepted the change, if it says, else from when tracking began.
+        final Instant submittedAt = (changeInfo.submittedAt() != null)
+                ? changeInfo.submittedAt()
+                : change.trackedAt_;
+        final Duration latency = Duration.between(submittedAt, Instant.now());
+        final long latencyInMs = Math.max(0L, latency.toMillis());
+
+        metrics_.increment(INSYNC_METRIC);
+        metrics_.record(PROPAGATION_LATENCY_METRIC, latencyInMs);
+        beaconStateTracker_.setChangeInsync(change.changeId_, latencyInMs);
+
+        LOG.debug("Route53 change is INSYNC after {}ms: {}", latencyInMs, change.changeId_);
+        change.insync_.complete(latency);
+    }
+
+    private static final class TrackedChange {
+
+        private final String changeId_;
+
+        private final Instant trackedAt_;
+        private final Instant deadline_;
+
+        private final CompletableFuture<Duration> insync_ = new CompletableFuture<>();
+
+        private TrackedChange(
+                final String changeId,
+                final Instant trackedAt,
+                final Instant deadline) {
+            changeId_ = changeId;
+            trackedAt_ = trackedAt;
+            deadline_ = deadline;
+        }
+
+    }
+
+}
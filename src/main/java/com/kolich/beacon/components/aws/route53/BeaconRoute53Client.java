@@ -26,38 +26,414 @@
 
 package com.kolich.beacon.components.aws.route53;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Ordering;
 import com.kolich.beacon.components.aws.AwsClientConfig;
 import com.kolich.beacon.components.aws.AwsConfig;
 import com.kolich.beacon.components.aws.AwsCredentials;
+import com.kolich.beacon.components.metrics.BeaconMetrics;
+import com.kolich.beacon.components.netty.BeaconEventLoopGroup;
 import curacao.annotations.Component;
 import curacao.annotations.Injectable;
 import curacao.components.ComponentDestroyable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.client.config.ClientAsyncConfiguration;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.route53.Route53AsyncClient;
 import software.amazon.awssdk.services.route53.Route53Client;
+import software.amazon.awssdk.services.route53.model.ChangeResourceRecordSetsRequest;
+import software.amazon.awssdk.services.route53.model.ChangeResourceRecordSetsResponse;
+import software.amazon.awssdk.services.route53.model.GetChangeRequest;
+import software.amazon.awssdk.services.route53.model.GetChangeResponse;
+import software.amazon.awssdk.services.route53.model.ListResourceRecordSetsRequest;
+import software.amazon.awssdk.services.route53.model.ListResourceRecordSetsResponse;
+import software.amazon.awssdk.services.route53.model.PriorRequestNotCompleteException;
+import software.amazon.awssdk.services.route53.model.RRType;
+import software.amazon.awssdk.services.route53.model.ResourceRecordSet;
 
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The Route53 API, as futures.
+ *
+ * By default calls are made with the blocking Route53 client, on the calling thread, and
+ * the returned futures are already complete. In async mode calls are made with the
+ * non-blocking Route53 client on the event loop group shared by every HTTP client in the
+ * app, and the returned futures complete on an event loop thread: callers must never block
+ * in the stages they chain onto them.
+ *
+ * Every request is paced by a client-side token bucket, and throttled or 5xx responses are
+ * retried with decorrelated jitter backoff until the deadline given by the caller. The SDK's
+ * own retries are disabled, such that its backoff doesn't stack on top.
+ */
 @Component
 public final class BeaconRoute53Client implements ComponentDestroyable {
 
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconRoute53Client.class);
+
+    private static final String REQUESTS_METRIC = "route53.requests";
+    private static final String RETRIES_METRIC = "route53.retries";
+    private static final String THROTTLED_METRIC = "route53.throttled";
+    private static final String SERVER_ERRORS_METRIC = "route53.server-errors";
+    private static final String RETRY_BUDGET_EXHAUSTED_METRIC = "route53.retry-budget-exhausted";
+    private static final String RATE_LIMIT_WAIT_METRIC = "route53.rate-limit.wait-ms";
+
+    private static final int SERVER_ERROR_STATUS = 500;
+
+    /**
+     * Each backoff delay is random, between the base delay and this many times the previous.
+     */
+    private static final long DECORRELATED_JITTER_MULTIPLIER = 3L;
+
+    private static final Duration MIN_API_CALL_TIMEOUT = Duration.ofMillis(1L);
+
+    private static final String WILDCARD = "*";
+    private static final String ESCAPED_WILDCARD = "\\052";
+
+    private final BeaconMetrics metrics_;
+
+    private final TokenBucket tokenBucket_;
+
+    private final long retryBaseDelayInMs_;
+    private final long retryMaxDelayInMs_;
+
+    @Nullable
     private final Route53Client route53_;
 
+    @Nullable
+    private final Route53AsyncClient route53Async_;
+
     @Injectable
     public BeaconRoute53Client(
             final AwsConfig awsConfig,
             final AwsCredentials awsCredentials,
-            final AwsClientConfig awsClientConfig) {
-        route53_ = Route53Client.builder()
-                .credentialsProvider(awsCredentials.getCredentialsProvider())
-                .overrideConfiguration(awsClientConfig.getClientOverrideConfiguration())
-                .region(awsConfig.getAwsRoute53Region())
+            final AwsClientConfig awsClientConfig,
+            final BeaconEventLoopGroup beaconEventLoopGroup,
+            final BeaconMetrics metrics) {
+        metrics_ = metrics;
+        tokenBucket_ = new TokenBucket(awsConfig.getAwsRoute53RateLimitRequestsPerSecond(),
+                awsConfig.getAwsRoute53RateLimitBurst());
+        retryBaseDelayInMs_ = awsConfig.getAwsRoute53RetryBaseDelay(TimeUnit.MILLISECONDS);
+        retryMaxDelayInMs_ = awsConfig.getAwsRoute53RetryMaxDelay(TimeUnit.MILLISECONDS);
+
+        final ClientOverrideConfiguration overrideConfiguration =
+                awsClientConfig.getClientOverrideConfiguration().toBuilder()
+                        .retryStrategy(AwsRetryStrategy.doNotRetry())
+                        .build();
+
+        if (awsConfig.isAwsRoute53AsyncClient()) {
+            route53_ = null;
+            route53Async_ = Route53AsyncClient.builder()
+                    .credentialsProvider(awsCredentials.getCredentialsProvider())
+                    .overrideConfiguration(overrideConfiguration)
+                    .region(awsConfig.getAwsRoute53Region())
+                    .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                            .eventLoopGroup(beaconEventLoopGroup.getSdkEventLoopGroup()))
+                    // Complete futures right on the event loop, rather than handing them off
+                    // to yet another thread pool; nothing chained onto them ever blocks.
+                    .asyncConfiguration(ClientAsyncConfiguration.builder()
+                            .advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR, Runnable::run)
+                            .build())
+                    .build();
+        } else {
+            route53_ = Route53Client.builder()
+                    .credentialsProvider(awsCredentials.getCredentialsProvider())
+                    .overrideConfiguration(overrideConfiguration)
+                    .region(awsConfig.getAwsRoute53Region())
+                    .build();
+            route53Async_ = null;
+        }
+    }
+
+    public CompletableFuture<ListResourceRecordSetsResponse> listResourceRecordSets(
+            final ListResourceRecordSetsRequest request,
+            final Instant deadline) {
+        return execute(() -> {
+            final ListResourceRecordSetsRequest bounded = request.toBuilder()
+                    .overrideConfiguration(toOverrideConfiguration(deadline))
+                    .build();
+            return (route53Async_ != null)
+                    ? route53Async_.listResourceRecordSets(bounded)
+                    : call(() -> route53_.listResourceRecordSets(bounded));
+        }, deadline);
+    }
+
+    /**
+     * Looks up the record set with the given name and type in the given hosted zone.
+     *
+     * @see #findResourceRecordSets(String, String, Collection, Instant)
+     */
+    public CompletableFuture<Optional<ResourceRecordSet>> findResourceRecordSet(
+            final String hostedZoneId,
+            final String name,
+            final RRType type,
+            final Instant deadline) {
+        return findResourceRecordSets(hostedZoneId, name, ImmutableList.of(type), deadline)
+                .thenApply(recordSets -> recordSets.stream().findFirst());
+    }
+
+    /**
+     * Looks up the record sets with the given name and types in the given hosted zone. Route53
+     * lists record sets sorted by name and then type, so the listing starts right at the first
+     * of the given types and asks for only as many record sets as there are types; the cost of
+     * the lookup doesn't grow with the size of the zone. Record sets with a routing policy (set
+     * identifier) are skipped.
+     */
+    public CompletableFuture<List<ResourceRecordSet>> findResourceRecordSets(
+            final String hostedZoneId,
+            final String name,
+            final Collection<RRType> types,
+            final Instant deadline) {
+        final List<RRType> sortedTypes = Ordering.usingToString().sortedCopy(ImmutableSet.copyOf(types));
+        if (sortedTypes.isEmpty()) {
+            return CompletableFuture.completedFuture(ImmutableList.of());
+        }
+
+        final ListResourceRecordSetsRequest request = ListResourceRecordSetsRequest.builder()
+                .hostedZoneId(hostedZoneId)
+                .startRecordName(name)
+                .startRecordType(sortedTypes.get(0))
+                // Note, maxItems is a string.
+                .maxItems(Integer.toString(sortedTypes.size()))
                 .build();
+        return findResourceRecordSets(request, normalizeRecordName(name), sortedTypes, new ArrayList<>(), deadline);
+    }
+
+    public CompletableFuture<ChangeResourceRecordSetsResponse> changeResourceRecordSets(
+            final ChangeResourceRecordSetsRequest request,
+            final Instant deadline) {
+        return execute(() -> {
+            final ChangeResourceRecordSetsRequest bounded = request.toBuilder()
+                    .overrideConfiguration(toOverrideConfiguration(deadline))
+                    .build();
+            return (route53Async_ != null)
+                    ? route53Async_.changeResourceRecordSets(bounded)
+                    : call(() -> route53_.changeResourceRecordSets(bounded));
+        }, deadline);
     }
 
-    public Route53Client getRoute53Client() {
-        return route53_;
+    public CompletableFuture<GetChangeResponse> getChange(
+            final GetChangeRequest request,
+            final Instant deadline) {
+        return execute(() -> {
+            final GetChangeRequest bounded = request.toBuilder()
+                    .overrideConfiguration(toOverrideConfiguration(deadline))
+                    .build();
+            return (route53Async_ != null)
+                    ? route53Async_.getChange(bounded)
+                    : call(() -> route53_.getChange(bounded));
+        }, deadline);
     }
 
     @Override
     public void destroy() throws Exception {
-        route53_.close();
+        if (route53Async_ != null) {
+            route53Async_.close();
+        } else {
+            route53_.close();
+        }
+    }
+
+    /**
+     * Normalizes the given record name such that names configured locally can be compared
+     * with those returned by Route53: record names are case-insensitive, Route53 always
+     * returns them fully qualified with a trailing dot, and escapes the <code>*</code> of
+     * wildcard records as <code>\052</code>.
+     */
+    public static String normalizeRecordName(
+            final String name) {
+        final String lowerCaseName = name.toLowerCase(Locale.ROOT).replace(ESCAPED_WILDCARD, WILDCARD);
+        return lowerCaseName.endsWith(".") ? lowerCaseName : lowerCaseName + ".";
+    }
+
+    /**
+     * Lists the record sets of a single record name, following the next record type and
+     * identifier of each truncated page only while the listing is still within that name.
+     */
+    private CompletableFuture<List<ResourceRecordSet>> findResourceRecordSets(
+            final ListResourceRecordSetsRequest request,
+            final String normalizedName,
+            final List<RRType> types,
+            final List<ResourceRecordSet> found,
+            final Instant deadline) {
+        return listResourceRecordSets(request, deadline).thenCompose(response -> {
+            for (final ResourceRecordSet recordSet : response.resourceRecordSets()) {
+                if (!normalizedName.equals(normalizeRecordName(recordSet.name()))) {
+                    // Past the name: any of the record sets not found yet don't exist.
+                    return CompletableFuture.completedFuture(found);
+                }
+                if (recordSet.setIdentifier() == null && types.contains(recordSet.type())) {
+                    found.add(recordSet);
+                }
+            }
+
+            if (found.size() == types.size() || !Boolean.TRUE.equals(response.isTruncated())
+                    || !normalizedName.equals(normalizeRecordName(response.nextRecordName()))) {
+                return CompletableFuture.completedFuture(found);
+            }
+
+            return findResourceRecordSets(request.toBuilder()
+                    .startRecordName(response.nextRecordName())
+                    .startRecordType(response.nextRecordType())
+                    .startRecordIdentifier(response.nextRecordIdentifier())
+                    .build(), normalizedName, types, found, deadline);
+        });
+    }
+
+    private <T> CompletableFuture<T> execute(
+            final Supplier<CompletableFuture<T>> request,
+            final Instant deadline) {
+        return attempt(request, deadline, retryBaseDelayInMs_);
+    }
+
+    private <T> CompletableFuture<T> attempt(
+            final Supplier<CompletableFuture<T>> request,
+            final Instant deadline,
+            final long previousDelayInMs) {
+        // Never take a token for a request that could not be sent before the deadline: the
+        // request must have some time left to complete once its wait is over.
+        final long rateLimitWaitInMs = tokenBucket_.take(getRemainingMillis(deadline) - 1L);
+        if (rateLimitWaitInMs < 0L) {
+            return CompletableFuture.failedFuture(new TimeoutException(
+                    "Deadline would pass before Route53 request could be sent."));
+        } else if (rateLimitWaitInMs > 0L) {
+            metrics_.record(RATE_LIMIT_WAIT_METRIC, rateLimitWaitInMs);
+        }
+
+        return after(rateLimitWaitInMs, deadline, () -> {
+            // The wait may have overrun; never send a request that has no time left to complete.
+            if (!Instant.now().isBefore(deadline)) {
+                return CompletableFuture.<T>failedFuture(new TimeoutException(
+                        "Deadline exceeded before Route53 request could be sent."));
+            }
+
+            metrics_.increment(REQUESTS_METRIC);
+            return request.get();
+        }).handle((response, t) -> {
+            if (t == null) {
+                return CompletableFuture.completedFuture(response);
+            }
+
+            final Throwable cause = (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+            if (isThrottling(cause)) {
+                metrics_.increment(THROTTLED_METRIC);
+            } else if (isServerError(cause)) {
+                metrics_.increment(SERVER_ERRORS_METRIC);
+            } else {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+
+            final long delayInMs =
+                    getDecorrelatedJitterDelay(retryBaseDelayInMs_, retryMaxDelayInMs_, previousDelayInMs);
+            if (delayInMs >= getRemainingMillis(deadline)) {
+                metrics_.increment(RETRY_BUDGET_EXHAUSTED_METRIC);
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+
+            metrics_.increment(RETRIES_METRIC);
+            LOG.debug("Route53 request failed, retrying in {}ms: {}", delayInMs, cause.getMessage());
+            return after(delayInMs, deadline, () -> attempt(request, deadline, delayInMs));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Decorrelated jitter: a random delay between the base delay and a multiple of the
+     * previous delay, never more than the max delay, such that clients retrying at once
+     * quickly spread apart.
+     */
+    static long getDecorrelatedJitterDelay(
+            final long baseDelayInMs,
+            final long maxDelayInMs,
+            final long previousDelayInMs) {
+        final long upperBoundInMs = Math.max(baseDelayInMs,
+                Math.min(maxDelayInMs, previousDelayInMs * DECORRELATED_JITTER_MULTIPLIER));
+        return ThreadLocalRandom.current().nextLong(baseDelayInMs, upperBoundInMs + 1L);
+    }
+
+    /**
+     * Makes the given request after the given delay. The blocking client holds up the calling
+     * thread for the whole request anyway, so it just sleeps; the non-blocking client never
+     * holds up the calling thread (possibly an event loop thread), so the request is deferred.
+     * Either way, the delay never runs past the deadline.
+     */
+    private <T> CompletableFuture<T> after(
+            final long delayInMs,
+            final Instant deadline,
+            final Supplier<CompletableFuture<T>> request) {
+        final long boundedDelayInMs = Math.min(delayInMs, getRemainingMillis(deadline));
+        if (boundedDelayInMs <= 0L) {
+            return request.get();
+        } else if (route53Async_ == null) {
+            try {
+                Thread.sleep(boundedDelayInMs);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(e);
+            }
+            return request.get();
+        }
+
+        final Executor delayed = CompletableFuture.delayedExecutor(boundedDelayInMs, TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(request, delayed).thenCompose(Function.identity());
+    }
+
+    private static long getRemainingMillis(
+            final Instant deadline) {
+        return Duration.between(Instant.now(), deadline).toMillis();
+    }
+
+    /**
+     * Bounds a single request by whatever is left until the deadline, such that the SDK
+     * itself gives up on the request (and releases its connection) once the deadline passes.
+     */
+    private static AwsRequestOverrideConfiguration toOverrideConfiguration(
+            final Instant deadline) {
+        final Duration remaining = Duration.between(Instant.now(), deadline);
+        return AwsRequestOverrideConfiguration.builder()
+                .apiCallTimeout(remaining.isNegative() || remaining.isZero() ? MIN_API_CALL_TIMEOUT : remaining)
+                .build();
+    }
+
+    private static boolean isThrottling(
+            final Throwable t) {
+        return (t instanceof SdkServiceException && ((SdkServiceException) t).isThrottlingException())
+                || t instanceof PriorRequestNotCompleteException;
+    }
+
+    private static boolean isServerError(
+            final Throwable t) {
+        return t instanceof SdkServiceException && ((SdkServiceException) t).statusCode() >= SERVER_ERROR_STATUS;
+    }
+
+    private static <T> CompletableFuture<T> call(
+            final Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (final Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
 }
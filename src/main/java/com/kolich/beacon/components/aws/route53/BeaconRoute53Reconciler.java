@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.aws.route53;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimaps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.net.InetAddresses;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.kolich.beacon.components.aws.AwsConfig;
+import com.kolich.beacon.components.unifi.BeaconUdmConfig;
+import com.kolich.beacon.components.unifi.UdmUplinkStrategy;
+import com.kolich.beacon.entities.aws.Route53DesiredRecord;
+import com.kolich.beacon.exceptions.BeaconException;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+import curacao.components.ComponentDestroyable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.route53.model.Change;
+import software.amazon.awssdk.services.route53.model.ChangeAction;
+import software.amazon.awssdk.services.route53.model.ChangeBatch;
+import software.amazon.awssdk.services.route53.model.ChangeResourceRecordSetsRequest;
+import software.amazon.awssdk.services.route53.model.RRType;
+import software.amazon.awssdk.services.route53.model.ResourceRecord;
+import software.amazon.awssdk.services.route53.model.ResourceRecordSet;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reconciles the desired state of every configured DNS record with Route53.
+ *
+ * The current state of the configured records is looked up record name by record name,
+ * never by listing a whole hosted zone, and only records whose value or TTL differ from
+ * the desired state are changed, in as few change batches as Route53 allows. Hosted zones
+ * are reconciled in parallel.
+ */
+@Component
+public final class BeaconRoute53Reconciler implements ComponentDestroyable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconRoute53Reconciler.class);
+
+    /**
+     * Route53 rejects change batches with more than this many resource record elements,
+     * or more than this many characters across all record values. UPSERTs count twice
+     * towards both limits.
+     */
+    private static final int MAX_RESOURCE_RECORDS_PER_BATCH = 1000;
+    private static final int MAX_VALUE_CHARACTERS_PER_BATCH = 32000;
+    private static final int UPSERT_WEIGHT = 2;
+
+    private static final ImmutableSet<RRType> SUPPORTED_RECORD_TYPES = ImmutableSet.of(RRType.A, RRType.AAAA);
+
+    private final AwsConfig awsConfig_;
+
+    private final BeaconRoute53Client route53Client_;
+
+    private final ImmutableListMultimap<String, Route53DesiredRecord> recordsByZone_;
+
+    /**
+     * Record types whose records are deleted when their type is known to have no value, e.g.,
+     * AAAA records when the active WAN reported no global IPv6 address.
+     */
+    private final ImmutableSet<RRType> deletableTypes_;
+
+    /**
+     * A fingerprint of every configured record, such that a change to the configuration
+     * can be detected across restarts.
+     */
+    private final String recordsFingerprint_;
+
+    private final ExecutorService zoneExecutor_;
+
+    @Injectable
+    public BeaconRoute53Reconciler(
+            final AwsConfig awsConfig,
+            final BeaconUdmConfig beaconUdmConfig,
+            final BeaconRoute53Client route53Client) {
+        awsConfig_ = awsConfig;
+        route53Client_ = route53Client;
+
+        final List<Route53DesiredRecord> records = awsConfig.getAwsRoute53Records();
+        for (final Route53DesiredRecord record : records) {
+            if (!SUPPORTED_RECORD_TYPES.contains(record.getType())) {
+                throw new BeaconException(String.format("Unsupported Route53 record type, must be one of %s: %s",
+                        SUPPORTED_RECORD_TYPES, record));
+            } else if (record.getType() == RRType.AAAA
+                    && beaconUdmConfig.getUplinkStrategy() == UdmUplinkStrategy.HEALTH) {
+                // The site health carries the WAN IP only, never the IPv6 addresses of the WAN.
+                throw new BeaconException(String.format("AAAA records require a device-stat UDM uplink "
+                        + "strategy, the health strategy never reports IPv6 addresses: %s", record));
+            }
+        }
+        recordsByZone_ = Multimaps.index(records, Route53DesiredRecord::getHostedZoneId);
+        deletableTypes_ = awsConfig.isAwsRoute53DeleteAaaaWithoutIpv6()
+                ? ImmutableSet.of(RRType.AAAA)
+                : ImmutableSet.of();
+        recordsFingerprint_ = toRecordsFingerprint(records, deletableTypes_);
+
+        zoneExecutor_ = Executors.newFixedThreadPool(Math.max(1, recordsByZone_.keySet().size()),
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("beacon-route53-%d")
+                        .build());
+    }
+
+    /**
+     * Reconciles every configured record with the given desired value of its record type.
+     * Records of a type known to have no value are deleted if their type is deletable (AAAA,
+     * if so configured). Records of any other type are left alone.
+     *
+     * @param typesWithoutValue record types known to have no value, e.g., AAAA when the active
+     *                          WAN reported its IPv6 addresses, none of them global; a type that's
+     *                          merely missing from the given values may have a value that's unknown
+     * @param runDeadline the reconcile gives up once this deadline passes, or once it has
+     *                    spent its retry budget, whichever comes first
+     * @return the IDs of the changes submitted to Route53, empty if every record was
+     * already up to date
+     */
+    public List<String> reconcile(
+            final Map<RRType, String> valuesByType,
+            final Set<RRType> typesWithoutValue,
+            final Instant runDeadline) {
+        try {
+            return reconcileAsync(valuesByType, typesWithoutValue, runDeadline).join();
+        } catch (final CompletionException e) {
+            throw new BeaconException("Failed to reconcile Route53 records.", e);
+        }
+    }
+
+    /**
+     * Same as {@link #reconcile(Map, Set, Instant)}, but composed as futures: each hosted zone
+     * is listed, and its changes are submitted, one stage at a time.
+     */
+    public CompletableFuture<List<String>> reconcileAsync(
+            final Map<RRType, String> valuesByType,
+            final Set<RRType> typesWithoutValue,
+            final Instant runDeadline) {
+        // Throttled and failed requests are retried until the run has spent its retry budget,
+        // and no request is ever given more time than is left of the run.
+        final Instant budgetDeadline =
+                Instant.now().plusMillis(awsConfig_.getAwsRoute53RetryBudget(TimeUnit.MILLISECONDS));
+        final Instant deadline = budgetDeadline.isBefore(runDeadline) ? budgetDeadline : runDeadline;
+
+        final List<CompletableFuture<List<String>>> zones = new ArrayList<>();
+        for (final Map.Entry<String, Collection<Route53DesiredRecord>> zone : recordsByZone_.asMap().entrySet()) {
+            // With the blocking client every stage runs right on the zone executor; with the
+            // non-blocking client the zone executor only ever kicks off the first request.
+            zones.add(CompletableFuture.supplyAsync(() -> reconcileZone(zone.getKey(), zone.getValue(),
+                    valuesByType, typesWithoutValue, deadline), zoneExecutor_)
+                    .thenCompose(Function.identity()));
+        }
+
+        return CompletableFuture.allOf(zones.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> {
+                    final ImmutableList.Builder<String> changeIds = ImmutableList.builder();
+                    zones.forEach(zone -> changeIds.addAll(zone.join()));
+                    return changeIds.build();
+                });
+    }
+
+    public String getRecordsFingerprint() {
+        return recordsFingerprint_;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        zoneExecutor_.shutdownNow();
+    }
+
+    private CompletableFuture<List<String>> reconcileZone(
+            final String hostedZoneId,
+            final Collection<Route53DesiredRecord> records,
+            final Map<RRType, String> valuesByType,
+            final Set<RRType> typesWithoutValue,
+            final Instant deadline) {
+        final Map<String, Route53DesiredRecord> desired = new HashMap<>();
+        for (final Route53DesiredRecord record : records) {
+            final RRType type = record.getType();
+            final boolean deletable = typesWithoutValue.contains(type) && deletableTypes_.contains(type);
+            if (valuesByType.containsKey(type) || deletable) {
+                desired.put(toRecordKey(record.getName(), type), record);
+            }
+        }
+        if (desired.isEmpty()) {
+            return CompletableFuture.completedFuture(ImmutableList.of());
+        }
+
+        // Read the current state of only the desired records, never the whole zone.
+        final Map<String, ResourceRecordSet> current = new HashMap<>();
+        return listRecordSets(hostedZoneId, desired, current, deadline)
+                .thenCompose(v -> submitChanges(hostedZoneId, toChanges(desired, current, valuesByType), deadline));
+    }
+
+    /**
+     * Looks up the current record sets of the desired records, one record name at a time.
+     */
+    private CompletableFuture<Void> listRecordSets(
+            final String hostedZoneId,
+            final Map<String, Route53DesiredRecord> desired,
+            final Map<String, ResourceRecordSet> current,
+            final Instant deadline) {
+        final ImmutableListMultimap<String, Route53DesiredRecord> recordsByName =
+                Multimaps.index(desired.values(), record -> BeaconRoute53Client.normalizeRecordName(record.getName()));
+
+        // Names are looked up one after the other, each paced by the client.
+        CompletableFuture<Void> listed = CompletableFuture.completedFuture(null);
+        for (final Collection<Route53DesiredRecord> records : recordsByName.asMap().values()) {
+            final String name = records.iterator().next().getName();
+            final List<RRType> types = records.stream()
+                    .map(Route53DesiredRecord::getType)
+                    .collect(ImmutableList.toImmutableList());
+            listed = listed.thenCompose(v -> route53Client_.findResourceRecordSets(hostedZoneId, name, types, deadline)
+                    .thenAccept(recordSets -> recordSets.forEach(recordSet ->
+                            current.put(toRecordKey(recordSet.name(), recordSet.type()), recordSet))));
+        }
+
+        return listed;
+    }
+
+    private CompletableFuture<List<String>> submitChanges(
+            final String hostedZoneId,
+            final List<Change> changes,
+            final Instant deadline) {
+        if (changes.isEmpty()) {
+            LOG.debug("All records in Route53 hosted zone are up to date: {}", hostedZoneId);
+            return CompletableFuture.completedFuture(ImmutableList.of());
+        }
+
+        // Batches are submitted one after the other, in order.
+        CompletableFuture<ImmutableList.Builder<String>> changeIds =
+                CompletableFuture.completedFuture(ImmutableList.builder());
+        for (final List<Change> batch : toBatches(changes)) {
+            final ChangeResourceRecordSetsRequest request = ChangeResourceRecordSetsRequest.builder()
+                    .hostedZoneId(hostedZoneId)
+                    .changeBatch(ChangeBatch.builder()
+                            .changes(batch)
+                            .build())
+                    .build();
+            changeIds = changeIds.thenCompose(ids -> route53Client_.changeResourceRecordSets(request, deadline)
+                    .thenApply(response -> {
+                        LOG.debug("Submitted {} record changes to Route53 hosted zone: {}: {}", batch.size(),
+                                hostedZoneId, response.changeInfo().id());
+                        return ids.add(response.changeInfo().id());
+                    }));
+        }
+
+        return changeIds.thenApply(ImmutableList.Builder::build);
+    }
+
+    static List<Change> toChanges(
+            final Map<String, Route53DesiredRecord> desired,
+            final Map<String, ResourceRecordSet> current,
+            final Map<RRType, String> valuesByType) {
+        final List<Change> changes = new ArrayList<>();
+        for (final Map.Entry<String, Route53DesiredRecord> entry : desired.entrySet()) {
+            final Route53DesiredRecord record = entry.getValue();
+            final ResourceRecordSet currentRecordSet = current.get(entry.getKey());
+            final String value = valuesByType.get(record.getType());
+            if (value == null) {
+                // A deletable type known to have no value; the record set must be deleted exactly as it is.
+                if (currentRecordSet != null) {
+                    changes.add(Change.builder()
+                            .action(ChangeAction.DELETE)
+                            .resourceRecordSet(currentRecordSet)
+                            .build());
+                }
+                continue;
+            } else if (isUpToDate(currentRecordSet, record, value)) {
+                continue;
+            }
+
+            changes.add(Change.builder()
+                    .action(ChangeAction.UPSERT)
+                    .resourceRecordSet(ResourceRecordSet.builder()
+                            .name(record.getName())
+                            .type(record.getType())
+                            .ttl(record.getTtl())
+                            .resourceRecords(ResourceRecord.builder()
+                                    .value(value)
+                                    .build())
+                            .build())
+                    .build());
+        }
+
+        return changes;
+    }
+
+    private static boolean isUpToDate(
+            final ResourceRecordSet current,
+            final Route53DesiredRecord record,
+            final String value) {
+        return current != null
+                && current.aliasTarget() == null
+                && Objects.equals(current.ttl(), record.getTtl())
+                && current.resourceRecords().size() == 1
+                && toCanonicalValue(value).equals(toCanonicalValue(current.resourceRecords().get(0).value()));
+    }
+
+    /**
+     * IPv6 addresses have many equivalent textual forms, e.g., "2001:DB8:0::1" and "2001:db8::1";
+     * compares addresses in their canonical (RFC 5952) form so that equal addresses always match.
+     */
+    private static String toCanonicalValue(
+            final String value) {
+        if (!InetAddresses.isInetAddress(value)) {
+            return value;
+        }
+
+        return InetAddresses.toAddrString(InetAddresses.forString(value));
+    }
+
+    /**
+     * Splits the given changes into as few batches as possible, each within the limits
+     * Route53 enforces on a single change batch.
+     */
+    static List<List<Change>> toBatches(
+            final List<Change> changes) {
+        final ImmutableList.Builder<List<Change>> batches = ImmutableList.builder();
+
+        List<Change> batch = new ArrayList<>();
+        int batchRecords = 0;
+        int batchCharacters = 0;
+        for (final Change change : changes) {
+            final List<ResourceRecord> resourceRecords = change.resourceRecordSet().resourceRecords();
+            final int weight = (change.action() == ChangeAction.UPSERT) ? UPSERT_WEIGHT : 1;
+            final int changeRecords = weight * resourceRecords.size();
+            final int changeCharacters = weight * resourceRecords.stream()
+                    .mapToInt(rr -> rr.value().length())
+                    .sum();
+
+            if (!batch.isEmpty() && (batchRecords + changeRecords > MAX_RESOURCE_RECORDS_PER_BATCH
+                    || batchCharacters + changeCharacters > MAX_VALUE_CHARACTERS_PER_BATCH)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                batchRecords = 0;
+                batchCharacters = 0;
+            }
+
+            batch.add(change);
+            batchRecords += changeRecords;
+            batchCharacters += changeCharacters;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+
+        return batches.build();
+    }
+
+    private static String toRecordsFingerprint(
+            final List<Route53DesiredRecord> records,
+            final Collection<RRType> deletableTypes) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        records.stream()
+                .map(record -> String.join(" ", record.getHostedZoneId(),
+                        toRecordKey(record.getName(), record.getType()), Long.toString(record.getTtl())))
+                .sorted()
+                .forEach(record -> hasher.putString(record, StandardCharsets.UTF_8).putChar('\n'));
+        deletableTypes.stream()
+                .map(RRType::toString)
+                .sorted()
+                .forEach(type -> hasher.putString("delete " + type, StandardCharsets.UTF_8).putChar('\n'));
+        return hasher.hash().toString();
+    }
+
+    static String toRecordKey(
+            final String name,
+            final RRType type) {
+        return BeaconRoute53Client.normalizeRecordName(name) + " " + type;
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.aws.route53;
+
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A client-side token bucket rate limiter that never blocks.
+ *
+ * Tokens refill continuously at a fixed rate, up to the size of the bucket. Taking a token
+ * from an empty bucket is allowed, and puts the bucket into debt: the caller is told how long
+ * it must wait before making its request, such that callers are served in order and the
+ * average rate never exceeds the refill rate.
+ */
+final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    private final double tokensPerSecond_;
+    private final double capacity_;
+
+    private final Ticker ticker_;
+
+    private double tokens_;
+    private long lastRefillNanos_;
+
+    TokenBucket(
+            final double tokensPerSecond,
+            final int capacity) {
+        this(tokensPerSecond, capacity, Ticker.systemTicker());
+    }
+
+    TokenBucket(
+            final double tokensPerSecond,
+            final int capacity,
+            final Ticker ticker) {
+        checkArgument(tokensPerSecond > 0.0d, "Tokens per second must be > 0: %s", tokensPerSecond);
+        checkArgument(capacity > 0, "Capacity must be > 0: %s", capacity);
+        tokensPerSecond_ = tokensPerSecond;
+        capacity_ = capacity;
+        ticker_ = ticker;
+        tokens_ = capacity;
+        lastRefillNanos_ = ticker.read();
+    }
+
+    /**
+     * Takes a single token from the bucket, unless the caller would have to wait longer than
+     * the given maximum before using it, in which case the bucket is left untouched.
+     *
+     * @return how long the caller must wait before using the token, in milliseconds; zero if
+     * a token was available right away, or -1 if the wait would exceed the given maximum and
+     * no token was taken
+     */
+    synchronized long take(
+            final long maxWaitInMs) {
+        final long nowNanos = ticker_.read();
+        tokens_ = Math.min(capacity_, tokens_ + (nowNanos - lastRefillNanos_) * tokensPerSecond_ / NANOS_PER_SECOND);
+        lastRefillNanos_ = nowNanos;
+
+        final double remainingTokens = tokens_ - 1.0d;
+        final long waitInMs = (remainingTokens >= 0.0d)
+                ? 0L
+                : (long) Math.ceil(-remainingTokens / tokensPerSecond_ * TimeUnit.SECONDS.toMillis(1L));
+        if (waitInMs > maxWaitInMs) {
+            return -1L;
+        }
+
+        tokens_ = remainingTokens;
+        return waitInMs;
+    }
+
+}
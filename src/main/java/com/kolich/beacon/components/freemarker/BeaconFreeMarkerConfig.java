@@ -27,17 +27,22 @@
 package com.kolich.beacon.components.freemarker;
 
 import com.kolich.beacon.Application;
+import com.kolich.beacon.components.BeaconConfig;
 import com.kolich.beacon.exceptions.BeaconException;
 import curacao.annotations.Component;
 import curacao.annotations.Injectable;
 import curacao.core.servlet.ServletContext;
+import freemarker.cache.TemplateLoader;
 import freemarker.cache.TemplateLookupContext;
 import freemarker.cache.TemplateLookupResult;
 import freemarker.cache.TemplateLookupStrategy;
 import freemarker.cache.URLTemplateLoader;
 import freemarker.template.Configuration;
 import org.eclipse.jetty.util.resource.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
@@ -46,11 +51,23 @@ import java.nio.charset.StandardCharsets;
 @Component
 public final class BeaconFreeMarkerConfig {
 
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconFreeMarkerConfig.class);
+
+    private static final String TEMPLATES_DIRECTORY = "templates/";
+    private static final String TEMPLATE_EXTENSION = ".ftl";
+
     private final Configuration freemarkerConfig_;
 
+    /**
+     * Null in dev mode, where templates are loaded as-is so that they're easy to debug.
+     */
+    @Nullable
+    private final MinifyingTemplateLoader minifyingTemplateLoader_;
+
     @Injectable
     public BeaconFreeMarkerConfig(
-            final ServletContext servletContext) {
+            final ServletContext servletContext,
+            final BeaconConfig beaconConfig) throws Exception {
         final Resource baseResource =
                 (Resource) servletContext.getAttribute(Application.CONTEXT_ATTRIBUTE_BASE_RESOURCE);
 
@@ -65,7 +82,7 @@ public final class BeaconFreeMarkerConfig {
                 return ctx.lookupWithAcquisitionStrategy(ctx.getTemplateName());
             }
         });
-        freemarkerConfig_.setTemplateLoader(new URLTemplateLoader() {
+        final TemplateLoader urlTemplateLoader = new URLTemplateLoader() {
             @Override
             protected URL getURL(
                     final String name) {
@@ -77,11 +94,55 @@ public final class BeaconFreeMarkerConfig {
                     throw new BeaconException("Failed to load template resource: " + name, e);
                 }
             }
-        });
+        };
+
+        // Outside of dev mode, templates are minified once as they're loaded instead of
+        // compressing the rendered output of every request.
+        if (beaconConfig.isDevMode()) {
+            minifyingTemplateLoader_ = null;
+            freemarkerConfig_.setTemplateLoader(urlTemplateLoader);
+        } else {
+            minifyingTemplateLoader_ = new MinifyingTemplateLoader(urlTemplateLoader);
+            freemarkerConfig_.setTemplateLoader(minifyingTemplateLoader_);
+        }
+
+        precompileTemplates(baseResource.addPath(TEMPLATES_DIRECTORY), TEMPLATES_DIRECTORY);
     }
 
     public Configuration getFreeMarkerConfig() {
         return freemarkerConfig_;
     }
 
+    /**
+     * Returns true if the template with the given name was minified when it was loaded,
+     * and so its rendered output need not be compressed again.
+     */
+    public boolean isPrecompressed(
+            final String templateName) {
+        return minifyingTemplateLoader_ != null && minifyingTemplateLoader_.isMinified(templateName);
+    }
+
+    /**
+     * Loads and parses every template under the given directory into the template cache,
+     * such that the first request to render a template doesn't pay for parsing it.
+     */
+    private void precompileTemplates(
+            final Resource directory,
+            final String directoryName) throws Exception {
+        final String[] entries = directory.list();
+        if (entries == null) {
+            return;
+        }
+
+        for (final String entry : entries) {
+            if (entry.endsWith("/")) {
+                precompileTemplates(directory.addPath(entry), directoryName + entry);
+            } else if (entry.endsWith(TEMPLATE_EXTENSION)) {
+                final String templateName = directoryName + entry;
+                freemarkerConfig_.getTemplate(templateName);
+                LOG.debug("Precompiled template: {}", templateName);
+            }
+        }
+    }
+
 }
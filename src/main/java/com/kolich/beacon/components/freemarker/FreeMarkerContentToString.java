@@ -26,42 +26,86 @@
 
 package com.kolich.beacon.components.freemarker;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
 import com.kolich.beacon.BuildVersion;
 import com.kolich.beacon.components.BeaconConfig;
+import com.kolich.beacon.components.assets.BeaconStaticAssets;
 import com.kolich.beacon.entities.freemarker.FreeMarkerContent;
+import com.kolich.beacon.exceptions.BeaconException;
 import curacao.annotations.Component;
 import curacao.annotations.Injectable;
 import freemarker.template.Configuration;
+import freemarker.template.ObjectWrapper;
 import freemarker.template.Template;
-import org.apache.commons.collections4.MapUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import freemarker.template.TemplateHashModel;
+import freemarker.template.TemplateMethodModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateScalarModel;
 
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.List;
 import java.util.Map;
 
 @Component
 public final class FreeMarkerContentToString {
 
-    private static final Logger LOG = LoggerFactory.getLogger(FreeMarkerContentToString.class);
-
     private static final String BUILD_VERSION_ATTR = "buildVersion";
     private static final String CONTEXT_PATH_ATTR = "contextPath";
     private static final String FULL_URI_ATTR = "fullUri";
     private static final String DEV_MODE_ATTR = "devMode";
+    private static final String ASSET_ATTR = "asset";
 
-    private final BeaconConfig beaconConfig_;
     private final BeaconFreeMarkerConfig beaconFreeMarkerConfig_;
 
+    private final Map<String, Object> globalDataMap_;
+
+    /**
+     * The global data map, wrapped once up front; none of it ever changes.
+     */
+    private final WrappedHashModel globalModel_;
+
+    /**
+     * The custom attributes of each template (defined inline within the .ftl template file
+     * itself), wrapped once per loaded template. Weakly keyed such that templates reloaded
+     * in dev mode don't leak.
+     */
+    private final LoadingCache<Template, WrappedHashModel> templateAttributeModels_;
+
     @Injectable
     public FreeMarkerContentToString(
             final BeaconConfig beaconConfig,
-            final BeaconFreeMarkerConfig beaconFreeMarkerConfig) throws Exception {
-        beaconConfig_ = beaconConfig;
+            final BeaconFreeMarkerConfig beaconFreeMarkerConfig,
+            final BeaconStaticAssets beaconStaticAssets) throws Exception {
         beaconFreeMarkerConfig_ = beaconFreeMarkerConfig;
+
+        final ObjectWrapper objectWrapper = beaconFreeMarkerConfig.getFreeMarkerConfig().getObjectWrapper();
+
+        globalDataMap_ = ImmutableMap.<String, Object>builder()
+                // Application build version
+                .put(BUILD_VERSION_ATTR, BuildVersion.getInstance())
+                // Shared application/service properties
+                .put(CONTEXT_PATH_ATTR, beaconConfig.getViewSafeContentPath())
+                .put(FULL_URI_ATTR, beaconConfig.getViewSafeFullUri())
+                .put(DEV_MODE_ATTR, beaconConfig.isDevMode())
+                // Static asset URL resolver, e.g., ${asset('js/beacon.js')}
+                .put(ASSET_ATTR, new AssetUrlMethod(beaconStaticAssets))
+                .build();
+        globalModel_ = WrappedHashModel.wrap(globalDataMap_, objectWrapper);
+
+        templateAttributeModels_ = CacheBuilder.newBuilder()
+                .weakKeys()
+                .build(CacheLoader.from((final Template tp) -> {
+                    final ImmutableMap.Builder<String, Object> attributes = ImmutableMap.builder();
+                    for (final String attrName : tp.getCustomAttributeNames()) {
+                        attributes.put(attrName, tp.getCustomAttribute(attrName));
+                    }
+                    return WrappedHashModel.wrap(attributes.build(), tp.getObjectWrapper());
+                }));
     }
 
     public String contentToString(
@@ -71,51 +115,163 @@ public final class FreeMarkerContentToString {
 
     public Writer contentToWriter(
             final FreeMarkerContent content) throws Exception {
-        final Writer w = new StringWriter();
+        return contentToWriter(content, new StringWriter());
+    }
+
+    /**
+     * Renders the given content straight into the given writer, without buffering the
+     * rendered output in an intermediate string.
+     */
+    public <W extends Writer> W contentToWriter(
+            final FreeMarkerContent content,
+            final W w) throws Exception {
         try {
             final Configuration freeMarkerConfig = beaconFreeMarkerConfig_.getFreeMarkerConfig();
             final Template tp = freeMarkerConfig.getTemplate(content.getTemplateName());
-            tp.process(getMergedTemplateDataMap(tp, content), w);
+            tp.process(getTemplateDataModel(tp, content), w);
         } catch (final Exception e) {
             throw new RuntimeException("Failed to process free marker template into string.", e);
         }
         return w;
     }
 
+    /**
+     * Returns true if the rendered output of the given content is already compressed.
+     */
+    public boolean isPrecompressed(
+            final FreeMarkerContent content) {
+        return beaconFreeMarkerConfig_.isPrecompressed(content.getTemplateName());
+    }
+
     public Map<String, Object> getGlobalDataMap() {
-        final ImmutableMap.Builder<String, Object> map = ImmutableMap.builder();
+        return globalDataMap_;
+    }
+
+    /**
+     * Layers the template defined attributes over the entity defined attributes, over the
+     * global data map, without copying any of them.
+     */
+    TemplateHashModel getTemplateDataModel(
+            final Template tp,
+            final FreeMarkerContent content) {
+        final WrappedHashModel templateAttributes = templateAttributeModels_.getUnchecked(tp);
+        return new LayeredHashModel(templateAttributes, content.getDataMap(), tp.getObjectWrapper(),
+                globalModel_);
+    }
+
+    /**
+     * Template method that resolves the fingerprinted URL of a static asset.
+     */
+    private static final class AssetUrlMethod implements TemplateMethodModelEx {
+
+        private final BeaconStaticAssets beaconStaticAssets_;
+
+        private AssetUrlMethod(
+                final BeaconStaticAssets beaconStaticAssets) {
+            beaconStaticAssets_ = beaconStaticAssets;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Object exec(
+                final List arguments) throws TemplateModelException {
+            if (arguments.size() != 1 || !(arguments.get(0) instanceof TemplateScalarModel)) {
+                throw new TemplateModelException("asset(path) expects a single string argument.");
+            }
 
-        // Application build version
-        final BuildVersion buildVersion = BuildVersion.getInstance();
-        map.put(BUILD_VERSION_ATTR, buildVersion);
+            final String assetPath = ((TemplateScalarModel) arguments.get(0)).getAsString();
+            try {
+                return beaconStaticAssets_.getUrl(assetPath);
+            } catch (final Exception e) {
+                throw new TemplateModelException("Failed to resolve static asset: " + assetPath, e);
+            }
+        }
+
+    }
+
+    /**
+     * An immutable hash model whose values are wrapped once, up front.
+     */
+    private static final class WrappedHashModel implements TemplateHashModel {
+
+        private final Map<String, TemplateModel> models_;
+
+        private WrappedHashModel(
+                final Map<String, TemplateModel> models) {
+            models_ = models;
+        }
+
+        private static WrappedHashModel wrap(
+                final Map<String, Object> map,
+                final ObjectWrapper objectWrapper) {
+            final ImmutableMap.Builder<String, TemplateModel> models = ImmutableMap.builder();
+            try {
+                for (final Map.Entry<String, Object> entry : map.entrySet()) {
+                    models.put(entry.getKey(), objectWrapper.wrap(entry.getValue()));
+                }
+            } catch (final TemplateModelException e) {
+                throw new BeaconException("Failed to wrap template data model.", e);
+            }
+            return new WrappedHashModel(models.build());
+        }
+
+        @Override
+        public TemplateModel get(
+                final String key) {
+            return models_.get(key);
+        }
 
-        // Shared application/service properties
-        map.put(CONTEXT_PATH_ATTR, beaconConfig_.getViewSafeContentPath());
-        map.put(FULL_URI_ATTR, beaconConfig_.getViewSafeFullUri());
-        map.put(DEV_MODE_ATTR, beaconConfig_.isDevMode());
+        @Override
+        public boolean isEmpty() {
+            return models_.isEmpty();
+        }
 
-        return map.build();
     }
 
-    private Map<String, Object> getMergedTemplateDataMap(
-            final Template tp,
-            final FreeMarkerContent content) {
-        // The resulting map is intentionally not immutable here because it's
-        // mutated during template processing.
-        final Map<String, Object> map = Maps.newLinkedHashMap();
-        // Merge in the web-application specific data map.
-        map.putAll(getGlobalDataMap());
-        // Get the entity defined set of template attributes.
-        final Map<String, Object> templateDataMap = content.getDataMap();
-        if (MapUtils.isNotEmpty(templateDataMap)) {
-            map.putAll(templateDataMap);
+    /**
+     * The data model of a single render: template defined attributes take precedence over
+     * entity defined attributes, which take precedence over the global data map. Entity
+     * defined attributes are wrapped lazily, as they're looked up.
+     */
+    private static final class LayeredHashModel implements TemplateHashModel {
+
+        private final TemplateHashModel templateAttributes_;
+        private final Map<String, Object> contentAttributes_;
+        private final ObjectWrapper objectWrapper_;
+        private final TemplateHashModel global_;
+
+        private LayeredHashModel(
+                final TemplateHashModel templateAttributes,
+                final Map<String, Object> contentAttributes,
+                final ObjectWrapper objectWrapper,
+                final TemplateHashModel global) {
+            templateAttributes_ = templateAttributes;
+            contentAttributes_ = contentAttributes;
+            objectWrapper_ = objectWrapper;
+            global_ = global;
         }
-        // Get the template defined set of attributes (these are defined
-        // inline within the .ftl template file itself).
-        for (final String attrName : tp.getCustomAttributeNames()) {
-            map.put(attrName, tp.getCustomAttribute(attrName));
+
+        @Override
+        public TemplateModel get(
+                final String key) throws TemplateModelException {
+            final TemplateModel templateAttribute = templateAttributes_.get(key);
+            if (templateAttribute != null) {
+                return templateAttribute;
+            }
+
+            final Object contentAttribute = contentAttributes_.get(key);
+            if (contentAttribute != null) {
+                return objectWrapper_.wrap(contentAttribute);
+            }
+
+            return global_.get(key);
         }
-        return ImmutableMap.copyOf(map);
+
+        @Override
+        public boolean isEmpty() throws TemplateModelException {
+            return templateAttributes_.isEmpty() && contentAttributes_.isEmpty() && global_.isEmpty();
+        }
+
     }
 
 }
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.freemarker;
+
+import com.google.common.collect.ImmutableList;
+import com.googlecode.htmlcompressor.compressor.HtmlCompressor;
+import com.kolich.beacon.entities.util.HtmlUtils;
+import freemarker.cache.TemplateLoader;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link TemplateLoader} that minifies template source once, as it's loaded, such that
+ * the static markup of a template doesn't have to be compressed again on every render.
+ *
+ * FreeMarker directives, comments and interpolations are preserved verbatim: before the
+ * template is minified, each of them is swapped for a placeholder, and swapped back in
+ * afterwards. Templates that fail to minify are loaded as-is, and are not reported as
+ * pre-compressed.
+ */
+public final class MinifyingTemplateLoader implements TemplateLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MinifyingTemplateLoader.class);
+
+    private static final String FREEMARKER_COMMENT_START = "<#--";
+    private static final String FREEMARKER_COMMENT_END = "-->";
+
+    private static final String PLACEHOLDER_FORMAT = "%%%%%%~FTL~%d~%%%%%%";
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%%%~FTL~(\\d+)~%%%");
+
+    private final TemplateLoader delegate_;
+
+    private final Set<String> minifiedTemplateNames_ = ConcurrentHashMap.newKeySet();
+
+    public MinifyingTemplateLoader(
+            final TemplateLoader delegate) {
+        delegate_ = checkNotNull(delegate, "Delegate template loader cannot be null.");
+    }
+
+    /**
+     * Returns true if the template with the given name was minified when it was loaded.
+     */
+    public boolean isMinified(
+            final String templateName) {
+        return minifiedTemplateNames_.contains(templateName);
+    }
+
+    @Override
+    public Object findTemplateSource(
+            final String name) throws IOException {
+        final Object source = delegate_.findTemplateSource(name);
+        if (source == null) {
+            return null;
+        }
+
+        return new NamedTemplateSource(name, source);
+    }
+
+    @Override
+    public long getLastModified(
+            final Object templateSource) {
+        return delegate_.getLastModified(((NamedTemplateSource) templateSource).source_);
+    }
+
+    @Override
+    public Reader getReader(
+            final Object templateSource,
+            final String encoding) throws IOException {
+        final NamedTemplateSource namedSource = (NamedTemplateSource) templateSource;
+
+        final String source;
+        try (Reader reader = delegate_.getReader(namedSource.source_, encoding)) {
+            source = IOUtils.toString(reader);
+        }
+
+        try {
+            final List<String> preserved = new ArrayList<>();
+            final String placeheld = toPlaceholders(source, preserved);
+
+            final HtmlCompressor compressor = HtmlUtils.newHtmlCompressor();
+            compressor.setPreservePatterns(ImmutableList.of(PLACEHOLDER_PATTERN));
+            final String minified = fromPlaceholders(compressor.compress(HtmlUtils.minify(placeheld)), preserved);
+
+            minifiedTemplateNames_.add(namedSource.name_);
+            return new StringReader(minified);
+        } catch (final Exception e) {
+            LOG.warn("Failed to minify template, loading as-is: {}", namedSource.name_, e);
+            minifiedTemplateNames_.remove(namedSource.name_);
+            return new StringReader(source);
+        }
+    }
+
+    @Override
+    public void closeTemplateSource(
+            final Object templateSource) throws IOException {
+        delegate_.closeTemplateSource(((NamedTemplateSource) templateSource).source_);
+    }
+
+    /**
+     * Swaps every FreeMarker construct in the given template source (comments, directives,
+     * user-defined directives and interpolations) for a placeholder, adding the construct
+     * itself to the given list; the index of a construct in the list is its placeholder's.
+     */
+    private static String toPlaceholders(
+            final String source,
+            final List<String> preserved) {
+        final StringBuilder sb = new StringBuilder(source.length());
+        int index = 0;
+        while (index < source.length()) {
+            final int end = getFreeMarkerConstructEnd(source, index);
+            if (end < 0) {
+                sb.append(source.charAt(index++));
+                continue;
+            }
+
+            sb.append(String.format(PLACEHOLDER_FORMAT, preserved.size()));
+            preserved.add(source.substring(index, end));
+            index = end;
+        }
+
+        return sb.toString();
+    }
+
+    private static String fromPlaceholders(
+            final String minified,
+            final List<String> preserved) {
+        final Matcher matcher = PLACEHOLDER_PATTERN.matcher(minified);
+        final StringBuilder sb = new StringBuilder(minified.length());
+        while (matcher.find()) {
+            final String construct = preserved.get(Integer.parseInt(matcher.group(1)));
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(construct));
+        }
+        matcher.appendTail(sb);
+
+        return sb.toString();
+    }
+
+    /**
+     * If a FreeMarker construct starts at the given index, returns the index just past its
+     * end. Returns -1 otherwise, or if the construct is never closed.
+     *
+     * Unlike a regular expression, this tracks parentheses, brackets, braces and string
+     * literals, such that a directive like <code>&lt;#if (a &gt; b)&gt;</code> isn't cut
+     * short at the first <code>&gt;</code>. Like FreeMarker itself, a <code>&gt;</code>
+     * outside of parentheses ends the directive.
+     */
+    static int getFreeMarkerConstructEnd(
+            final String source,
+            final int index) {
+        if (source.startsWith(FREEMARKER_COMMENT_START, index)) {
+            final int end = source.indexOf(FREEMARKER_COMMENT_END, index + FREEMARKER_COMMENT_START.length());
+            return (end < 0) ? -1 : end + FREEMARKER_COMMENT_END.length();
+        }
+
+        final char ch = source.charAt(index);
+        if (ch == '<') {
+            // Start and end tags of directives, e.g., <#if ...>, </#if>, <@macro ...>, </@macro>, </@>.
+            final boolean endTag = index + 1 < source.length() && source.charAt(index + 1) == '/';
+            final int nameStart = endTag ? index + 2 : index + 1;
+            if (nameStart + 1 >= source.length()) {
+                return -1;
+            }
+
+            final char kind = source.charAt(nameStart);
+            final char name = source.charAt(nameStart + 1);
+            if ((kind == '#' && Character.isLetter(name))
+                    || (kind == '@' && (Character.isLetter(name) || name == '_' || name == '.' || name == '>'))) {
+                return getExpressionEnd(source, nameStart + 1, '>');
+            }
+        } else if ((ch == '$' || ch == '#') && index + 1 < source.length() && source.charAt(index + 1) == '{') {
+            // Interpolations, e.g., ${...}, and legacy numerical interpolations, e.g., #{...}.
+            return getExpressionEnd(source, index + 2, '}');
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the index just past the first unnested occurrence of the given terminator at or
+     * after the given index, skipping over string literals; or -1 if there's none.
+     */
+    private static int getExpressionEnd(
+            final String source,
+            final int index,
+            final char terminator) {
+        int depth = 0;
+        int position = index;
+        while (position < source.length()) {
+            final char ch = source.charAt(position);
+            if (ch == '"' || ch == '\'') {
+                position = getStringLiteralEnd(source, position);
+                if (position < 0) {
+                    return -1;
+                }
+                continue;
+            }
+
+            if (ch == terminator && depth == 0) {
+                return position + 1;
+            } else if (ch == '(' || ch == '[' || ch == '{') {
+                depth++;
+            } else if ((ch == ')' || ch == ']' || ch == '}') && depth > 0) {
+                depth--;
+            }
+            position++;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the index just past the end of the string literal whose opening quote is at the
+     * given index, or -1 if it's never closed. Escapes, and interpolations inside the string,
+     * are skipped over; raw strings, e.g., <code>r"C:oo"</code>, have neither.
+     */
+    private static int getStringLiteralEnd(
+            final String source,
+            final int index) {
+        final char quote = source.charAt(index);
+        final boolean raw = index > 0 && source.charAt(index - 1) == 'r'
+                && (index < 2 || !Character.isLetterOrDigit(source.charAt(index - 2)));
+
+        int position = index + 1;
+        while (position < source.length()) {
+            final char ch = source.charAt(position);
+            if (ch == quote) {
+                return position + 1;
+            } else if (!raw && ch == '\\') {
+                position += 2;
+            } else if (!raw && (ch == '$' || ch == '#') && position + 1 < source.length()
+                    && source.charAt(position + 1) == '{') {
+                position = getExpressionEnd(source, position + 2, '}');
+                if (position < 0) {
+                    return -1;
+                }
+            } else {
+                position++;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Pairs the template source of the delegate loader with the name it was found by. Equality
+     * is that of the delegate source, which FreeMarker relies on for its template cache.
+     */
+    private static final class NamedTemplateSource {
+
+        private final String name_;
+
+        private final Object source_;
+
+        private NamedTemplateSource(
+                final String name,
+                final Object source) {
+            name_ = name;
+            source_ = source;
+        }
+
+        @Override
+        public boolean equals(
+                final Object obj) {
+            return obj instanceof NamedTemplateSource
+                    && source_.equals(((NamedTemplateSource) obj).source_);
+        }
+
+        @Override
+        public int hashCode() {
+            return source_.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return source_.toString();
+        }
+
+    }
+
+}
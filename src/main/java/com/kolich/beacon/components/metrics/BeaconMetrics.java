@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.metrics;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSortedMap;
+import com.kolich.beacon.entities.freemarker.Utf8TextEntity;
+import com.kolich.beacon.entities.util.ContentEncodingUtils;
+import curacao.annotations.Component;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A minimal, in-memory registry of named application metrics.
+ *
+ * Counters only ever go up, gauges hold the last value set (or are computed on read), and
+ * recorded values keep a count, sum, max and last value. Metric names are dotted, lower
+ * case and hyphenated, e.g., <code>route53.change.propagation-latency-ms</code>.
+ */
+@Component
+public final class BeaconMetrics {
+
+    private static final String COUNT_SUFFIX = ".count";
+    private static final String SUM_SUFFIX = ".sum";
+    private static final String MAX_SUFFIX = ".max";
+    private static final String LAST_SUFFIX = ".last";
+
+    private final ConcurrentMap<String, LongAdder> counters_ = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> gauges_ = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Supplier<? extends Number>> computedGauges_ = new ConcurrentHashMap<>();
+
+    public BeaconMetrics() {
+        registerCacheStats("freemarker.compression-cache", Utf8TextEntity::getCompressionCacheStats);
+        registerCacheStats("http.gzip-cache", ContentEncodingUtils::getGzipCacheStats);
+    }
+
+    public void increment(
+            final String name) {
+        add(name, 1L);
+    }
+
+    public void add(
+            final String name,
+            final long delta) {
+        counters_.computeIfAbsent(name, n -> new LongAdder()).add(delta);
+    }
+
+    public void set(
+            final String name,
+            final long value) {
+        gauges_.computeIfAbsent(name, n -> new AtomicLong()).set(value);
+    }
+
+    /**
+     * Records a single observation of a value, e.g., a latency.
+     */
+    public void record(
+            final String name,
+            final long value) {
+        add(name + COUNT_SUFFIX, 1L);
+        add(name + SUM_SUFFIX, value);
+        gauges_.computeIfAbsent(name + MAX_SUFFIX, n -> new AtomicLong()).accumulateAndGet(value, Math::max);
+        set(name + LAST_SUFFIX, value);
+    }
+
+    /**
+     * Registers a gauge whose value is computed every time the metrics are read.
+     */
+    public void register(
+            final String name,
+            final Supplier<? extends Number> gauge) {
+        computedGauges_.put(name, gauge);
+    }
+
+    /**
+     * Returns the current value of every metric, sorted by name.
+     */
+    public SortedMap<String, Number> getSnapshot() {
+        final ImmutableSortedMap.Builder<String, Number> snapshot = ImmutableSortedMap.naturalOrder();
+        for (final Map.Entry<String, LongAdder> counter : counters_.entrySet()) {
+            snapshot.put(counter.getKey(), counter.getValue().sum());
+        }
+        for (final Map.Entry<String, AtomicLong> gauge : gauges_.entrySet()) {
+            snapshot.put(gauge.getKey(), gauge.getValue().get());
+        }
+        for (final Map.Entry<String, Supplier<? extends Number>> gauge : computedGauges_.entrySet()) {
+            snapshot.put(gauge.getKey(), gauge.getValue().get());
+        }
+        return snapshot.build();
+    }
+
+    private void registerCacheStats(
+            final String name,
+            final Supplier<CacheStats> stats) {
+        register(name + ".hits", () -> stats.get().hitCount());
+        register(name + ".misses", () -> stats.get().missCount());
+        register(name + ".evictions", () -> stats.get().evictionCount());
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.netty;
+
+import com.kolich.beacon.components.BeaconConfig;
+import com.typesafe.config.Config;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+
+@Component
+public final class BeaconEventLoopConfig {
+
+    private static final String EVENT_LOOP_CONFIG_PATH = "event-loop";
+
+    private static final String THREADS_PROP = "threads";
+    private static final String USE_NATIVE_TRANSPORT_PROP = "use-native-transport";
+
+    private final Config config_;
+
+    @Injectable
+    public BeaconEventLoopConfig(
+            final BeaconConfig beaconConfig) {
+        config_ = beaconConfig.getBeaconConfig()
+                .getConfig(EVENT_LOOP_CONFIG_PATH);
+    }
+
+    public int getThreads() {
+        return config_.getInt(THREADS_PROP);
+    }
+
+    public boolean getUseNativeTransport() {
+        return config_.getBoolean(USE_NATIVE_TRANSPORT_PROP);
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.netty;
+
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+import curacao.components.ComponentDestroyable;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A single Netty event loop group shared by every HTTP client in the app, such that each
+ * client doesn't spin up (and keep idle) its own set of I/O threads.
+ */
+@Component
+public final class BeaconEventLoopGroup implements ComponentDestroyable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconEventLoopGroup.class);
+
+    private static final String THREAD_POOL_NAME = "beacon-netty";
+
+    private final EventLoopGroup eventLoopGroup_;
+
+    private final boolean isNative_;
+
+    private final SdkEventLoopGroup sdkEventLoopGroup_;
+
+    @Injectable
+    public BeaconEventLoopGroup(
+            final BeaconEventLoopConfig beaconEventLoopConfig) {
+        // The native (epoll) transport is only available on Linux, and only when the
+        // corresponding native library is on the classpath; fall back to NIO otherwise.
+        final boolean useNativeTransport = beaconEventLoopConfig.getUseNativeTransport();
+        if (useNativeTransport && !Epoll.isAvailable()) {
+            LOG.warn("Native epoll transport requested but unavailable, falling back to NIO.",
+                    Epoll.unavailabilityCause());
+        }
+
+        final int threads = beaconEventLoopConfig.getThreads();
+        final ThreadFactory threadFactory = new DefaultThreadFactory(THREAD_POOL_NAME, true);
+        isNative_ = useNativeTransport && Epoll.isAvailable();
+        eventLoopGroup_ = isNative_
+                ? new EpollEventLoopGroup(threads, threadFactory)
+                : new NioEventLoopGroup(threads, threadFactory);
+
+        // The AWS SDK picks the matching channel factory for the type of event loop group,
+        // and never shuts down a group it was given.
+        sdkEventLoopGroup_ = SdkEventLoopGroup.create(eventLoopGroup_);
+    }
+
+    public EventLoopGroup getEventLoopGroup() {
+        return eventLoopGroup_;
+    }
+
+    /**
+     * Whether the group runs on the native (epoll) transport, rather than NIO.
+     */
+    public boolean isNative() {
+        return isNative_;
+    }
+
+    public SdkEventLoopGroup getSdkEventLoopGroup() {
+        return sdkEventLoopGroup_;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        eventLoopGroup_.shutdownGracefully();
+    }
+
+}
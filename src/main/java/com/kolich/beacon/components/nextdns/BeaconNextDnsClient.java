@@ -26,7 +26,9 @@
 
 package com.kolich.beacon.components.nextdns;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.kolich.beacon.BuildVersion;
+import com.kolich.beacon.components.netty.BeaconEventLoopGroup;
 import com.kolich.beacon.exceptions.BeaconException;
 import curacao.annotations.Component;
 import curacao.annotations.Injectable;
@@ -38,6 +40,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -54,9 +61,15 @@ public final class BeaconNextDnsClient implements NextDnsClient, ComponentDestro
 
     private final AsyncHttpClient asyncHttpClient_;
 
+    /**
+     * Runs the (blocking) updates requested with {@link #setLinkedIpAsync(String)}, one at a time.
+     */
+    private final ExecutorService updateExecutor_;
+
     @Injectable
     public BeaconNextDnsClient(
-            final BeaconNextDnsConfig beaconNextDnsConfig) {
+            final BeaconNextDnsConfig beaconNextDnsConfig,
+            final BeaconEventLoopGroup beaconEventLoopGroup) {
         beaconNextDnsConfig_ = beaconNextDnsConfig;
 
         final BuildVersion buildVersion = BuildVersion.getInstance();
@@ -65,25 +78,50 @@ public final class BeaconNextDnsClient implements NextDnsClient, ComponentDestro
 
         final AsyncHttpClientConfig asyncHttpClientConfig = new DefaultAsyncHttpClientConfig.Builder()
                 .setUserAgent(userAgent)
+                .setEventLoopGroup(beaconEventLoopGroup.getEventLoopGroup())
+                .setUseNativeTransport(beaconEventLoopGroup.isNative())
                 .build();
         asyncHttpClient_ = asyncHttpClient(asyncHttpClientConfig);
+
+        updateExecutor_ = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("beacon-nextdns-%d")
+                .build());
     }
 
     @Override
     public void setLinkedIp(
             final String linkedIp) {
+        final long apiClientTimeoutInMs = beaconNextDnsConfig_.getApiClientTimeout(TimeUnit.MILLISECONDS);
+        setLinkedIp(linkedIp, Instant.now().plusMillis(apiClientTimeoutInMs));
+    }
+
+    @Override
+    public void setLinkedIp(
+            final String linkedIp,
+            final Instant deadline) {
         checkNotNull(linkedIp, "Linked IP cannot be null.");
+        checkNotNull(deadline, "Deadline cannot be null.");
 
         try {
             final String linkedIpApiUrl = beaconNextDnsConfig_.getApiLinkedIpUrl();
 
-            final ListenableFuture<Response> futureResponse = asyncHttpClient_.prepareGet(linkedIpApiUrl)
-                    .execute();
-
+            // The request is given whatever is left until the deadline, but never more than
+            // the configured API client timeout.
             final long apiClientTimeoutInMs =
                     beaconNextDnsConfig_.getApiClientTimeout(TimeUnit.MILLISECONDS);
+            final long remainingInMs = Math.min(apiClientTimeoutInMs,
+                    Duration.between(Instant.now(), deadline).toMillis());
+            if (remainingInMs <= 0L) {
+                throw new BeaconException(String.format("Deadline exceeded before request to NextDNS "
+                        + "linked IP API could be sent: %s", linkedIpApiUrl));
+            }
 
-            final Response response = futureResponse.get(apiClientTimeoutInMs, TimeUnit.MILLISECONDS);
+            final ListenableFuture<Response> futureResponse = asyncHttpClient_.prepareGet(linkedIpApiUrl)
+                    .setRequestTimeout(Duration.ofMillis(remainingInMs))
+                    .execute();
+
+            final Response response = futureResponse.get(remainingInMs, TimeUnit.MILLISECONDS);
             final int statusCode = response.getStatusCode();
             if (statusCode != HttpStatus.SC_OK) {
                 throw new BeaconException(String.format("Unsuccessful status code from NextDNS linked IP API: %s: %s",
@@ -105,8 +143,20 @@ public final class BeaconNextDnsClient implements NextDnsClient, ComponentDestro
         }
     }
 
+    @Override
+    public CompletableFuture<Void> setLinkedIpAsync(
+            final String linkedIp) {
+        checkNotNull(linkedIp, "Linked IP cannot be null.");
+
+        // The deadline is set now, such that time spent queued behind another update counts too.
+        final long apiClientTimeoutInMs = beaconNextDnsConfig_.getApiClientTimeout(TimeUnit.MILLISECONDS);
+        final Instant deadline = Instant.now().plusMillis(apiClientTimeoutInMs);
+        return CompletableFuture.runAsync(() -> setLinkedIp(linkedIp, deadline), updateExecutor_);
+    }
+
     @Override
     public void destroy() throws Exception {
+        updateExecutor_.shutdownNow();
         asyncHttpClient_.close();
     }
 
@@ -26,9 +26,29 @@
 
 package com.kolich.beacon.components.nextdns;
 
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
 public interface NextDnsClient {
 
     void setLinkedIp(
             final String linkedIp);
 
+    /**
+     * Same as {@link #setLinkedIp(String)}, but gives up once the given deadline passes,
+     * or once the configured API client timeout elapses, whichever comes first.
+     */
+    void setLinkedIp(
+            final String linkedIp,
+            final Instant deadline);
+
+    /**
+     * Same as {@link #setLinkedIp(String)}, but on a thread of the client's own, such that
+     * it's safe to call from threads that must never block, e.g., while completing a future.
+     * The update is bounded by its own deadline, the configured API client timeout, counted
+     * from the time of this call.
+     */
+    CompletableFuture<Void> setLinkedIpAsync(
+            final String linkedIp);
+
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.quartz;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Works out the delay until the next run of the beacon job from the outcome of the last one.
+ *
+ * After a change or a failure the interval drops to the min, and stays there for the fast
+ * period; after that, every run that finds nothing changed grows the interval geometrically
+ * towards the max. Every delay is shortened by a random fraction of the interval, up to the
+ * jitter, such that a fleet of instances started at the same time drifts apart.
+ */
+final class AdaptiveInterval {
+
+    private final long minIntervalInMs_;
+    private final long maxIntervalInMs_;
+    private final double multiplier_;
+    private final long fastPeriodInMs_;
+    private final double jitter_;
+
+    private long intervalInMs_;
+
+    private Instant fastUntil_ = Instant.MIN;
+
+    AdaptiveInterval(
+            final BeaconQuartzConfig beaconQuartzConfig) {
+        minIntervalInMs_ = beaconQuartzConfig.getAdaptiveScheduleMinInterval(TimeUnit.MILLISECONDS);
+        maxIntervalInMs_ = Math.max(minIntervalInMs_,
+                beaconQuartzConfig.getAdaptiveScheduleMaxInterval(TimeUnit.MILLISECONDS));
+        multiplier_ = Math.max(1.0d, beaconQuartzConfig.getAdaptiveScheduleMultiplier());
+        fastPeriodInMs_ = beaconQuartzConfig.getAdaptiveScheduleFastPeriod(TimeUnit.MILLISECONDS);
+        jitter_ = Math.min(1.0d, Math.max(0.0d, beaconQuartzConfig.getAdaptiveScheduleJitter()));
+
+        intervalInMs_ = minIntervalInMs_;
+    }
+
+    /**
+     * Returns the current interval, without jitter.
+     */
+    synchronized long getIntervalInMs() {
+        return intervalInMs_;
+    }
+
+    /**
+     * Updates the interval with the outcome of a run, and returns the (jittered) delay
+     * until the next run.
+     */
+    synchronized long next(
+            final BeaconJobOutcome outcome,
+            final Instant now) {
+        if (outcome != BeaconJobOutcome.UNCHANGED) {
+            fastUntil_ = now.plusMillis(fastPeriodInMs_);
+            intervalInMs_ = minIntervalInMs_;
+        } else if (now.isBefore(fastUntil_)) {
+            intervalInMs_ = minIntervalInMs_;
+        } else {
+            intervalInMs_ = (long) Math.min(maxIntervalInMs_, intervalInMs_ * multiplier_);
+        }
+
+        final double jitterFraction = jitter_ * ThreadLocalRandom.current().nextDouble();
+        return Math.max(1L, (long) (intervalInMs_ * (1.0d - jitterFraction)));
+    }
+
+}
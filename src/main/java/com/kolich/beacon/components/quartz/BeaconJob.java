@@ -26,135 +26,200 @@
 
 package com.kolich.beacon.components.quartz;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.kolich.beacon.components.aws.AwsConfig;
+import com.kolich.beacon.components.aws.route53.BeaconRoute53ChangeTracker;
+import com.kolich.beacon.components.aws.route53.BeaconRoute53Reconciler;
 import com.kolich.beacon.components.nextdns.BeaconNextDnsConfig;
 import com.kolich.beacon.components.nextdns.NextDnsClient;
-import com.kolich.beacon.components.unifi.BeaconUdmConfig;
+import com.kolich.beacon.components.state.BeaconStateTracker;
+import com.kolich.beacon.components.state.BeaconSyncStateStore;
+import com.kolich.beacon.components.unifi.BeaconUplinkIpCache;
 import com.kolich.beacon.components.unifi.UdmClient;
+import com.kolich.beacon.entities.BeaconSyncState;
+import com.kolich.beacon.entities.unifi.UdmUplinkResult;
 import org.apache.commons.lang3.StringUtils;
+import org.quartz.DisallowConcurrentExecution;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.services.route53.Route53Client;
-import software.amazon.awssdk.services.route53.model.Change;
-import software.amazon.awssdk.services.route53.model.ChangeAction;
-import software.amazon.awssdk.services.route53.model.ChangeBatch;
-import software.amazon.awssdk.services.route53.model.ChangeResourceRecordSetsRequest;
-import software.amazon.awssdk.services.route53.model.ChangeResourceRecordSetsResponse;
-import software.amazon.awssdk.services.route53.model.ListResourceRecordSetsRequest;
-import software.amazon.awssdk.services.route53.model.ListResourceRecordSetsResponse;
-import software.amazon.awssdk.services.route53.model.ResourceRecord;
-import software.amazon.awssdk.services.route53.model.ResourceRecordSet;
+import software.amazon.awssdk.services.route53.model.RRType;
 
+import javax.annotation.Nullable;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Runs never overlap; runs that would start while the previous one is still running are
+ * coalesced into a single follow-up run by the {@link BeaconScheduler}.
+ */
+@DisallowConcurrentExecution
 public final class BeaconJob implements Job {
 
     private static final Logger LOG = LoggerFactory.getLogger(BeaconJob.class);
 
-    public static final String BEACON_UDM_CONFIG_DATA_MAP_KEY = "beacon.udmConfig";
+    public static final String BEACON_QUARTZ_CONFIG_DATA_MAP_KEY = "beacon.quartzConfig";
     public static final String BEACON_UDM_CLIENT_DATA_MAP_KEY = "beacon.udmClient";
+    public static final String BEACON_UPLINK_IP_CACHE_DATA_MAP_KEY = "beacon.uplinkIpCache";
     public static final String BEACON_AWS_CONFIG_DATA_MAP_KEY = "beacon.awsConfig";
-    public static final String BEACON_AWS_ROUTE53_CLIENT_DATA_MAP_KEY = "beacon.awsRoute53Client";
+    public static final String BEACON_AWS_ROUTE53_RECONCILER_DATA_MAP_KEY = "beacon.awsRoute53Reconciler";
+    public static final String BEACON_AWS_ROUTE53_CHANGE_TRACKER_DATA_MAP_KEY = "beacon.awsRoute53ChangeTracker";
     public static final String BEACON_NEXT_DNS_CONFIG_DATA_MAP_KEY = "beacon.nextDnsConfig";
     public static final String BEACON_NEXT_DNS_CLIENT_DATA_MAP_KEY = "beacon.nextDnsClient";
+    public static final String BEACON_STATE_TRACKER_DATA_MAP_KEY = "beacon.stateTracker";
+    public static final String BEACON_SYNC_STATE_STORE_DATA_MAP_KEY = "beacon.syncStateStore";
 
     @Override
     public void execute(
             final JobExecutionContext context) throws JobExecutionException {
         final Map<String, Object> jobDataMap = context.getJobDetail().getJobDataMap();
 
-        final BeaconUdmConfig beaconUdmConfig =
-                (BeaconUdmConfig) jobDataMap.get(BEACON_UDM_CONFIG_DATA_MAP_KEY);
+        final BeaconQuartzConfig beaconQuartzConfig =
+                (BeaconQuartzConfig) jobDataMap.get(BEACON_QUARTZ_CONFIG_DATA_MAP_KEY);
         final UdmClient udmClient =
                 (UdmClient) jobDataMap.get(BEACON_UDM_CLIENT_DATA_MAP_KEY);
+        final BeaconUplinkIpCache uplinkIpCache =
+                (BeaconUplinkIpCache) jobDataMap.get(BEACON_UPLINK_IP_CACHE_DATA_MAP_KEY);
         final AwsConfig awsConfig =
                 (AwsConfig) jobDataMap.get(BEACON_AWS_CONFIG_DATA_MAP_KEY);
-        final Route53Client route53 =
-                (Route53Client) jobDataMap.get(BEACON_AWS_ROUTE53_CLIENT_DATA_MAP_KEY);
+        final BeaconRoute53Reconciler route53Reconciler =
+                (BeaconRoute53Reconciler) jobDataMap.get(BEACON_AWS_ROUTE53_RECONCILER_DATA_MAP_KEY);
+        final BeaconRoute53ChangeTracker route53ChangeTracker =
+                (BeaconRoute53ChangeTracker) jobDataMap.get(BEACON_AWS_ROUTE53_CHANGE_TRACKER_DATA_MAP_KEY);
         final BeaconNextDnsConfig beaconNextDnsConfig =
                 (BeaconNextDnsConfig) jobDataMap.get(BEACON_NEXT_DNS_CONFIG_DATA_MAP_KEY);
         final NextDnsClient nextDnsClient =
                 (NextDnsClient) jobDataMap.get(BEACON_NEXT_DNS_CLIENT_DATA_MAP_KEY);
+        final BeaconStateTracker beaconStateTracker =
+                (BeaconStateTracker) jobDataMap.get(BEACON_STATE_TRACKER_DATA_MAP_KEY);
+        final BeaconSyncStateStore syncStateStore =
+                (BeaconSyncStateStore) jobDataMap.get(BEACON_SYNC_STATE_STORE_DATA_MAP_KEY);
+
+        // One deadline spans the entire run; the UDM, Route53 and NextDNS calls below are
+        // each given only what's left of it.
+        final Instant runDeadline =
+                Instant.now().plusMillis(beaconQuartzConfig.getRunTimeout(TimeUnit.MILLISECONDS));
 
         try {
-            final String jwtAuthToken = udmClient.getJwtAuthToken(
-                    beaconUdmConfig.getUsername(),
-                    beaconUdmConfig.getPassword());
-            if (StringUtils.isBlank(jwtAuthToken)) {
-                throw new JobExecutionException("Failed to authenticate with UDM - job failed.");
+            // The UDM client caches its auth token across runs, and only logs in to the
+            // controller again when the token is about to expire or gets rejected. The login
+            // and uplink lookup are chained under the deadline of the run.
+            final UdmUplinkResult udmUplinkResult = udmClient.getUdmUplinkAsync(runDeadline).join();
+            if (!udmUplinkResult.isSuccess()) {
+                throw new JobExecutionException("Failed to get UDM uplink IP - job failed.",
+                        udmUplinkResult.getFailureCause());
             }
 
-            final String udmUplinkIp = udmClient.getUdmUplinkIp(jwtAuthToken);
+            final String udmUplinkIp = udmUplinkResult.getUplinkIp();
             if (StringUtils.isBlank(udmUplinkIp)) {
                 throw new JobExecutionException("UDM uplink IP was blank/empty - job failed.");
             }
 
-            LOG.debug("Successfully extracted uplink IP from UDM: {}", udmUplinkIp);
-
-            final ListResourceRecordSetsRequest lrrsRequest = ListResourceRecordSetsRequest.builder()
-                    .hostedZoneId(awsConfig.getAwsRoute53HostedZoneId())
-                    .build();
-            final ListResourceRecordSetsResponse lrrsResponse = route53.listResourceRecordSets(lrrsRequest);
-            final List<ResourceRecordSet> rrs = lrrsResponse.resourceRecordSets();
-
-            final String recordSetUpsertName = awsConfig.getAwsRoute53ResourceRecordUpsertName();
-            final ResourceRecordSet resourceRecordSet = rrs.stream()
-                    .filter(r -> recordSetUpsertName.equals(r.name()))
-                    .findFirst()
-                    .orElseThrow();
-
-            final ResourceRecord recordToCheck = resourceRecordSet.resourceRecords().stream()
-                    .findFirst()
-                    .orElseThrow();
-
-            // If the current IP in DNS matches that of the WAN uplink IP on the UDM,
-            // then there's nothing to update so bail early.
-            if (udmUplinkIp.equals(recordToCheck.value())) {
-                LOG.debug("Uplink IP matches DNS ({}) record in Route53, nothing to update: {}",
-                        recordSetUpsertName, udmUplinkIp);
+            // The IPv6 address, if any, is that of the same (active) WAN as the uplink IP. If the
+            // WAN didn't report its IPv6 addresses at all, whether it has one is unknown; AAAA
+            // records are then left as they are, and so is the IPv6 address last applied to them.
+            final String udmUplinkIpv6 = udmUplinkResult.getUplinkIpv6();
+            final boolean udmUplinkIpv6Reported = udmUplinkResult.isUplinkIpv6Reported();
+            LOG.debug("Successfully extracted uplink IP from UDM: {}: {} (IPv6: {})",
+                    udmUplinkResult.getActiveWan(), udmUplinkIp, udmUplinkIpv6Reported ? udmUplinkIpv6 : "unknown");
+            uplinkIpCache.put(udmUplinkResult);
+
+            final BeaconSyncState previousSyncState = syncStateStore.getSyncState();
+            final String appliedIpv6 = (udmUplinkIpv6Reported || previousSyncState == null)
+                    ? udmUplinkIpv6
+                    : previousSyncState.getAppliedIpv6();
+
+            // If this exact uplink IP was already applied to the configured records recently
+            // enough, skip Route53 entirely; a full reconcile still runs periodically to catch drift.
+            final Instant now = Instant.now();
+            final String recordsFingerprint = route53Reconciler.getRecordsFingerprint();
+            if (syncStateStore.isUpToDate(udmUplinkIp, appliedIpv6, recordsFingerprint, now)) {
+                LOG.debug("Uplink IP unchanged since last sync, skipping Route53: {}", udmUplinkIp);
+                context.setResult(BeaconJobOutcome.UNCHANGED);
+                return;
+            }
+
+            // Reconcile every configured record with the uplink IP; records that are already
+            // up to date are left alone, and nothing at all is sent to Route53 if none changed.
+            // A and AAAA records of a zone are updated together in the same change batch, such
+            // that a WAN failover never leaves the zone with records pointing at different WANs.
+            // AAAA records are deleted only if so configured, and only when the active WAN reported
+            // its IPv6 addresses, none of them global.
+            final ImmutableMap.Builder<RRType, String> valuesByType = ImmutableMap.builder();
+            final ImmutableSet.Builder<RRType> typesWithoutValue = ImmutableSet.builder();
+            valuesByType.put(RRType.A, udmUplinkIp);
+            if (udmUplinkIpv6 != null) {
+                valuesByType.put(RRType.AAAA, udmUplinkIpv6);
+            } else if (udmUplinkIpv6Reported) {
+                typesWithoutValue.add(RRType.AAAA);
+            }
+            final List<String> changeIds =
+                    route53Reconciler.reconcile(valuesByType.build(), typesWithoutValue.build(), runDeadline);
+            if (changeIds.isEmpty()) {
+                LOG.debug("Uplink IP matches all DNS records in Route53, nothing to update: {}", udmUplinkIp);
+                beaconStateTracker.setDnsSynced(udmUplinkIp, null);
+                saveSyncState(syncStateStore, udmUplinkIp, appliedIpv6, recordsFingerprint, null, now);
+                context.setResult(BeaconJobOutcome.UNCHANGED);
                 return;
             }
 
-            final ResourceRecord updatedRecord = ResourceRecord.builder()
-                    .value(udmUplinkIp)
-                    .build();
-
-            final ResourceRecordSet recordSetToUpsert = ResourceRecordSet.builder()
-                    .name(resourceRecordSet.name())
-                    .type(resourceRecordSet.type())
-                    .ttl(awsConfig.getAwsRoute53ResourceRecordUpsertTtl(TimeUnit.SECONDS))
-                    .resourceRecords(updatedRecord)
-                    .build();
-
-            final Change change = Change.builder()
-                    .action(ChangeAction.UPSERT)
-                    .resourceRecordSet(recordSetToUpsert)
-                    .build();
-            final ChangeBatch changeBatch = ChangeBatch.builder()
-                    .changes(change)
-                    .build();
-            final ChangeResourceRecordSetsRequest crrsRequest = ChangeResourceRecordSetsRequest.builder()
-                    .hostedZoneId(awsConfig.getAwsRoute53HostedZoneId())
-                    .changeBatch(changeBatch)
-                    .build();
-
-            final ChangeResourceRecordSetsResponse crrsResponse =
-                    route53.changeResourceRecordSets(crrsRequest);
-            LOG.debug("Successfully updated Route53 DNS with UDM uplink IP: {}: {}",
-                    crrsResponse.changeInfo().id(), udmUplinkIp);
-
-            // Set new linked IP with NextDNS.
+            LOG.debug("Successfully updated Route53 DNS with UDM uplink IP: {}: {}", changeIds, udmUplinkIp);
+            final String lastChangeId = Iterables.getLast(changeIds);
+            beaconStateTracker.setDnsSynced(udmUplinkIp, lastChangeId);
+            saveSyncState(syncStateStore, udmUplinkIp, appliedIpv6, recordsFingerprint, lastChangeId, now);
+            context.setResult(BeaconJobOutcome.CHANGED);
+
+            // Track the propagation of every change in the background; the job never waits on it.
+            final CompletableFuture<Void> insync = route53ChangeTracker.trackAll(changeIds);
+
+            // Set new linked IP with NextDNS, optionally once every change is INSYNC. Waiting on
+            // the changes happens after the run has completed, so that update is not bound by
+            // the deadline of the run; it runs on the NextDNS client's own thread instead, under
+            // a deadline of its own.
             if (beaconNextDnsConfig.isUpdateLinkedIpEnabled()) {
-                nextDnsClient.setLinkedIp(udmUplinkIp);
+                if (awsConfig.isAwsRoute53ChangeTrackingWaitForInsync()) {
+                    insync.whenComplete((v, t) -> {
+                        if (t != null) {
+                            LOG.warn("Route53 changes not confirmed INSYNC, updating NextDNS anyway.", t);
+                        }
+                        nextDnsClient.setLinkedIpAsync(udmUplinkIp);
+                    });
+                } else {
+                    nextDnsClient.setLinkedIp(udmUplinkIp, runDeadline);
+                }
             }
         } catch (final Exception e) {
             LOG.error("Failed to run beacon job.", e);
+            context.setResult(BeaconJobOutcome.FAILED);
         }
     }
 
+    private static void saveSyncState(
+            final BeaconSyncStateStore syncStateStore,
+            final String appliedIp,
+            @Nullable final String appliedIpv6,
+            final String recordsFingerprint,
+            @Nullable final String changeId,
+            final Instant reconcileTime) {
+        // Keep the ID of the last change actually submitted when nothing needed changing.
+        final BeaconSyncState previous = syncStateStore.getSyncState();
+        final String lastChangeId = (changeId == null && previous != null) ? previous.getLastChangeId() : changeId;
+
+        syncStateStore.save(new BeaconSyncState.Builder()
+                .setAppliedIp(appliedIp)
+                .setAppliedIpv6(appliedIpv6)
+                .setRoute53Value(appliedIp)
+                .setLastChangeId(lastChangeId)
+                .setRecordsFingerprint(recordsFingerprint)
+                .setLastReconcileTime(reconcileTime)
+                .build());
+    }
+
 }
@@ -31,6 +31,8 @@ import com.typesafe.config.Config;
 import curacao.annotations.Component;
 import curacao.annotations.Injectable;
 
+import java.util.concurrent.TimeUnit;
+
 @Component
 public final class BeaconQuartzConfig {
 
@@ -41,6 +43,15 @@ public final class BeaconQuartzConfig {
 
     private static final String CRON_EXPRESSION_PROP = "cron-expression";
 
+    private static final String RUN_TIMEOUT_PROP = "run-timeout";
+
+    private static final String ADAPTIVE_SCHEDULE_ENABLED_PROP = "adaptive-schedule.enabled";
+    private static final String ADAPTIVE_SCHEDULE_MIN_INTERVAL_PROP = "adaptive-schedule.min-interval";
+    private static final String ADAPTIVE_SCHEDULE_MAX_INTERVAL_PROP = "adaptive-schedule.max-interval";
+    private static final String ADAPTIVE_SCHEDULE_MULTIPLIER_PROP = "adaptive-schedule.multiplier";
+    private static final String ADAPTIVE_SCHEDULE_FAST_PERIOD_PROP = "adaptive-schedule.fast-period";
+    private static final String ADAPTIVE_SCHEDULE_JITTER_PROP = "adaptive-schedule.jitter";
+
     private final Config config_;
 
     @Injectable
@@ -66,4 +77,53 @@ public final class BeaconQuartzConfig {
         return config_.getString(CRON_EXPRESSION_PROP);
     }
 
+    /**
+     * The deadline budget of a single run of the job, shared by every remote call it makes.
+     */
+    public long getRunTimeout(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(RUN_TIMEOUT_PROP, timeUnit);
+    }
+
+    // Adaptive schedule config
+
+    /**
+     * Whether the job runs on an adaptive interval, instead of on the fixed cron expression.
+     */
+    public boolean isAdaptiveScheduleEnabled() {
+        return config_.getBoolean(ADAPTIVE_SCHEDULE_ENABLED_PROP);
+    }
+
+    public long getAdaptiveScheduleMinInterval(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(ADAPTIVE_SCHEDULE_MIN_INTERVAL_PROP, timeUnit);
+    }
+
+    public long getAdaptiveScheduleMaxInterval(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(ADAPTIVE_SCHEDULE_MAX_INTERVAL_PROP, timeUnit);
+    }
+
+    /**
+     * The factor the interval grows by after every run that finds the uplink IP unchanged.
+     */
+    public double getAdaptiveScheduleMultiplier() {
+        return config_.getDouble(ADAPTIVE_SCHEDULE_MULTIPLIER_PROP);
+    }
+
+    /**
+     * How long the job keeps running at the min interval after a change or a failure.
+     */
+    public long getAdaptiveScheduleFastPeriod(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(ADAPTIVE_SCHEDULE_FAST_PERIOD_PROP, timeUnit);
+    }
+
+    /**
+     * The max fraction, between 0 and 1, every delay is randomly shortened by.
+     */
+    public double getAdaptiveScheduleJitter() {
+        return config_.getDouble(ADAPTIVE_SCHEDULE_JITTER_PROP);
+    }
+
 }
@@ -27,62 +27,172 @@
 package com.kolich.beacon.components.quartz;
 
 import com.kolich.beacon.components.aws.AwsConfig;
-import com.kolich.beacon.components.aws.route53.BeaconRoute53Client;
+import com.kolich.beacon.components.aws.route53.BeaconRoute53ChangeTracker;
+import com.kolich.beacon.components.aws.route53.BeaconRoute53Reconciler;
+import com.kolich.beacon.components.metrics.BeaconMetrics;
 import com.kolich.beacon.components.nextdns.BeaconNextDnsConfig;
 import com.kolich.beacon.components.nextdns.NextDnsClient;
-import com.kolich.beacon.components.unifi.BeaconUdmConfig;
+import com.kolich.beacon.components.state.BeaconStateTracker;
+import com.kolich.beacon.components.state.BeaconSyncStateStore;
+import com.kolich.beacon.components.unifi.BeaconUplinkIpCache;
 import com.kolich.beacon.components.unifi.UdmClient;
 import curacao.annotations.Component;
 import curacao.annotations.Injectable;
 import curacao.components.CuracaoComponent;
 import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
 import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
 import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.EverythingMatcher;
+import org.quartz.impl.matchers.KeyMatcher;
+import org.quartz.listeners.JobListenerSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_AWS_CONFIG_DATA_MAP_KEY;
-import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_AWS_ROUTE53_CLIENT_DATA_MAP_KEY;
+import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_AWS_ROUTE53_CHANGE_TRACKER_DATA_MAP_KEY;
+import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_AWS_ROUTE53_RECONCILER_DATA_MAP_KEY;
 import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_NEXT_DNS_CLIENT_DATA_MAP_KEY;
 import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_NEXT_DNS_CONFIG_DATA_MAP_KEY;
+import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_QUARTZ_CONFIG_DATA_MAP_KEY;
+import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_STATE_TRACKER_DATA_MAP_KEY;
+import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_SYNC_STATE_STORE_DATA_MAP_KEY;
 import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_UDM_CLIENT_DATA_MAP_KEY;
-import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_UDM_CONFIG_DATA_MAP_KEY;
+import static com.kolich.beacon.components.quartz.BeaconJob.BEACON_UPLINK_IP_CACHE_DATA_MAP_KEY;
 import static org.quartz.CronScheduleBuilder.cronSchedule;
 import static org.quartz.JobBuilder.newJob;
+import static org.quartz.SimpleScheduleBuilder.simpleSchedule;
 import static org.quartz.TriggerBuilder.newTrigger;
 
 @Component
 public final class BeaconScheduler implements CuracaoComponent {
 
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconScheduler.class);
+
+    private static final String ADAPTIVE_SCHEDULE_LISTENER_NAME = "beacon.adaptiveSchedule";
+
+    private static final String INTERVAL_METRIC = "job.interval-ms";
+    private static final String NEXT_RUN_DELAY_METRIC = "job.next-run-delay-ms";
+
     private final Scheduler quartzScheduler_;
 
+    private final BeaconMetrics metrics_;
+
+    private final JobKey jobKey_;
+
+    private final TriggerKey triggerKey_;
+
     @Injectable
     public BeaconScheduler(
-            final BeaconUdmConfig beaconUdmConfig,
             final BeaconQuartzConfig beaconQuartzConfig,
             final BeaconSchedulerFactory beaconSchedulerFactory,
             final UdmClient udmClient,
+            final BeaconUplinkIpCache uplinkIpCache,
             final AwsConfig awsConfig,
-            final BeaconRoute53Client route53Client,
+            final BeaconRoute53Reconciler route53Reconciler,
+            final BeaconRoute53ChangeTracker route53ChangeTracker,
             final BeaconNextDnsConfig beaconNextDnsConfig,
-            final NextDnsClient nextDnsClient) throws Exception {
+            final NextDnsClient nextDnsClient,
+            final BeaconStateTracker beaconStateTracker,
+            final BeaconSyncStateStore syncStateStore,
+            final BeaconMetrics metrics) throws Exception {
         quartzScheduler_ = beaconSchedulerFactory.getNewScheduler();
+        metrics_ = metrics;
 
         final JobDataMap jobDataMap = new JobDataMap();
-        jobDataMap.put(BEACON_UDM_CONFIG_DATA_MAP_KEY, beaconUdmConfig);
+        jobDataMap.put(BEACON_QUARTZ_CONFIG_DATA_MAP_KEY, beaconQuartzConfig);
         jobDataMap.put(BEACON_UDM_CLIENT_DATA_MAP_KEY, udmClient);
+        jobDataMap.put(BEACON_UPLINK_IP_CACHE_DATA_MAP_KEY, uplinkIpCache);
         jobDataMap.put(BEACON_AWS_CONFIG_DATA_MAP_KEY, awsConfig);
-        jobDataMap.put(BEACON_AWS_ROUTE53_CLIENT_DATA_MAP_KEY, route53Client.getRoute53Client());
+        jobDataMap.put(BEACON_AWS_ROUTE53_RECONCILER_DATA_MAP_KEY, route53Reconciler);
+        jobDataMap.put(BEACON_AWS_ROUTE53_CHANGE_TRACKER_DATA_MAP_KEY, route53ChangeTracker);
         jobDataMap.put(BEACON_NEXT_DNS_CONFIG_DATA_MAP_KEY, beaconNextDnsConfig);
         jobDataMap.put(BEACON_NEXT_DNS_CLIENT_DATA_MAP_KEY, nextDnsClient);
+        jobDataMap.put(BEACON_STATE_TRACKER_DATA_MAP_KEY, beaconStateTracker);
+        jobDataMap.put(BEACON_SYNC_STATE_STORE_DATA_MAP_KEY, syncStateStore);
 
+        // The job is durable such that it outlives its (one-shot) adaptive triggers.
         final JobDetail job = newJob(BeaconJob.class)
                 .setJobData(jobDataMap)
+                .storeDurably()
                 .build();
+        jobKey_ = job.getKey();
+
+        // Runs never overlap (see BeaconJob); triggers that fire while a run is in progress are
+        // held back until the run completes, and then coalesced into a single follow-up run.
+        // Every trigger of this scheduler is one of the beacon job.
+        quartzScheduler_.getListenerManager().addTriggerListener(
+                new CoalescingListener(metrics, beaconQuartzConfig.getRunTimeout(TimeUnit.MILLISECONDS)),
+                EverythingMatcher.allTriggers());
+
+        final Trigger trigger;
+        if (beaconQuartzConfig.isAdaptiveScheduleEnabled()) {
+            // Run right away, then reschedule after every run with a delay that depends on its outcome.
+            final AdaptiveInterval adaptiveInterval = new AdaptiveInterval(beaconQuartzConfig);
+            metrics.register(INTERVAL_METRIC, adaptiveInterval::getIntervalInMs);
+            quartzScheduler_.getListenerManager().addJobListener(
+                    new AdaptiveScheduleListener(adaptiveInterval), KeyMatcher.keyEquals(jobKey_));
+            trigger = newTrigger()
+                    .startNow()
+                    .build();
+        } else {
+            // A fire time missed by far enough while a run overran is skipped outright, rather
+            // than fired late.
+            trigger = newTrigger()
+                    .withSchedule(cronSchedule(beaconQuartzConfig.getCronExpression())
+                            .withMisfireHandlingInstructionDoNothing())
+                    .build();
+        }
+        triggerKey_ = trigger.getKey();
+
+        quartzScheduler_.scheduleJob(job, trigger);
+    }
+
+    /**
+     * Fires the beacon job right away, in addition to its regular schedule; e.g., when the
+     * controller signals that the uplink of the gateway has changed. If a run is already in
+     * progress, the trigger is held back until that run completes, and then fires a single
+     * follow-up run, as the run in progress may have read the uplink before the change.
+     */
+    public void triggerNow() throws SchedulerException {
+        // A one-shot trigger held back by a run in progress fires as soon as that run completes,
+        // however long it overran; it's only coalesced into a run that started after it was due.
         final Trigger trigger = newTrigger()
-                .withSchedule(cronSchedule(beaconQuartzConfig.getCronExpression()))
+                .forJob(jobKey_)
+                .startNow()
+                .withSchedule(simpleSchedule()
+                        .withMisfireHandlingInstructionFireNow())
                 .build();
+        quartzScheduler_.scheduleJob(trigger);
+    }
 
-        quartzScheduler_.scheduleJob(job, trigger);
+    /**
+     * Replaces the (one-shot) adaptive trigger of the job with one that fires after the given delay.
+     */
+    private void scheduleNextRun(
+            final long delayInMs) throws SchedulerException {
+        final Trigger trigger = newTrigger()
+                .withIdentity(triggerKey_)
+                .forJob(jobKey_)
+                .startAt(new Date(System.currentTimeMillis() + delayInMs))
+                .build();
+
+        // Quartz keeps a trigger that's replaced while its job runs, rather than deleting it once
+        // the run completes; should the trigger be gone regardless, e.g., after a failed
+        // reschedule, a new one is scheduled in its place.
+        if (quartzScheduler_.rescheduleJob(triggerKey_, trigger) == null) {
+            quartzScheduler_.scheduleJob(trigger);
+        }
+        metrics_.set(NEXT_RUN_DELAY_METRIC, delayInMs);
     }
 
     @Override
@@ -98,4 +208,52 @@ public final class BeaconScheduler implements CuracaoComponent {
         quartzScheduler_.shutdown();
     }
 
+    private final class AdaptiveScheduleListener extends JobListenerSupport {
+
+        private final AdaptiveInterval adaptiveInterval_;
+
+        private AdaptiveScheduleListener(
+                final AdaptiveInterval adaptiveInterval) {
+            adaptiveInterval_ = adaptiveInterval;
+        }
+
+        @Override
+        public String getName() {
+            return ADAPTIVE_SCHEDULE_LISTENER_NAME;
+        }
+
+        @Override
+        public void jobWasExecuted(
+                final JobExecutionContext context,
+                final JobExecutionException jobException) {
+            final BeaconJobOutcome outcome = (context.getResult() instanceof BeaconJobOutcome)
+                    ? (BeaconJobOutcome) context.getResult()
+                    : BeaconJobOutcome.FAILED;
+            final long delayInMs = adaptiveInterval_.next(outcome, Instant.now());
+            LOG.debug("Beacon job run {}, next run in {}ms.", outcome, delayInMs);
+            try {
+                scheduleNextRun(delayInMs);
+            } catch (final SchedulerException e) {
+                LOG.error("Failed to schedule next run of beacon job.", e);
+            }
+        }
+
+        @Override
+        public void jobExecutionVetoed(
+                final JobExecutionContext context) {
+            // The (one-shot) adaptive trigger was coalesced into the previous run; keep the
+            // schedule going at the current interval, or it would end here.
+            if (!triggerKey_.equals(context.getTrigger().getKey())) {
+                return;
+            }
+
+            try {
+                scheduleNextRun(adaptiveInterval_.getIntervalInMs());
+            } catch (final SchedulerException e) {
+                LOG.error("Failed to schedule next run of beacon job.", e);
+            }
+        }
+
+    }
+
 }
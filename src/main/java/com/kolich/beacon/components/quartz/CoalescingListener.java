@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.quartz;
+
+import com.kolich.beacon.components.metrics.BeaconMetrics;
+import org.quartz.JobExecutionContext;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.Date;
+
+/**
+ * Vetoes any fire of the job that was due before the previous run started, i.e., one that
+ * run already covered, and reports the duration of every run, including those that overran
+ * the run timeout. Fires that came due while a run was in progress are held back until it
+ * completes; the first of them is let through as a single follow-up run, which every other
+ * one is then coalesced into.
+ */
+final class CoalescingListener extends TriggerListenerSupport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingListener.class);
+
+    private static final String COALESCING_LISTENER_NAME = "beacon.coalescing";
+
+    static final String DURATION_METRIC = "job.duration-ms";
+    static final String COALESCED_METRIC = "job.coalesced";
+    static final String OVERRUNS_METRIC = "job.overruns";
+
+    private final BeaconMetrics metrics_;
+
+    private final long runTimeoutInMs_;
+
+    private final Clock clock_;
+
+    private volatile long lastRunStartedAtInMs_ = 0L;
+
+    CoalescingListener(
+            final BeaconMetrics metrics,
+            final long runTimeoutInMs) {
+        this(metrics, runTimeoutInMs, Clock.systemUTC());
+    }
+
+    CoalescingListener(
+            final BeaconMetrics metrics,
+            final long runTimeoutInMs,
+            final Clock clock) {
+        metrics_ = metrics;
+        runTimeoutInMs_ = runTimeoutInMs;
+        clock_ = clock;
+    }
+
+    @Override
+    public String getName() {
+        return COALESCING_LISTENER_NAME;
+    }
+
+    @Override
+    public boolean vetoJobExecution(
+            final Trigger trigger,
+            final JobExecutionContext context) {
+        final Date scheduledFireTime = context.getScheduledFireTime();
+        if (scheduledFireTime == null || scheduledFireTime.getTime() >= lastRunStartedAtInMs_) {
+            // Runs never overlap, so this run starts now.
+            lastRunStartedAtInMs_ = clock_.millis();
+            return false;
+        }
+
+        LOG.debug("Beacon job fire from trigger {} was due before the previous run started, coalescing.",
+                trigger.getKey());
+        metrics_.increment(COALESCED_METRIC);
+        return true;
+    }
+
+    @Override
+    public void triggerComplete(
+            final Trigger trigger,
+            final JobExecutionContext context,
+            final CompletedExecutionInstruction triggerInstructionCode) {
+        final long runTimeInMs = context.getJobRunTime();
+        metrics_.record(DURATION_METRIC, runTimeInMs);
+        if (runTimeInMs > runTimeoutInMs_) {
+            LOG.warn("Beacon job run overran its timeout: {}ms > {}ms", runTimeInMs, runTimeoutInMs_);
+            metrics_.increment(OVERRUNS_METRIC);
+        }
+    }
+
+}
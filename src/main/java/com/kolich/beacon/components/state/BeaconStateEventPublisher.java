@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.state;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kolich.beacon.Application;
+import com.kolich.beacon.components.jackson.BeaconJacksonObjectMapper;
+import com.kolich.beacon.entities.BeaconState;
+import com.kolich.beacon.servlets.EventStream;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+import curacao.core.servlet.ServletContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes every change of the {@link BeaconState} as a "state" event on the
+ * Server-Sent Events stream served at <code>/events</code>.
+ */
+@Component
+public final class BeaconStateEventPublisher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconStateEventPublisher.class);
+
+    private static final String STATE_EVENT = "state";
+
+    private final EventStream eventStream_;
+
+    private final ObjectMapper objectMapper_;
+
+    @Injectable
+    public BeaconStateEventPublisher(
+            final ServletContext servletContext,
+            final BeaconStateTracker beaconStateTracker,
+            final BeaconJacksonObjectMapper beaconJacksonObjectMapper) {
+        eventStream_ = (EventStream) servletContext.getAttribute(Application.CONTEXT_ATTRIBUTE_EVENT_STREAM);
+        objectMapper_ = beaconJacksonObjectMapper.getObjectMapper();
+
+        beaconStateTracker.addListener(this::publish);
+        publish(beaconStateTracker.getState());
+    }
+
+    private void publish(
+            final BeaconState state) {
+        try {
+            eventStream_.publish(STATE_EVENT, objectMapper_.writeValueAsString(state));
+        } catch (final Exception e) {
+            LOG.warn("Failed to publish state event.", e);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.state;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kolich.beacon.components.jackson.BeaconJacksonObjectMapper;
+import com.kolich.beacon.entities.BeaconState;
+import com.kolich.beacon.entities.BeaconStateSnapshot;
+import com.kolich.beacon.exceptions.BeaconException;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the {@link BeaconStateSnapshot} of the current {@link BeaconState}. The snapshot
+ * is only re-serialized when the state changes, so serving it is a memory read.
+ */
+@Component
+public final class BeaconStateSnapshotCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconStateSnapshotCache.class);
+
+    private final ObjectMapper objectMapper_;
+
+    private volatile BeaconStateSnapshot snapshot_;
+
+    @Injectable
+    public BeaconStateSnapshotCache(
+            final BeaconStateTracker beaconStateTracker,
+            final BeaconJacksonObjectMapper beaconJacksonObjectMapper) {
+        objectMapper_ = beaconJacksonObjectMapper.getObjectMapper();
+
+        snapshot_ = toSnapshot(beaconStateTracker.getState());
+        beaconStateTracker.addListener(this::rebuild);
+    }
+
+    public BeaconStateSnapshot getSnapshot() {
+        return snapshot_;
+    }
+
+    private void rebuild(
+            final BeaconState state) {
+        try {
+            snapshot_ = toSnapshot(state);
+        } catch (final Exception e) {
+            // Keep serving the previous snapshot; it's stale, but still valid JSON.
+            LOG.error("Failed to serialize state snapshot.", e);
+        }
+    }
+
+    private BeaconStateSnapshot toSnapshot(
+            final BeaconState state) {
+        try {
+            return new BeaconStateSnapshot(objectMapper_.writeValueAsBytes(state));
+        } catch (final Exception e) {
+            throw new BeaconException("Failed to serialize state: " + state.getVersion(), e);
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.state;
+
+import com.kolich.beacon.entities.BeaconState;
+import com.kolich.beacon.entities.BeaconSyncState;
+import com.kolich.beacon.entities.unifi.UdmUplinkResult;
+import curacao.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.route53.model.ChangeStatus;
+
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Tracks the current {@link BeaconState}, and notifies registered listeners whenever
+ * the state changes. Updates that don't change anything are ignored.
+ */
+@Component
+public final class BeaconStateTracker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconStateTracker.class);
+
+    private final List<Consumer<BeaconState>> listeners_ = new CopyOnWriteArrayList<>();
+
+    private final Object stateLock_ = new Object();
+
+    private volatile BeaconState state_ = new BeaconState.Builder().build();
+
+    public BeaconState getState() {
+        return state_;
+    }
+
+    /**
+     * Registers a listener invoked with the new state every time the state changes.
+     */
+    public void addListener(
+            final Consumer<BeaconState> listener) {
+        listeners_.add(listener);
+    }
+
+    /**
+     * Records the uplink of the gateway from a successful {@link UdmUplinkResult}.
+     */
+    public void setUplink(
+            final UdmUplinkResult result) {
+        update(b -> b.setUplinkIp(result.getUplinkIp())
+                .setUplinkIpv6(result.getUplinkIpv6())
+                .setActiveWan(result.getActiveWan()));
+    }
+
+    /**
+     * Records a successful sync of the DNS record with Route53.
+     *
+     * @param route53Value the value of the DNS record in Route53 after the sync
+     * @param changeId the ID of the Route53 change submitted by the sync, or null if the
+     *                 record was already up to date
+     */
+    public void setDnsSynced(
+            final String route53Value,
+            @Nullable final String changeId) {
+        update(b -> {
+            b.setRoute53Value(route53Value)
+                    .setLastSyncTime(Instant.now());
+            if (changeId != null) {
+                b.setLastChangeId(changeId)
+                        .setLastChangeStatus(ChangeStatus.PENDING.toString())
+                        .setLastPropagationLatencyMs(null);
+            }
+            return b;
+        });
+    }
+
+    /**
+     * Records that the given Route53 change has propagated to all of the Route53 name servers.
+     * Ignored if a newer change has since been submitted.
+     *
+     * @param changeId the ID of the Route53 change
+     * @param latencyMs how long the change took to become INSYNC, in milliseconds
+     */
+    public void setChangeInsync(
+            final String changeId,
+            final long latencyMs) {
+        update(b -> {
+            if (changeId.equals(state_.getLastChangeId())) {
+                b.setLastChangeStatus(ChangeStatus.INSYNC.toString())
+                        .setLastPropagationLatencyMs(latencyMs);
+            }
+            return b;
+        });
+    }
+
+    /**
+     * Restores the state of the last DNS sync persisted before a restart.
+     */
+    public void restoreDnsSynced(
+            final BeaconSyncState syncState) {
+        update(b -> b.setRoute53Value(syncState.getRoute53Value())
+                .setLastSyncTime(syncState.getLastReconcileTime())
+                .setLastChangeId(syncState.getLastChangeId()));
+    }
+
+    private void update(
+            final UnaryOperator<BeaconState.Builder> updater) {
+        synchronized (stateLock_) {
+            final BeaconState current = state_;
+            final BeaconState candidate = updater.apply(current.toBuilder()).build();
+            if (isSameState(current, candidate)) {
+                return;
+            }
+
+            final BeaconState updated = candidate.toBuilder()
+                    .setVersion(current.getVersion() + 1L)
+                    .build();
+            state_ = updated;
+
+            // Listeners are notified under the lock such that they observe state changes
+            // in order; listeners are expected to be quick and never block.
+            for (final Consumer<BeaconState> listener : listeners_) {
+                try {
+                    listener.accept(updated);
+                } catch (final Exception e) {
+                    LOG.warn("State listener failed.", e);
+                }
+            }
+        }
+    }
+
+    private static boolean isSameState(
+            final BeaconState a,
+            final BeaconState b) {
+        return Objects.equals(a.getUplinkIp(), b.getUplinkIp())
+                && Objects.equals(a.getUplinkIpv6(), b.getUplinkIpv6())
+                && Objects.equals(a.getActiveWan(), b.getActiveWan())
+                && Objects.equals(a.getRoute53Value(), b.getRoute53Value())
+                && Objects.equals(a.getLastSyncTime(), b.getLastSyncTime())
+                && Objects.equals(a.getLastChangeId(), b.getLastChangeId())
+                && Objects.equals(a.getLastChangeStatus(), b.getLastChangeStatus())
+                && Objects.equals(a.getLastPropagationLatencyMs(), b.getLastPropagationLatencyMs());
+    }
+
+}
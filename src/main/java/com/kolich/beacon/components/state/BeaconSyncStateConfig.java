@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.state;
+
+import com.kolich.beacon.components.BeaconConfig;
+import com.typesafe.config.Config;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public final class BeaconSyncStateConfig {
+
+    private static final String SYNC_STATE_CONFIG_PATH = "sync-state";
+
+    private static final String ENABLED_PROP = "enabled";
+    private static final String FILE_PROP = "file";
+    private static final String FULL_RECONCILE_INTERVAL_PROP = "full-reconcile-interval";
+
+    private final Config config_;
+
+    @Injectable
+    public BeaconSyncStateConfig(
+            final BeaconConfig beaconConfig) {
+        config_ = beaconConfig.getBeaconConfig()
+                .getConfig(SYNC_STATE_CONFIG_PATH);
+    }
+
+    public boolean isEnabled() {
+        return config_.getBoolean(ENABLED_PROP);
+    }
+
+    public Path getFile() {
+        return Paths.get(config_.getString(FILE_PROP));
+    }
+
+    public long getFullReconcileInterval(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(FULL_RECONCILE_INTERVAL_PROP, timeUnit);
+    }
+
+}
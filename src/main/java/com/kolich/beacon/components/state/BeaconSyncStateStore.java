@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.state;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kolich.beacon.components.jackson.BeaconJacksonObjectMapper;
+import com.kolich.beacon.entities.BeaconSyncState;
+import com.kolich.beacon.exceptions.BeaconException;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the {@link BeaconSyncState} to a small local file.
+ *
+ * The file is always replaced atomically: the new state is written to a temporary file
+ * in the same directory, flushed to disk, and then moved over the previous file, such that
+ * a crash mid-write never leaves a torn or empty state file behind. A missing or unreadable
+ * file is treated as no state at all, which simply forces a full reconcile.
+ */
+@Component
+public final class BeaconSyncStateStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconSyncStateStore.class);
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final BeaconSyncStateConfig syncStateConfig_;
+
+    private final ObjectMapper objectMapper_;
+
+    private final Object writeLock_ = new Object();
+
+    private volatile BeaconSyncState syncState_;
+
+    @Injectable
+    public BeaconSyncStateStore(
+            final BeaconSyncStateConfig syncStateConfig,
+            final BeaconJacksonObjectMapper beaconJacksonObjectMapper,
+            final BeaconStateTracker beaconStateTracker) {
+        syncStateConfig_ = syncStateConfig;
+        objectMapper_ = beaconJacksonObjectMapper.getObjectMapper();
+
+        if (syncStateConfig_.isEnabled()) {
+            syncState_ = load(syncStateConfig_.getFile());
+            if (syncState_ != null) {
+                beaconStateTracker.restoreDnsSynced(syncState_);
+            }
+        }
+    }
+
+    /**
+     * Returns the last persisted sync state, or null if there is none.
+     */
+    @Nullable
+    public BeaconSyncState getSyncState() {
+        return syncState_;
+    }
+
+    /**
+     * Returns true if the given uplink IP (and IPv6 address, if any) was already applied to
+     * the given desired records by a reconcile recent enough that Route53 need not be
+     * consulted at all.
+     */
+    public boolean isUpToDate(
+            final String uplinkIp,
+            @Nullable final String uplinkIpv6,
+            final String recordsFingerprint,
+            final Instant now) {
+        final BeaconSyncState syncState = syncState_;
+        if (!syncStateConfig_.isEnabled() || syncState == null) {
+            return false;
+        }
+
+        final long fullReconcileIntervalInMs =
+                syncStateConfig_.getFullReconcileInterval(TimeUnit.MILLISECONDS);
+        final Instant fullReconcileDueAt = syncState.getLastReconcileTime().plusMillis(fullReconcileIntervalInMs);
+
+        return uplinkIp.equals(syncState.getAppliedIp())
+                && Objects.equals(uplinkIpv6, syncState.getAppliedIpv6())
+                && recordsFingerprint.equals(syncState.getRecordsFingerprint())
+                && now.isBefore(fullReconcileDueAt);
+    }
+
+    /**
+     * Atomically replaces the persisted sync state. Failing to persist the state is logged,
+     * but otherwise harmless: the next run just reconciles with Route53 again.
+     */
+    public void save(
+            final BeaconSyncState syncState) {
+        syncState_ = syncState;
+        if (!syncStateConfig_.isEnabled()) {
+            return;
+        }
+
+        synchronized (writeLock_) {
+            final Path file = syncStateConfig_.getFile().toAbsolutePath();
+            try {
+                write(file, objectMapper_.writeValueAsBytes(syncState));
+            } catch (final Exception e) {
+                LOG.error("Failed to persist sync state: {}", file, e);
+            }
+        }
+    }
+
+    @Nullable
+    private BeaconSyncState load(
+            final Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            final BeaconSyncState syncState = objectMapper_.readValue(file.toFile(), BeaconSyncState.class);
+            LOG.debug("Loaded sync state: {}: {}", file, syncState.getAppliedIp());
+            return syncState;
+        } catch (final Exception e) {
+            LOG.warn("Ignoring unreadable sync state: {}", file, e);
+            return null;
+        }
+    }
+
+    private static void write(
+            final Path file,
+            final byte[] body) throws Exception {
+        final Path directory = file.getParent();
+        Files.createDirectories(directory);
+
+        final Path temp = Files.createTempFile(directory, file.getFileName().toString(), TEMP_FILE_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                final ByteBuffer buffer = ByteBuffer.wrap(body);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final Exception e) {
+            Files.deleteIfExists(temp);
+            throw new BeaconException("Failed to write sync state: " + file, e);
+        }
+    }
+
+}
@@ -26,98 +26,370 @@
 
 package com.kolich.beacon.components.unifi;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.net.HttpHeaders;
 import com.google.common.net.MediaType;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.kolich.beacon.BuildVersion;
 import com.kolich.beacon.components.jackson.BeaconJacksonObjectMapper;
+import com.kolich.beacon.components.netty.BeaconEventLoopGroup;
+import com.kolich.beacon.entities.unifi.UdmUplinkResult;
 import com.kolich.beacon.entities.unifi.request.UdmAuthLoginRequest;
-import com.kolich.beacon.entities.unifi.response.UdmDevice;
-import com.kolich.beacon.entities.unifi.response.UdmDeviceStatResponse;
+import com.kolich.beacon.entities.unifi.request.UdmDeviceStatRequest;
+import com.kolich.beacon.entities.unifi.response.UdmDeviceStatReader;
+import com.kolich.beacon.entities.unifi.response.UdmDeviceUplink;
+import com.kolich.beacon.entities.unifi.response.UdmHealthReader;
 import com.kolich.beacon.exceptions.BeaconException;
 import curacao.annotations.Component;
 import curacao.annotations.Injectable;
+import curacao.components.ComponentDestroyable;
 import curacao.core.servlet.HttpStatus;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.DefaultCookie;
 import org.apache.commons.lang3.StringUtils;
 import org.asynchttpclient.*;
 import org.asynchttpclient.netty.ssl.JsseSslEngineFactory;
+import org.asynchttpclient.ws.WebSocket;
+import org.asynchttpclient.ws.WebSocketListener;
+import org.asynchttpclient.ws.WebSocketUpgradeHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509ExtendedTrustManager;
+import java.io.IOException;
 import java.net.Socket;
-import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 import static org.asynchttpclient.Dsl.asyncHttpClient;
 
 @Component
-public final class BeaconUdmClient implements UdmClient {
+public final class BeaconUdmClient implements UdmClient, ComponentDestroyable {
 
     private static final Logger LOG = LoggerFactory.getLogger(BeaconUdmClient.class);
 
     private static final String USER_AGENT_FORMAT = "Beacon/%s";
+    private static final String THREAD_POOL_NAME = "beacon-udm";
 
     private static final String JSON_UTF_8 = MediaType.JSON_UTF_8.toString();
 
     private static final String API_AUTH_LOGIN_PATH = "/api/auth/login";
-    private static final String API_PROXY_DEVICE_STAT_PATH = "/proxy/network/api/s/default/stat/device";
+    private static final String EVENTS_PATH_FORMAT = "/proxy/network/wss/s/%s/events";
+
+    private static final String HTTP_SCHEME = "http://";
+    private static final String HTTPS_SCHEME = "https://";
+    private static final String WS_SCHEME = "ws://";
+    private static final String WSS_SCHEME = "wss://";
 
     private static final String AUTH_TOKEN_COOKIE_NAME = "TOKEN";
+    private static final String JWT_EXPIRATION_CLAIM = "exp";
 
-    private static final String UDM_DEVICE_NAME = "UDM";
+    private static final String DEVICE_MAC_FIELD = "mac";
+    private static final String DEVICE_TYPE_FIELD = "type";
 
     private final BeaconUdmConfig beaconUdmConfig_;
 
     private final ObjectMapper objectMapper_;
 
+    /**
+     * A single, long-lived client shared by every call to the controller. The underlying
+     * Netty event loop, SSL context, and connection pool are created once here such that
+     * repeated calls to the controller re-use pooled (kept-alive) connections instead of
+     * paying for a new TCP connect and full TLS handshake on every request.
+     */
+    private final AsyncHttpClient asyncHttpClient_;
+
+    /**
+     * Runs the (blocking) readers of uplink lookup responses, fed with the body of the
+     * response as it arrives on the HTTP client's I/O threads.
+     */
+    private final ExecutorService readerExecutor_;
+
+    /**
+     * The serialized login request body, built once from the configured credentials
+     * and re-used on every (re-)login to the controller.
+     */
+    private final byte[] authLoginRequestBody_;
+
+    /**
+     * Guards (re-)logins to the controller such that concurrent callers that find the
+     * cached auth token missing, expired or rejected share a single login request.
+     */
+    private final Object authLock_ = new Object();
+
+    /**
+     * The serialized, filtered <code>stat/device</code> request body used to fetch only the
+     * gateway device by MAC; null unless a gateway MAC is configured.
+     */
+    @Nullable
+    private final byte[] deviceStatByMacRequestBody_;
+
+    private volatile UdmAuthToken authToken_;
+
+    /**
+     * The login to the controller in flight, if any; guarded by {@link #authLock_}.
+     */
+    private CompletableFuture<UdmAuthToken> authLogin_;
+
     @Injectable
     public BeaconUdmClient(
             final BeaconUdmConfig beaconUdmConfig,
-            final BeaconJacksonObjectMapper beaconJacksonObjectMapper) {
+            final BeaconJacksonObjectMapper beaconJacksonObjectMapper,
+            final BeaconEventLoopGroup beaconEventLoopGroup) throws Exception {
         beaconUdmConfig_ = beaconUdmConfig;
         objectMapper_ = beaconJacksonObjectMapper.getObjectMapper();
+        asyncHttpClient_ = asyncHttpClient(buildAsyncHttpClientConfig(beaconUdmConfig, beaconEventLoopGroup));
+        readerExecutor_ = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("beacon-udm-reader-%d")
+                .build());
+
+        final UdmAuthLoginRequest udmAuthLoginRequest = new UdmAuthLoginRequest.Builder()
+                .setUsername(beaconUdmConfig.getUsername())
+                .setPassword(beaconUdmConfig.getPassword())
+                .build();
+        authLoginRequestBody_ = objectMapper_.writeValueAsBytes(udmAuthLoginRequest);
+
+        final String gatewayMac = beaconUdmConfig.getGatewayMac();
+        if (gatewayMac != null) {
+            final UdmDeviceStatRequest udmDeviceStatRequest = new UdmDeviceStatRequest.Builder()
+                    .setMacs(ImmutableList.of(gatewayMac))
+                    .build();
+            deviceStatByMacRequestBody_ = objectMapper_.writeValueAsBytes(udmDeviceStatRequest);
+        } else {
+            checkState(beaconUdmConfig.getUplinkStrategy() != UdmUplinkStrategy.DEVICE_STAT_BY_MAC,
+                    "A gateway MAC must be configured to use the filtered device stat strategy.");
+            deviceStatByMacRequestBody_ = null;
+        }
     }
 
+    @Nullable
     @Override
-    public String getJwtAuthToken(
-            final String username,
-            final String password) {
-        checkNotNull(username, "Username cannot be null.");
-        checkNotNull(password, "Password cannot be null.");
-
-        try (AsyncHttpClient asyncHttpClient = asyncHttpClient(buildAsyncHttpClientConfig())) {
-            final UdmAuthLoginRequest udmAuthLoginRequest = new UdmAuthLoginRequest.Builder()
-                    .setUsername(username)
-                    .setPassword(password)
-                    .build();
+    public String getJwtAuthToken() {
+        try {
+            return getJwtAuthTokenAsync().join();
+        } catch (final Exception e) {
+            LOG.error("Failed to authenticate with controller.", e);
+            return null;
+        }
+    }
+
+    @Nullable
+    @Override
+    public String getUdmUplinkIp() {
+        final UdmUplinkResult result = getUdmUplinkAsync().join();
+        if (!result.isSuccess()) {
+            LOG.error("Failed to get UDM uplink controller IP.", result.getFailureCause());
+            return null;
+        }
 
-            final String apiBaseUrl = beaconUdmConfig_.getApiBaseUrl();
-            final String authLoginApiUrl = String.format("%s%s", apiBaseUrl, API_AUTH_LOGIN_PATH);
+        return result.getUplinkIp();
+    }
 
-            final String authLoginRequestBody =
-                    objectMapper_.writeValueAsString(udmAuthLoginRequest);
+    @Override
+    public CompletableFuture<String> getJwtAuthTokenAsync() {
+        return getOrRefreshAuthToken(null, newDeadline());
+    }
 
-            final ListenableFuture<Response> futureResponse = asyncHttpClient.preparePost(authLoginApiUrl)
-                    .setHeader(HttpHeaders.CONTENT_TYPE, JSON_UTF_8)
-                    .setHeader(HttpHeaders.ACCEPT, JSON_UTF_8)
-                    .setBody(authLoginRequestBody)
-                    .execute();
+    @Override
+    public CompletableFuture<UdmUplinkResult> getUdmUplinkAsync() {
+        return getUdmUplinkAsync(newDeadline());
+    }
+
+    @Override
+    public CompletableFuture<UdmUplinkResult> getUdmUplinkAsync(
+            final Instant runDeadline) {
+        // One deadline spans the entire chain (login, if needed, plus the uplink lookup);
+        // each request gets only what's left of it.
+        final Instant apiDeadline = newDeadline();
+        final Instant deadline = apiDeadline.isBefore(runDeadline) ? apiDeadline : runDeadline;
+
+        final UdmUplinkStrategy strategy = beaconUdmConfig_.getUplinkStrategy();
+        final String apiPath = strategy.getPath(beaconUdmConfig_.getSite());
+
+        return getOrRefreshAuthToken(null, deadline)
+                .thenCompose(jwtAuthToken -> getUplink(strategy, apiPath, jwtAuthToken, deadline)
+                        .thenCompose(response -> {
+                            if (response.getStatusCode() != HttpStatus.SC_UNAUTHORIZED) {
+                                return CompletableFuture.completedFuture(response);
+                            }
+
+                            // The controller rejected the cached token before it expired (the controller
+                            // was restarted, or the session was revoked); log in again exactly once and retry.
+                            LOG.debug("UDM controller rejected cached auth token, re-authenticating.");
+                            return getOrRefreshAuthToken(jwtAuthToken, deadline)
+                                    .thenCompose(refreshed -> getUplink(strategy, apiPath, refreshed, deadline));
+                        }))
+                .thenCompose(response -> readUplink(apiPath, response))
+                .handle((uplink, t) -> {
+                    if (t != null) {
+                        return new UdmUplinkResult.Builder()
+                                .setFailureCause(t)
+                                .build();
+                    }
+
+                    return new UdmUplinkResult.Builder()
+                            .setUplinkIp(uplink.getIp())
+                            .setUplinkIpv6(uplink.getIpv6())
+                            .setUplinkIpv6Reported(uplink.isIpv6Reported())
+                            .setActiveWan(uplink.getActiveWanName())
+                            .build();
+                });
+    }
+
+    @Override
+    public CompletableFuture<WebSocket> openEventStreamAsync(
+            final WebSocketListener listener,
+            final boolean reauthenticate) {
+        final Instant deadline = newDeadline();
 
-            final long apiClientTimeoutInMs =
-                    beaconUdmConfig_.getApiClientTimeout(TimeUnit.MILLISECONDS);
+        final UdmAuthToken cached = authToken_;
+        final String rejectedToken = (reauthenticate && cached != null) ? cached.getToken() : null;
+
+        final String eventsUrl = String.format("%s%s", toWebSocketUrl(beaconUdmConfig_.getApiBaseUrl()),
+                String.format(EVENTS_PATH_FORMAT, beaconUdmConfig_.getSite()));
+
+        return getOrRefreshAuthToken(rejectedToken, deadline)
+                .thenCompose(jwtAuthToken -> openEventStream(eventsUrl, jwtAuthToken, listener, deadline));
+    }
+
+    @Nullable
+    @Override
+    public Instant getAuthTokenExpiresAt() {
+        final UdmAuthToken cached = authToken_;
+        return (cached == null) ? null : cached.getExpiresAt();
+    }
+
+    private CompletableFuture<WebSocket> openEventStream(
+            final String eventsUrl,
+            final String jwtAuthToken,
+            final WebSocketListener listener,
+            final Instant deadline) {
+        final Duration remaining = Duration.between(Instant.now(), deadline);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return CompletableFuture.failedFuture(new TimeoutException(
+                    "Deadline exceeded before UDM controller event stream could be opened."));
+        }
+
+        // The request timeout only applies to the upgrade handshake; once upgraded, the
+        // websocket stays open until either end closes it.
+        final WebSocketUpgradeHandler upgradeHandler = new WebSocketUpgradeHandler.Builder()
+                .addWebSocketListener(listener)
+                .build();
+        return asyncHttpClient_.prepareGet(eventsUrl)
+                .addCookie(new DefaultCookie(AUTH_TOKEN_COOKIE_NAME, jwtAuthToken))
+                .setRequestTimeout(remaining)
+                .execute(upgradeHandler)
+                .toCompletableFuture();
+    }
+
+    /**
+     * Returns the given http(s) URL with its scheme swapped for the matching websocket scheme.
+     */
+    private static String toWebSocketUrl(
+            final String url) {
+        if (StringUtils.startsWithIgnoreCase(url, HTTPS_SCHEME)) {
+            return WSS_SCHEME + url.substring(HTTPS_SCHEME.length());
+        } else if (StringUtils.startsWithIgnoreCase(url, HTTP_SCHEME)) {
+            return WS_SCHEME + url.substring(HTTP_SCHEME.length());
+        }
+
+        throw new BeaconException("UDM controller API base URL must be http(s): " + url);
+    }
 
-            final Response response = futureResponse.get(apiClientTimeoutInMs, TimeUnit.MILLISECONDS);
+    /**
+     * Returns the cached auth token if it's still valid, otherwise logs in to the controller.
+     *
+     * @param rejectedToken an auth token the controller has rejected, or null; if the cached
+     *                      token matches this token it's considered invalid regardless of its
+     *                      expiry and a new token is fetched
+     */
+    private CompletableFuture<String> getOrRefreshAuthToken(
+            @Nullable final String rejectedToken,
+            final Instant deadline) {
+        final UdmAuthToken cached = authToken_;
+        if (isUsable(cached, rejectedToken)) {
+            return CompletableFuture.completedFuture(cached.getToken());
+        }
+
+        final long remainingInMs = Duration.between(Instant.now(), deadline).toMillis();
+        if (remainingInMs <= 0L) {
+            return CompletableFuture.failedFuture(new TimeoutException(
+                    "Deadline exceeded before UDM controller auth token could be fetched."));
+        }
+
+        synchronized (authLock_) {
+            // Double-check; another thread may have already logged in while this one
+            // was waiting on the lock.
+            final UdmAuthToken current = authToken_;
+            if (isUsable(current, rejectedToken)) {
+                return CompletableFuture.completedFuture(current.getToken());
+            }
+
+            // Join the login already in flight, if any, otherwise start a new one.
+            CompletableFuture<UdmAuthToken> inFlight = authLogin_;
+            if (inFlight == null) {
+                inFlight = login(deadline);
+                authLogin_ = inFlight;
+                inFlight.whenComplete((authToken, t) -> {
+                    synchronized (authLock_) {
+                        if (authToken != null) {
+                            authToken_ = authToken;
+                        }
+                        authLogin_ = null;
+                    }
+                });
+            }
+
+            // The login in flight may have been started by another caller with a later deadline;
+            // each caller waits no longer than its own. Timing out here leaves the shared login be.
+            return inFlight.thenApply(UdmAuthToken::getToken)
+                    .orTimeout(remainingInMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean isUsable(
+            @Nullable final UdmAuthToken authToken,
+            @Nullable final String rejectedToken) {
+        if (authToken == null || authToken.getToken().equals(rejectedToken)) {
+            return false;
+        }
+
+        final long refreshAheadInMs = beaconUdmConfig_.getAuthTokenRefreshAhead(TimeUnit.MILLISECONDS);
+        return !authToken.isExpiredAt(Instant.now().plusMillis(refreshAheadInMs));
+    }
+
+    private CompletableFuture<UdmAuthToken> login(
+            final Instant deadline) {
+        final String apiBaseUrl = beaconUdmConfig_.getApiBaseUrl();
+        final String authLoginApiUrl = String.format("%s%s", apiBaseUrl, API_AUTH_LOGIN_PATH);
+
+        final BoundRequestBuilder request = asyncHttpClient_.preparePost(authLoginApiUrl)
+                .setHeader(HttpHeaders.CONTENT_TYPE, JSON_UTF_8)
+                .setHeader(HttpHeaders.ACCEPT, JSON_UTF_8)
+                .setBody(authLoginRequestBody_);
+
+        final BoundedResponseHandler handler = new BoundedResponseHandler(beaconUdmConfig_.getMaxResponseBodySize());
+        return execute(request, handler, deadline).thenApply(response -> {
             final int statusCode = response.getStatusCode();
             if (statusCode != HttpStatus.SC_OK) {
                 throw new BeaconException(String.format("Unsuccessful status code from UDM controller API: %s: %s",
@@ -125,58 +397,145 @@ public final class BeaconUdmClient implements UdmClient {
             }
 
             final List<Cookie> authCookies = response.getCookies();
-            return authCookies.stream()
+            final String jwtAuthToken = authCookies.stream()
                     .filter(c -> AUTH_TOKEN_COOKIE_NAME.equals(c.name()))
                     .findFirst()
                     .orElseThrow()
                     .value();
-        } catch (final Exception e) {
-            LOG.error("Failed to authenticate with controller.", e);
-            return null;
+
+            final Instant expiresAt = getJwtExpiry(jwtAuthToken);
+            LOG.debug("Successfully authenticated with UDM controller; token expires at: {}", expiresAt);
+
+            return new UdmAuthToken(jwtAuthToken, expiresAt);
+        });
+    }
+
+    private CompletableFuture<UplinkResponse> getUplink(
+            final UdmUplinkStrategy strategy,
+            final String apiPath,
+            final String jwtAuthToken,
+            final Instant deadline) {
+        final String apiUrl = String.format("%s%s", beaconUdmConfig_.getApiBaseUrl(), apiPath);
+
+        final BoundRequestBuilder request;
+        if (strategy == UdmUplinkStrategy.DEVICE_STAT_BY_MAC) {
+            request = asyncHttpClient_.preparePost(apiUrl)
+                    .setHeader(HttpHeaders.CONTENT_TYPE, JSON_UTF_8)
+                    .setBody(deviceStatByMacRequestBody_);
+        } else {
+            request = asyncHttpClient_.prepareGet(apiUrl);
         }
+
+        request.setHeader(HttpHeaders.ACCEPT, JSON_UTF_8)
+                .addCookie(new DefaultCookie(AUTH_TOKEN_COOKIE_NAME, jwtAuthToken));
+
+        return execute(request, new UplinkResponseHandler(strategy, apiPath), deadline);
     }
 
-    @Override
-    public String getUdmUplinkIp(
-            final String jwtAuthToken) {
-        checkNotNull(jwtAuthToken, "JWT auth token cannot be null.");
+    /**
+     * Executes the given request without blocking. The request is given whatever is left
+     * until the deadline as its request timeout, so the HTTP client itself cancels the
+     * request (and releases its connection) once the deadline passes.
+     */
+    private <T> CompletableFuture<T> execute(
+            final BoundRequestBuilder request,
+            final AsyncHandler<T> handler,
+            final Instant deadline) {
+        final Duration remaining = Duration.between(Instant.now(), deadline);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return CompletableFuture.failedFuture(new TimeoutException(
+                    "Deadline exceeded before request to UDM controller API could be sent."));
+        }
 
-        try (AsyncHttpClient asyncHttpClient = asyncHttpClient(buildAsyncHttpClientConfig())) {
-            final String apiBaseUrl = beaconUdmConfig_.getApiBaseUrl();
-            final String deviceStatApiUrl = String.format("%s%s", apiBaseUrl, API_PROXY_DEVICE_STAT_PATH);
+        return request
+                .setRequestTimeout(remaining)
+                .execute(handler)
+                .toCompletableFuture();
+    }
 
-            final ListenableFuture<Response> futureResponse = asyncHttpClient.prepareGet(deviceStatApiUrl)
-                    .setHeader(HttpHeaders.ACCEPT, JSON_UTF_8)
-                    .addCookie(new DefaultCookie(AUTH_TOKEN_COOKIE_NAME, jwtAuthToken))
-                    .execute();
+    private Instant newDeadline() {
+        return Instant.now().plusMillis(beaconUdmConfig_.getApiClientTimeout(TimeUnit.MILLISECONDS));
+    }
 
-            final long apiClientTimeoutInMs =
-                    beaconUdmConfig_.getApiClientTimeout(TimeUnit.MILLISECONDS);
+    private CompletableFuture<UdmDeviceUplink> readUplink(
+            final String apiPath,
+            final UplinkResponse response) {
+        final int statusCode = response.getStatusCode();
+        if (statusCode != HttpStatus.SC_OK) {
+            throw new BeaconException(String.format("Unsuccessful status code from UDM controller API: %s: %s",
+                    apiPath, statusCode));
+        }
 
-            final Response response = futureResponse.get(apiClientTimeoutInMs, TimeUnit.MILLISECONDS);
-            final int statusCode = response.getStatusCode();
-            if (statusCode != HttpStatus.SC_OK) {
-                throw new BeaconException(String.format("Unsuccessful status code from UDM controller API: %s: %s",
-                        API_PROXY_DEVICE_STAT_PATH, response.getStatusCode()));
+        return response.getUplink().thenApply(uplink -> {
+            if (uplink == null) {
+                throw new BeaconException(String.format("No gateway uplink IP found in UDM controller "
+                        + "API response: %s", apiPath));
             }
 
-            final String responseBody = response.getResponseBody(StandardCharsets.UTF_8);
-            final UdmDeviceStatResponse responseEntity =
-                    objectMapper_.readValue(responseBody, UdmDeviceStatResponse.class);
+            return uplink;
+        });
+    }
 
-            return responseEntity.getDevices().stream()
-                    .filter(d -> UDM_DEVICE_NAME.equals(d.getName()))
-                    .map(UdmDevice::getUplink)
-                    .findFirst()
-                    .orElseThrow()
-                    .getIp();
+    @Nullable
+    private UdmDeviceUplink readUplink(
+            final UdmUplinkStrategy strategy,
+            final JsonParser parser) throws IOException {
+        if (strategy == UdmUplinkStrategy.HEALTH) {
+            // The health subsystem only reports the IPv4 address of the active WAN.
+            final String wanIp = UdmHealthReader.readWanIp(parser);
+            return (wanIp == null) ? null : new UdmDeviceUplink.Builder()
+                    .setIp(wanIp)
+                    .build();
+        }
+
+        // Match the gateway by MAC address when one is configured, otherwise by device type.
+        final String gatewayMac = beaconUdmConfig_.getGatewayMac();
+        if (gatewayMac != null) {
+            return UdmDeviceStatReader.readUplink(parser, DEVICE_MAC_FIELD, gatewayMac::equalsIgnoreCase);
+        }
+
+        final Set<String> gatewayDeviceTypes = beaconUdmConfig_.getGatewayDeviceTypes();
+        return UdmDeviceStatReader.readUplink(parser, DEVICE_TYPE_FIELD, gatewayDeviceTypes::contains);
+    }
+
+    /**
+     * Decodes the <code>exp</code> (expiration time) claim from the payload of the given JWT.
+     * The signature is not verified; the claim is only used to decide when to refresh the token.
+     *
+     * @return the instant at which the token expires, or null if the token carries no
+     * (readable) expiration time
+     */
+    @Nullable
+    private Instant getJwtExpiry(
+            final String jwt) {
+        try {
+            final String[] parts = StringUtils.split(jwt, '.');
+            if (parts.length < 2) {
+                return null;
+            }
+
+            final byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+            final JsonNode expClaim = objectMapper_.readTree(payload).get(JWT_EXPIRATION_CLAIM);
+            if (expClaim == null || !expClaim.canConvertToLong()) {
+                return null;
+            }
+
+            return Instant.ofEpochSecond(expClaim.asLong());
         } catch (final Exception e) {
-            LOG.error("Failed to get UDM uplink controller IP.", e);
+            LOG.warn("Failed to decode expiration claim from UDM controller JWT.", e);
             return null;
         }
     }
 
-    private AsyncHttpClientConfig buildAsyncHttpClientConfig() throws Exception {
+    @Override
+    public void destroy() throws Exception {
+        asyncHttpClient_.close();
+        readerExecutor_.shutdownNow();
+    }
+
+    private static AsyncHttpClientConfig buildAsyncHttpClientConfig(
+            final BeaconUdmConfig beaconUdmConfig,
+            final BeaconEventLoopGroup beaconEventLoopGroup) throws Exception {
         final BuildVersion buildVersion = BuildVersion.getInstance();
 
         final String userAgent = String.format(USER_AGENT_FORMAT,
@@ -238,10 +597,214 @@ public final class BeaconUdmClient implements UdmClient {
         final SSLContext context = SSLContext.getInstance("TLS");
         context.init(null, new TrustManager[] { trustManager }, new SecureRandom());
 
+        final Duration apiClientTimeout =
+                Duration.ofMillis(beaconUdmConfig.getApiClientTimeout(TimeUnit.MILLISECONDS));
+
         return new DefaultAsyncHttpClientConfig.Builder()
                 .setUserAgent(userAgent)
                 .setSslEngineFactory(new JsseSslEngineFactory(context))
+                .setThreadPoolName(THREAD_POOL_NAME)
+                // Run on the event loop group shared by every HTTP client in the app; the
+                // transport must match the type of the group.
+                .setEventLoopGroup(beaconEventLoopGroup.getEventLoopGroup())
+                .setUseNativeTransport(beaconEventLoopGroup.isNative())
+                .setConnectTimeout(apiClientTimeout)
+                .setRequestTimeout(apiClientTimeout)
+                .setKeepAlive(true)
+                // Ask the controller for gzip'ed responses; bodies are inflated in the Netty
+                // pipeline chunk by chunk as they arrive.
+                .setCompressionEnforced(true)
+                .setMaxConnections(beaconUdmConfig.getHttpClientMaxConnections())
+                .setMaxConnectionsPerHost(beaconUdmConfig.getHttpClientMaxConnectionsPerHost())
+                .setPooledConnectionIdleTimeout(Duration.ofMillis(
+                        beaconUdmConfig.getHttpClientPooledConnectionIdleTimeout(TimeUnit.MILLISECONDS)))
+                .setConnectionTtl(Duration.ofMillis(
+                        beaconUdmConfig.getHttpClientConnectionTtl(TimeUnit.MILLISECONDS)))
                 .build();
     }
 
+    /**
+     * Buffers a response from the controller like the default completion handler does,
+     * but fails the request as soon as the body grows beyond a fixed size such that a
+     * misbehaving (or unexpectedly large) controller response can't exhaust the heap. Only
+     * used for the (small) login response, whose cookies are needed.
+     */
+    private static final class BoundedResponseHandler extends AsyncCompletionHandlerBase {
+
+        private final long maxBodySize_;
+
+        private long bodySize_ = 0L;
+
+        private BoundedResponseHandler(
+                final long maxBodySize) {
+            maxBodySize_ = maxBodySize;
+        }
+
+        @Override
+        public State onBodyPartReceived(
+                final HttpResponseBodyPart content) throws Exception {
+            bodySize_ += content.length();
+            if (bodySize_ > maxBodySize_) {
+                throw new BeaconException(String.format("Response body from UDM controller API "
+                        + "exceeded max size: %s > %s bytes", bodySize_, maxBodySize_));
+            }
+
+            return super.onBodyPartReceived(content);
+        }
+
+    }
+
+    /**
+     * Streams the body of an uplink lookup response into its reader as the body arrives,
+     * rather than buffering it first: every body part is handed over to the reader on the
+     * reader executor. As soon as the reader has found the gateway, the rest of the body is
+     * dropped and the connection is closed, so the remainder is never received or allocated.
+     */
+    private final class UplinkResponseHandler implements AsyncHandler<UplinkResponse> {
+
+        private final UdmUplinkStrategy strategy_;
+
+        private final String apiPath_;
+
+        private final long maxBodySize_;
+
+        private final BodyPartInputStream body_ = new BodyPartInputStream();
+
+        private final CompletableFuture<UdmDeviceUplink> uplink_ = new CompletableFuture<>();
+
+        private int statusCode_;
+
+        private long bodySize_ = 0L;
+
+        private UplinkResponseHandler(
+                final UdmUplinkStrategy strategy,
+                final String apiPath) {
+            strategy_ = strategy;
+            apiPath_ = apiPath;
+            maxBodySize_ = beaconUdmConfig_.getMaxResponseBodySize();
+        }
+
+        @Override
+        public State onStatusReceived(
+                final HttpResponseStatus responseStatus) {
+            statusCode_ = responseStatus.getStatusCode();
+            if (statusCode_ != HttpStatus.SC_OK) {
+                // The body of an unsuccessful response is never read.
+                return State.ABORT;
+            }
+
+            readerExecutor_.execute(this::read);
+            return State.CONTINUE;
+        }
+
+        @Override
+        public State onHeadersReceived(
+                final io.netty.handler.codec.http.HttpHeaders headers) {
+            return State.CONTINUE;
+        }
+
+        @Override
+        public State onBodyPartReceived(
+                final HttpResponseBodyPart content) {
+            if (body_.isClosed()) {
+                // The reader is done; don't receive any more of the body.
+                return State.ABORT;
+            }
+
+            bodySize_ += content.length();
+            if (bodySize_ > maxBodySize_) {
+                throw new BeaconException(String.format("Response body from UDM controller API "
+                        + "exceeded max size: %s > %s bytes", bodySize_, maxBodySize_));
+            }
+
+            body_.offer(content.getBodyPartBytes());
+            return State.CONTINUE;
+        }
+
+        @Override
+        public void onThrowable(
+                final Throwable t) {
+            body_.fail(t);
+        }
+
+        @Override
+        public UplinkResponse onCompleted() {
+            body_.end();
+            return new UplinkResponse(statusCode_, uplink_);
+        }
+
+        private void read() {
+            try (JsonParser parser = objectMapper_.getFactory().createParser(body_)) {
+                uplink_.complete(readUplink(strategy_, parser));
+            } catch (final Exception e) {
+                uplink_.completeExceptionally(
+                        new BeaconException("Failed to read UDM controller API response: " + apiPath_, e));
+            } finally {
+                body_.close();
+            }
+        }
+
+    }
+
+    private static final class UplinkResponse {
+
+        private final int statusCode_;
+
+        private final CompletableFuture<UdmDeviceUplink> uplink_;
+
+        private UplinkResponse(
+                final int statusCode,
+                final CompletableFuture<UdmDeviceUplink> uplink) {
+            statusCode_ = statusCode;
+            uplink_ = uplink;
+        }
+
+        public int getStatusCode() {
+            return statusCode_;
+        }
+
+        /**
+         * The uplink, once the reader has read it; completes with null if the response
+         * carried no gateway uplink.
+         */
+        public CompletableFuture<UdmDeviceUplink> getUplink() {
+            return uplink_;
+        }
+
+    }
+
+    private static final class UdmAuthToken {
+
+        private final String token_;
+
+        @Nullable
+        private final Instant expiresAt_;
+
+        private UdmAuthToken(
+                final String token,
+                @Nullable final Instant expiresAt) {
+            token_ = token;
+            expiresAt_ = expiresAt;
+        }
+
+        public String getToken() {
+            return token_;
+        }
+
+        @Nullable
+        public Instant getExpiresAt() {
+            return expiresAt_;
+        }
+
+        /**
+         * A token without a known expiration time never expires on its own; it's only
+         * refreshed once the controller rejects it.
+         */
+        public boolean isExpiredAt(
+                final Instant instant) {
+            return expiresAt_ != null && !instant.isBefore(expiresAt_);
+        }
+
+    }
+
 }
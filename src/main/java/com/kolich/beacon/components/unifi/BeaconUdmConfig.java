@@ -26,11 +26,16 @@
 
 package com.kolich.beacon.components.unifi;
 
+import com.google.common.collect.ImmutableSet;
 import com.kolich.beacon.components.BeaconConfig;
 import com.typesafe.config.Config;
 import curacao.annotations.Component;
 import curacao.annotations.Injectable;
+import org.apache.commons.lang3.StringUtils;
 
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 @Component
@@ -44,6 +49,33 @@ public final class BeaconUdmConfig {
     private static final String USERNAME_PROP = "username";
     private static final String PASSWORD_PROP = "password";
 
+    private static final String AUTH_TOKEN_REFRESH_AHEAD_PROP = "auth-token-refresh-ahead";
+
+    private static final String MAX_RESPONSE_BODY_SIZE_PROP = "max-response-body-size";
+
+    private static final String UPLINK_CACHE_TTL_PROP = "uplink-cache.ttl";
+    private static final String UPLINK_CACHE_STALE_TTL_PROP = "uplink-cache.stale-ttl";
+    private static final String UPLINK_CACHE_FAILURE_TTL_PROP = "uplink-cache.failure-ttl";
+
+    private static final String SITE_PROP = "site";
+    private static final String UPLINK_STRATEGY_PROP = "uplink-strategy";
+    private static final String GATEWAY_MAC_PROP = "gateway-mac";
+    private static final String GATEWAY_DEVICE_TYPES_PROP = "gateway-device-types";
+
+    private static final String EVENTS_ENABLED_PROP = "events.enabled";
+    private static final String EVENTS_UPLINK_EVENT_KEYS_PROP = "events.uplink-event-keys";
+    private static final String EVENTS_TRIGGER_DELAY_PROP = "events.trigger-delay";
+    private static final String EVENTS_HEARTBEAT_INTERVAL_PROP = "events.heartbeat-interval";
+    private static final String EVENTS_IDLE_TIMEOUT_PROP = "events.idle-timeout";
+    private static final String EVENTS_RECONNECT_BASE_DELAY_PROP = "events.reconnect.base-delay";
+    private static final String EVENTS_RECONNECT_MAX_DELAY_PROP = "events.reconnect.max-delay";
+
+    private static final String HTTP_CLIENT_MAX_CONNECTIONS_PROP = "http-client.max-connections";
+    private static final String HTTP_CLIENT_MAX_CONNECTIONS_PER_HOST_PROP = "http-client.max-connections-per-host";
+    private static final String HTTP_CLIENT_POOLED_CONNECTION_IDLE_TIMEOUT_PROP =
+            "http-client.pooled-connection-idle-timeout";
+    private static final String HTTP_CLIENT_CONNECTION_TTL_PROP = "http-client.connection-ttl";
+
     private final BeaconConfig beaconConfig_;
 
     private final Config config_;
@@ -72,4 +104,137 @@ public final class BeaconUdmConfig {
         return config_.getString(PASSWORD_PROP);
     }
 
+    /**
+     * How long before the expiration time of the cached controller auth token (JWT)
+     * the token is considered stale and a new one is fetched.
+     */
+    public long getAuthTokenRefreshAhead(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(AUTH_TOKEN_REFRESH_AHEAD_PROP, timeUnit);
+    }
+
+    /**
+     * The maximum size, in bytes, of a response body read from the controller.
+     */
+    public long getMaxResponseBodySize() {
+        return config_.getBytes(MAX_RESPONSE_BODY_SIZE_PROP);
+    }
+
+    public String getSite() {
+        return config_.getString(SITE_PROP);
+    }
+
+    public UdmUplinkStrategy getUplinkStrategy() {
+        return UdmUplinkStrategy.fromConfigValue(config_.getString(UPLINK_STRATEGY_PROP));
+    }
+
+    /**
+     * Returns the normalized (lower case, colon separated) MAC address of the gateway,
+     * or null if no gateway MAC address is configured.
+     */
+    @Nullable
+    public String getGatewayMac() {
+        final String gatewayMac = config_.getString(GATEWAY_MAC_PROP);
+        if (StringUtils.isBlank(gatewayMac)) {
+            return null;
+        }
+
+        return gatewayMac.trim().replace('-', ':').toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the set of UniFi device types (e.g., "udm", "ugw", "uxg") considered to be
+     * the gateway when no gateway MAC address is configured.
+     */
+    public Set<String> getGatewayDeviceTypes() {
+        return ImmutableSet.copyOf(config_.getStringList(GATEWAY_DEVICE_TYPES_PROP));
+    }
+
+    // Uplink IP cache config
+
+    public long getUplinkCacheTtl(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(UPLINK_CACHE_TTL_PROP, timeUnit);
+    }
+
+    public long getUplinkCacheStaleTtl(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(UPLINK_CACHE_STALE_TTL_PROP, timeUnit);
+    }
+
+    public long getUplinkCacheFailureTtl(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(UPLINK_CACHE_FAILURE_TTL_PROP, timeUnit);
+    }
+
+    // Event stream config
+
+    /**
+     * Whether to keep a websocket open to the controller event stream, and trigger a sync
+     * as soon as it signals a change of the uplink.
+     */
+    public boolean isEventsEnabled() {
+        return config_.getBoolean(EVENTS_ENABLED_PROP);
+    }
+
+    /**
+     * The keys of the controller events that signal a change of the uplink of the gateway.
+     */
+    public Set<String> getEventsUplinkEventKeys() {
+        return ImmutableSet.copyOf(config_.getStringList(EVENTS_UPLINK_EVENT_KEYS_PROP));
+    }
+
+    /**
+     * How long to wait after the first sign of an uplink change before triggering a sync,
+     * such that a burst of events triggers only one.
+     */
+    public long getEventsTriggerDelay(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(EVENTS_TRIGGER_DELAY_PROP, timeUnit);
+    }
+
+    public long getEventsHeartbeatInterval(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(EVENTS_HEARTBEAT_INTERVAL_PROP, timeUnit);
+    }
+
+    /**
+     * How long the event stream may go without receiving anything, not even a pong, before
+     * the connection is considered dead and is re-established.
+     */
+    public long getEventsIdleTimeout(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(EVENTS_IDLE_TIMEOUT_PROP, timeUnit);
+    }
+
+    public long getEventsReconnectBaseDelay(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(EVENTS_RECONNECT_BASE_DELAY_PROP, timeUnit);
+    }
+
+    public long getEventsReconnectMaxDelay(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(EVENTS_RECONNECT_MAX_DELAY_PROP, timeUnit);
+    }
+
+    // HTTP client config
+
+    public int getHttpClientMaxConnections() {
+        return config_.getInt(HTTP_CLIENT_MAX_CONNECTIONS_PROP);
+    }
+
+    public int getHttpClientMaxConnectionsPerHost() {
+        return config_.getInt(HTTP_CLIENT_MAX_CONNECTIONS_PER_HOST_PROP);
+    }
+
+    public long getHttpClientPooledConnectionIdleTimeout(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(HTTP_CLIENT_POOLED_CONNECTION_IDLE_TIMEOUT_PROP, timeUnit);
+    }
+
+    public long getHttpClientConnectionTtl(
+            final TimeUnit timeUnit) {
+        return config_.getDuration(HTTP_CLIENT_CONNECTION_TTL_PROP, timeUnit);
+    }
+
 }
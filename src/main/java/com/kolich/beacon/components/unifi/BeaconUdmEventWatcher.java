@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.unifi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.kolich.beacon.components.jackson.BeaconJacksonObjectMapper;
+import com.kolich.beacon.components.metrics.BeaconMetrics;
+import com.kolich.beacon.components.quartz.BeaconScheduler;
+import com.kolich.beacon.components.state.BeaconStateTracker;
+import com.kolich.beacon.entities.unifi.response.UdmEventReader;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+import curacao.components.CuracaoComponent;
+import org.asynchttpclient.ws.WebSocket;
+import org.asynchttpclient.ws.WebSocketListener;
+import org.quartz.SchedulerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Keeps a single, authenticated websocket open to the controller event stream, and triggers
+ * the beacon job within seconds of the controller signaling that the uplink of the gateway
+ * may have changed: a WAN transition event, or an update of the gateway with a new uplink IP.
+ * The cron schedule of the job keeps running as a slower safety net.
+ *
+ * The stream is re-established, with exponential backoff and jitter, whenever it's closed,
+ * fails, or goes quiet for too long. It's also re-established with a fresh auth token shortly
+ * before the current token expires. All state is confined to a single scheduler thread.
+ */
+@Component
+public final class BeaconUdmEventWatcher implements CuracaoComponent {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconUdmEventWatcher.class);
+
+    private static final String THREAD_NAME_FORMAT = "beacon-udm-events-%d";
+
+    private static final String DEVICE_MAC_FIELD = "mac";
+    private static final String DEVICE_TYPE_FIELD = "type";
+
+    private static final String CONNECTS_METRIC = "udm.events.connects";
+    private static final String DISCONNECTS_METRIC = "udm.events.disconnects";
+    private static final String MESSAGES_METRIC = "udm.events.messages";
+    private static final String TRIGGERS_METRIC = "udm.events.triggers";
+    private static final String CONNECTED_METRIC = "udm.events.connected";
+
+    private static final long DESTROY_TIMEOUT_MS = 5000L; // 5-seconds
+
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final BeaconUdmConfig beaconUdmConfig_;
+
+    private final UdmClient udmClient_;
+
+    private final ObjectMapper objectMapper_;
+
+    private final BeaconStateTracker beaconStateTracker_;
+
+    private final BeaconScheduler beaconScheduler_;
+
+    private final BeaconMetrics metrics_;
+
+    private final String matchField_;
+    private final Predicate<String> matcher_;
+    private final Set<String> uplinkEventKeys_;
+
+    private final ScheduledExecutorService executor_;
+
+    private volatile boolean connected_ = false;
+    private volatile boolean destroyed_ = false;
+
+    // The following are only ever touched on the scheduler thread.
+
+    /**
+     * The listener of the current connection attempt or open connection, if any; frames and
+     * callbacks from any other listener are from a connection that has since been replaced.
+     */
+    private EventStreamListener listener_;
+    private WebSocket webSocket_;
+
+    private ScheduledFuture<?> heartbeat_;
+    private ScheduledFuture<?> resubscribe_;
+    private ScheduledFuture<?> reconnect_;
+    private ScheduledFuture<?> pendingTrigger_;
+
+    private int reconnectAttempts_ = 0;
+    private boolean reauthenticate_ = false;
+
+    @Injectable
+    public BeaconUdmEventWatcher(
+            final BeaconUdmConfig beaconUdmConfig,
+            final UdmClient udmClient,
+            final BeaconJacksonObjectMapper beaconJacksonObjectMapper,
+            final BeaconStateTracker beaconStateTracker,
+            final BeaconScheduler beaconScheduler,
+            final BeaconMetrics metrics) {
+        beaconUdmConfig_ = beaconUdmConfig;
+        udmClient_ = udmClient;
+        objectMapper_ = beaconJacksonObjectMapper.getObjectMapper();
+        beaconStateTracker_ = beaconStateTracker;
+        beaconScheduler_ = beaconScheduler;
+        metrics_ = metrics;
+
+        // Match the gateway by MAC address when one is configured, otherwise by device type.
+        final String gatewayMac = beaconUdmConfig.getGatewayMac();
+        if (gatewayMac != null) {
+            matchField_ = DEVICE_MAC_FIELD;
+            matcher_ = gatewayMac::equalsIgnoreCase;
+        } else {
+            matchField_ = DEVICE_TYPE_FIELD;
+            matcher_ = beaconUdmConfig.getGatewayDeviceTypes()::contains;
+        }
+        uplinkEventKeys_ = beaconUdmConfig.getEventsUplinkEventKeys();
+
+        executor_ = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(THREAD_NAME_FORMAT)
+                .build());
+
+        metrics.register(CONNECTED_METRIC, () -> connected_ ? 1 : 0);
+    }
+
+    @Override
+    public void initialize() throws Exception {
+        if (!beaconUdmConfig_.isEventsEnabled()) {
+            return;
+        }
+
+        executor_.execute(this::connect);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        destroyed_ = true;
+        try {
+            executor_.submit(this::disconnect).get(DESTROY_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } finally {
+            executor_.shutdownNow();
+        }
+    }
+
+    private void connect() {
+        if (destroyed_) {
+            return;
+        }
+
+        final EventStreamListener listener = new EventStreamListener();
+        listener_ = listener;
+
+        final boolean reauthenticate = reauthenticate_;
+        reauthenticate_ = false;
+        udmClient_.openEventStreamAsync(listener, reauthenticate)
+                .whenCompleteAsync((webSocket, t) -> onConnected(listener, webSocket, t), executor_);
+    }
+
+    private void onConnected(
+            final EventStreamListener listener,
+            @Nullable final WebSocket webSocket,
+            @Nullable final Throwable t) {
+        if (listener_ != listener) {
+            return;
+        } else if (t != null) {
+            LOG.warn("Failed to open UDM controller event stream.", t);
+            // The controller may have refused the auth token, e.g., after it was restarted;
+            // log in again on the next attempt.
+            reauthenticate_ = true;
+            listener_ = null;
+            scheduleReconnect();
+            return;
+        } else if (destroyed_) {
+            webSocket.sendCloseFrame();
+            return;
+        }
+
+        LOG.info("Connected to UDM controller event stream.");
+        metrics_.increment(CONNECTS_METRIC);
+        webSocket_ = webSocket;
+        connected_ = true;
+        reconnectAttempts_ = 0;
+
+        final long heartbeatIntervalInMs = beaconUdmConfig_.getEventsHeartbeatInterval(TimeUnit.MILLISECONDS);
+        heartbeat_ = executor_.scheduleWithFixedDelay(() -> heartbeat(listener),
+                heartbeatIntervalInMs, heartbeatIntervalInMs, TimeUnit.MILLISECONDS);
+        scheduleResubscribe(listener, heartbeatIntervalInMs);
+
+        // Anything could have happened while the stream was down, so sync right away.
+        scheduleTrigger("event stream connected");
+    }
+
+    private void onDisconnected(
+            final EventStreamListener listener,
+            final String reason,
+            @Nullable final Throwable cause) {
+        if (listener_ != listener) {
+            return;
+        }
+
+        LOG.warn("UDM controller event stream disconnected: {}", reason, cause);
+        metrics_.increment(DISCONNECTS_METRIC);
+        disconnect();
+        scheduleReconnect();
+    }
+
+    private void onMessage(
+            final EventStreamListener listener,
+            final String message) {
+        if (listener_ != listener) {
+            return;
+        }
+
+        metrics_.increment(MESSAGES_METRIC);
+        final String knownUplinkIp = beaconStateTracker_.getState().getUplinkIp();
+
+        final String change;
+        try (JsonParser parser = objectMapper_.getFactory().createParser(message)) {
+            change = UdmEventReader.readUplinkChange(parser, matchField_, matcher_, uplinkEventKeys_,
+                    knownUplinkIp);
+        } catch (final IOException e) {
+            LOG.debug("Failed to read UDM controller event stream message.", e);
+            return;
+        }
+
+        if (change != null) {
+            LOG.info("UDM controller signaled a possible uplink change: {}", change);
+            scheduleTrigger(change);
+        }
+    }
+
+    private void heartbeat(
+            final EventStreamListener listener) {
+        if (listener_ != listener) {
+            return;
+        }
+
+        // Pings are answered with pongs, so a healthy stream is never idle for long, even
+        // when the controller has no events to send.
+        final long idleTimeoutInMs = beaconUdmConfig_.getEventsIdleTimeout(TimeUnit.MILLISECONDS);
+        if (listener.getIdleMs() > idleTimeoutInMs) {
+            onDisconnected(listener, "idle for more than " + idleTimeoutInMs + "ms", null);
+            return;
+        }
+
+        webSocket_.sendPingFrame();
+    }
+
+    /**
+     * Re-establishes the stream with a fresh auth token shortly before the current token
+     * expires; the controller stops sending events to a connection once its token expires.
+     */
+    private void scheduleResubscribe(
+            final EventStreamListener listener,
+            final long minDelayInMs) {
+        final Instant expiresAt = udmClient_.getAuthTokenExpiresAt();
+        if (expiresAt == null) {
+            return;
+        }
+
+        final long refreshAheadInMs = beaconUdmConfig_.getAuthTokenRefreshAhead(TimeUnit.MILLISECONDS);
+        final long untilExpiryInMs = Duration.between(Instant.now(), expiresAt).toMillis();
+        final long delayInMs = Math.max(minDelayInMs, untilExpiryInMs - refreshAheadInMs);
+        resubscribe_ = executor_.schedule(() -> {
+            if (listener_ != listener) {
+                return;
+            }
+
+            LOG.debug("Auth token about to expire, re-establishing UDM controller event stream.");
+            disconnect();
+            connect();
+        }, delayInMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules a reconnect with exponential backoff, and (equal) jitter such that a fleet of
+     * clients doesn't reconnect in lockstep after the controller restarts.
+     */
+    private void scheduleReconnect() {
+        if (destroyed_ || (reconnect_ != null && !reconnect_.isDone())) {
+            return;
+        }
+
+        final long baseDelayInMs = beaconUdmConfig_.getEventsReconnectBaseDelay(TimeUnit.MILLISECONDS);
+        final long maxDelayInMs = beaconUdmConfig_.getEventsReconnectMaxDelay(TimeUnit.MILLISECONDS);
+        final long capInMs = Math.min(maxDelayInMs,
+                baseDelayInMs << Math.min(reconnectAttempts_, MAX_BACKOFF_SHIFT));
+        final long delayInMs = capInMs / 2L + ThreadLocalRandom.current().nextLong(capInMs / 2L + 1L);
+        reconnectAttempts_++;
+
+        LOG.debug("Reconnecting to UDM controller event stream in {}ms (attempt {}).", delayInMs,
+                reconnectAttempts_);
+        reconnect_ = executor_.schedule(this::connect, delayInMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Triggers the beacon job after a short delay, such that a burst of signals (e.g., the
+     * WAN transition event, followed by updates of the gateway) triggers it only once.
+     */
+    private void scheduleTrigger(
+            final String reason) {
+        if (pendingTrigger_ != null && !pendingTrigger_.isDone()) {
+            LOG.debug("Beacon job already about to be triggered, ignoring: {}", reason);
+            return;
+        }
+
+        final long triggerDelayInMs = beaconUdmConfig_.getEventsTriggerDelay(TimeUnit.MILLISECONDS);
+        pendingTrigger_ = executor_.schedule(() -> {
+            metrics_.increment(TRIGGERS_METRIC);
+            try {
+                beaconScheduler_.triggerNow();
+            } catch (final SchedulerException e) {
+                LOG.warn("Failed to trigger beacon job.", e);
+            }
+        }, triggerDelayInMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Closes the current connection, if any, and forgets about it; late callbacks from it
+     * are ignored.
+     */
+    private void disconnect() {
+        if (heartbeat_ != null) {
+            heartbeat_.cancel(false);
+            heartbeat_ = null;
+        }
+        if (resubscribe_ != null) {
+            resubscribe_.cancel(false);
+            resubscribe_ = null;
+        }
+        if (webSocket_ != null && webSocket_.isOpen()) {
+            webSocket_.sendCloseFrame();
+        }
+        webSocket_ = null;
+        listener_ = null;
+        connected_ = false;
+    }
+
+    /**
+     * Receives the frames of a single connection on a Netty I/O thread, re-assembles any
+     * fragmented messages, and hands complete messages off to the scheduler thread.
+     */
+    private final class EventStreamListener implements WebSocketListener {
+
+        private final long maxMessageSize_ = beaconUdmConfig_.getMaxResponseBodySize();
+
+        private final StringBuilder message_ = new StringBuilder();
+
+        private boolean oversized_ = false;
+
+        private volatile WebSocket openWebSocket_;
+
+        private volatile long lastReceivedAtNanos_ = System.nanoTime();
+
+        @Override
+        public void onOpen(
+                final WebSocket webSocket) {
+            openWebSocket_ = webSocket;
+            touch();
+        }
+
+        @Override
+        public void onClose(
+                final WebSocket webSocket,
+                final int code,
+                final String reason) {
+            execute(() -> onDisconnected(this, String.format("closed: %s %s", code, reason), null));
+        }
+
+        @Override
+        public void onError(
+                final Throwable t) {
+            execute(() -> onDisconnected(this, "failed", t));
+        }
+
+        @Override
+        public void onTextFrame(
+                final String payload,
+                final boolean finalFragment,
+                final int rsv) {
+            touch();
+            if (!oversized_ && message_.length() + payload.length() > maxMessageSize_) {
+                // Drop the whole message, rather than buffer an unbounded amount of it.
+                oversized_ = true;
+                message_.setLength(0);
+            } else if (!oversized_) {
+                message_.append(payload);
+            }
+
+            if (!finalFragment) {
+                return;
+            }
+
+            if (oversized_) {
+                LOG.debug("Dropped UDM controller event stream message larger than {} chars.", maxMessageSize_);
+            } else {
+                final String message = message_.toString();
+                execute(() -> onMessage(this, message));
+            }
+            message_.setLength(0);
+            oversized_ = false;
+        }
+
+        @Override
+        public void onPingFrame(
+                final byte[] payload) {
+            touch();
+            final WebSocket webSocket = openWebSocket_;
+            if (webSocket != null) {
+                webSocket.sendPongFrame(payload);
+            }
+        }
+
+        @Override
+        public void onPongFrame(
+                final byte[] payload) {
+            touch();
+        }
+
+        public long getIdleMs() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastReceivedAtNanos_);
+        }
+
+        private void touch() {
+            lastReceivedAtNanos_ = System.nanoTime();
+        }
+
+        private void execute(
+                final Runnable task) {
+            try {
+                executor_.execute(task);
+            } catch (final RejectedExecutionException e) {
+                // Shutting down; nothing left to do.
+            }
+        }
+
+    }
+
+}
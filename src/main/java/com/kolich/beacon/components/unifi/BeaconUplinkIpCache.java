@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.unifi;
+
+import com.kolich.beacon.components.state.BeaconStateTracker;
+import com.kolich.beacon.entities.unifi.UdmUplinkResult;
+import curacao.annotations.Component;
+import curacao.annotations.Injectable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A shared, read-through cache of the uplink IP of the gateway.
+ *
+ * Fresh values are served straight from memory. Once a value goes stale (older than the
+ * configured TTL, but younger than the stale TTL) it's still served immediately while a
+ * single background refresh runs. Concurrent misses collapse into a single request to the
+ * controller, and failures are cached briefly such that a controller outage doesn't turn
+ * into a burst of requests against it. A failed refresh never replaces a value that's still
+ * servable stale; that value keeps being served instead (stale-if-error). Successful runs
+ * of the beacon job feed the cache too.
+ */
+@Component
+public final class BeaconUplinkIpCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BeaconUplinkIpCache.class);
+
+    private final BeaconUdmConfig beaconUdmConfig_;
+
+    private final UdmAsyncClient udmClient_;
+
+    private final BeaconStateTracker beaconStateTracker_;
+
+    private final Object refreshLock_ = new Object();
+
+    private volatile CachedUplink cached_;
+
+    /**
+     * The refresh in flight, if any; guarded by {@link #refreshLock_}.
+     */
+    private CompletableFuture<UdmUplinkResult> refresh_;
+
+    /**
+     * Bumped by every {@link #put(UdmUplinkResult)}, such that a refresh that started before
+     * it, but completes after it, can't overwrite the newer value; guarded by {@link #refreshLock_}.
+     */
+    private long generation_ = 0L;
+
+    @Injectable
+    public BeaconUplinkIpCache(
+            final BeaconUdmConfig beaconUdmConfig,
+            final UdmClient udmClient,
+            final BeaconStateTracker beaconStateTracker) {
+        beaconUdmConfig_ = beaconUdmConfig;
+        udmClient_ = udmClient;
+        beaconStateTracker_ = beaconStateTracker;
+    }
+
+    /**
+     * Returns the (possibly stale) cached uplink result, fetching it from the controller
+     * only on a miss. The returned future never completes exceptionally.
+     */
+    public CompletableFuture<UdmUplinkResult> getUplinkAsync() {
+        final CachedUplink cached = cached_;
+        if (cached != null) {
+            final Instant now = Instant.now();
+            if (cached.isFreshAt(now)) {
+                return CompletableFuture.completedFuture(cached.getResult());
+            } else if (cached.isServableStaleAt(now)) {
+                // Serve the stale value right away, and refresh it in the background.
+                refresh();
+                return CompletableFuture.completedFuture(cached.getResult());
+            }
+        }
+
+        return refresh();
+    }
+
+    /**
+     * Feeds a freshly discovered, successful uplink result into the cache, e.g., from a run
+     * of the beacon job.
+     */
+    public void put(
+            final UdmUplinkResult result) {
+        synchronized (refreshLock_) {
+            generation_++;
+            cached_ = newCachedUplink(result);
+            beaconStateTracker_.setUplink(result);
+        }
+    }
+
+    private CompletableFuture<UdmUplinkResult> refresh() {
+        synchronized (refreshLock_) {
+            if (refresh_ != null) {
+                return refresh_;
+            }
+
+            final long generation = generation_;
+            final CompletableFuture<UdmUplinkResult> refresh = udmClient_.getUdmUplinkAsync();
+            refresh_ = refresh;
+            refresh.whenComplete((result, t) -> {
+                synchronized (refreshLock_) {
+                    if (generation != generation_) {
+                        LOG.debug("Discarding UDM uplink refresh that was overtaken by a newer uplink result.");
+                    } else if (result != null) {
+                        if (result.isSuccess()) {
+                            beaconStateTracker_.setUplink(result);
+                            cached_ = newCachedUplink(result);
+                        } else {
+                            LOG.warn("Failed to refresh cached UDM uplink IP.", result.getFailureCause());
+                            cached_ = newCachedFailure(result, cached_);
+                        }
+                    }
+                    refresh_ = null;
+                }
+            });
+
+            return refresh;
+        }
+    }
+
+    private CachedUplink newCachedUplink(
+            final UdmUplinkResult result) {
+        final Instant now = Instant.now();
+        final long ttlInMs = beaconUdmConfig_.getUplinkCacheTtl(TimeUnit.MILLISECONDS);
+        final long staleTtlInMs = beaconUdmConfig_.getUplinkCacheStaleTtl(TimeUnit.MILLISECONDS);
+        return new CachedUplink(result, now.plusMillis(ttlInMs), now.plusMillis(staleTtlInMs));
+    }
+
+    /**
+     * Caches the given failed refresh. If the previously cached value is a success that's
+     * still servable stale, it's kept, and only held back from being refreshed again for
+     * the failure TTL; otherwise the failure itself is cached, and never served stale.
+     */
+    private CachedUplink newCachedFailure(
+            final UdmUplinkResult failure,
+            @Nullable final CachedUplink previous) {
+        final Instant now = Instant.now();
+        final long failureTtlInMs = beaconUdmConfig_.getUplinkCacheFailureTtl(TimeUnit.MILLISECONDS);
+        final Instant retryAt = now.plusMillis(failureTtlInMs);
+        if (previous != null && previous.getResult().isSuccess() && previous.isServableStaleAt(now)) {
+            final Instant staleUntil = previous.getStaleUntil();
+            return new CachedUplink(previous.getResult(), retryAt.isBefore(staleUntil) ? retryAt : staleUntil,
+                    staleUntil);
+        }
+
+        return new CachedUplink(failure, retryAt, retryAt);
+    }
+
+    private static final class CachedUplink {
+
+        private final UdmUplinkResult result_;
+
+        private final Instant freshUntil_;
+        private final Instant staleUntil_;
+
+        private CachedUplink(
+                final UdmUplinkResult result,
+                final Instant freshUntil,
+                final Instant staleUntil) {
+            result_ = result;
+            freshUntil_ = freshUntil;
+            staleUntil_ = staleUntil;
+        }
+
+        public UdmUplinkResult getResult() {
+            return result_;
+        }
+
+        public Instant getStaleUntil() {
+            return staleUntil_;
+        }
+
+        public boolean isFreshAt(
+                final Instant instant) {
+            return instant.isBefore(freshUntil_);
+        }
+
+        public boolean isServableStaleAt(
+                final Instant instant) {
+            return instant.isBefore(staleUntil_);
+        }
+
+    }
+
+}
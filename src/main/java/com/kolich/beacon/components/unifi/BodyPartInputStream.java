@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.unifi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A blocking input stream over the body parts of a response, as they arrive on the HTTP
+ * client's I/O thread. Lets a (blocking) JSON parser on another thread consume a response
+ * body while it's still being received, instead of only once it has been buffered whole.
+ */
+final class BodyPartInputStream extends InputStream {
+
+    /**
+     * Marks the end of the body; compared by identity.
+     */
+    private static final byte[] END_OF_BODY = new byte[0];
+
+    private final BlockingQueue<byte[]> parts_ = new LinkedBlockingQueue<>();
+
+    private volatile Throwable failure_;
+
+    private volatile boolean closed_ = false;
+
+    private byte[] part_;
+
+    private int position_ = 0;
+
+    private boolean ended_ = false;
+
+    /**
+     * Hands over the next part of the body; ignored once the reader has closed the stream.
+     */
+    void offer(
+            final byte[] part) {
+        if (!closed_ && part.length > 0) {
+            parts_.add(part);
+        }
+    }
+
+    /**
+     * Signals that every part of the body has been handed over.
+     */
+    void end() {
+        parts_.add(END_OF_BODY);
+    }
+
+    /**
+     * Signals that the response failed; the reader sees the failure as an {@link IOException}
+     * once it has consumed every part handed over before it.
+     */
+    void fail(
+            final Throwable cause) {
+        failure_ = cause;
+        parts_.add(END_OF_BODY);
+    }
+
+    /**
+     * Whether the reader has closed the stream, i.e., it needs no more of the body.
+     */
+    boolean isClosed() {
+        return closed_;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextPart()) {
+            return -1;
+        }
+
+        return part_[position_++] & 0xff;
+    }
+
+    @Override
+    public int read(
+            final byte[] buffer,
+            final int offset,
+            final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        } else if (!nextPart()) {
+            return -1;
+        }
+
+        final int count = Math.min(length, part_.length - position_);
+        System.arraycopy(part_, position_, buffer, offset, count);
+        position_ += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        closed_ = true;
+        parts_.clear();
+    }
+
+    /**
+     * Blocks until there's an unread byte in the current part, or the body has ended.
+     *
+     * @return false if the body has ended and every part of it has been read
+     */
+    private boolean nextPart() throws IOException {
+        while (part_ == null || position_ == part_.length) {
+            if (ended_ || closed_) {
+                return false;
+            }
+
+            final byte[] part;
+            try {
+                part = parts_.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting on response body.");
+            }
+
+            if (part == END_OF_BODY) {
+                ended_ = true;
+                final Throwable failure = failure_;
+                if (failure != null) {
+                    throw new IOException("Response failed before its body was read.", failure);
+                }
+                return false;
+            }
+
+            part_ = part;
+            position_ = 0;
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.unifi;
+
+import com.kolich.beacon.entities.unifi.UdmUplinkResult;
+import org.asynchttpclient.ws.WebSocket;
+import org.asynchttpclient.ws.WebSocketListener;
+
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of the {@link UdmClient}; login and the uplink lookup are
+ * chained on the HTTP client's I/O threads, so no caller thread is parked waiting
+ * on the controller.
+ */
+public interface UdmAsyncClient {
+
+    /**
+     * Returns a future JWT auth token for the controller, logging in with the configured
+     * credentials only when no cached token exists or the cached token is about to expire.
+     */
+    CompletableFuture<String> getJwtAuthTokenAsync();
+
+    /**
+     * Returns a future result carrying the uplink IP of the gateway, or the cause of the
+     * failure. The returned future itself never completes exceptionally, and completes no
+     * later than the configured API client timeout.
+     */
+    CompletableFuture<UdmUplinkResult> getUdmUplinkAsync();
+
+    /**
+     * Same as {@link #getUdmUplinkAsync()}, but the returned future completes no later than
+     * the given deadline, or the configured API client timeout, whichever comes first.
+     */
+    CompletableFuture<UdmUplinkResult> getUdmUplinkAsync(
+            Instant deadline);
+
+    /**
+     * Returns a future websocket connected to the event stream of the configured site,
+     * authenticated with the cached auth token, logging in first if needed. The future
+     * completes once the websocket is open, no later than the configured API client timeout.
+     *
+     * @param listener receives every frame sent on the event stream
+     * @param reauthenticate if true, the cached auth token is not trusted and a new one is
+     *                       fetched first, e.g., after the controller refused a connection
+     */
+    CompletableFuture<WebSocket> openEventStreamAsync(
+            WebSocketListener listener,
+            boolean reauthenticate);
+
+    /**
+     * Returns when the cached auth token expires, or null if there is no cached token, or
+     * its expiration time is unknown.
+     */
+    @Nullable
+    Instant getAuthTokenExpiresAt();
+
+}
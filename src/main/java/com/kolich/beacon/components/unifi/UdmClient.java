@@ -26,13 +26,25 @@
 
 package com.kolich.beacon.components.unifi;
 
-public interface UdmClient {
+import javax.annotation.Nullable;
 
-    String getJwtAuthToken(
-            final String username,
-            final String password);
+/**
+ * Blocking variant of the {@link UdmAsyncClient}; failures are logged and surface
+ * as a null return value.
+ */
+public interface UdmClient extends UdmAsyncClient {
+
+    /**
+     * Returns a JWT auth token for the controller, logging in with the configured
+     * credentials only when no cached token exists or the cached token is about to expire.
+     */
+    @Nullable
+    String getJwtAuthToken();
 
-    String getUdmUplinkIp(
-            final String jwtAuthToken);
+    /**
+     * Returns the uplink IP of the UDM, authenticating with the controller as needed.
+     */
+    @Nullable
+    String getUdmUplinkIp();
 
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.unifi;
+
+import com.kolich.beacon.exceptions.BeaconException;
+
+/**
+ * The controller API call used to discover the uplink IP of the gateway. Pick the
+ * cheapest strategy the controller supports; from most to least expensive.
+ */
+public enum UdmUplinkStrategy {
+
+    /**
+     * Fetches every device on the site and picks out the gateway.
+     */
+    DEVICE_STAT("device-stat", "/proxy/network/api/s/%s/stat/device"),
+
+    /**
+     * Asks the controller for the gateway device only, filtered by its MAC address.
+     */
+    DEVICE_STAT_BY_MAC("device-stat-by-mac", "/proxy/network/api/s/%s/stat/device"),
+
+    /**
+     * Reads the WAN IP from the (much smaller) "wan" subsystem of the site health.
+     */
+    HEALTH("health", "/proxy/network/api/s/%s/stat/health");
+
+    private final String configValue_;
+    private final String pathFormat_;
+
+    UdmUplinkStrategy(
+            final String configValue,
+            final String pathFormat) {
+        configValue_ = configValue;
+        pathFormat_ = pathFormat;
+    }
+
+    public String getPath(
+            final String site) {
+        return String.format(pathFormat_, site);
+    }
+
+    public static UdmUplinkStrategy fromConfigValue(
+            final String configValue) {
+        for (final UdmUplinkStrategy strategy : values()) {
+            if (strategy.configValue_.equalsIgnoreCase(configValue)) {
+                return strategy;
+            }
+        }
+
+        throw new BeaconException("Unknown UDM uplink strategy: " + configValue);
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kolich.beacon.components.jackson.BeaconJacksonObjectMapper;
+import com.kolich.beacon.components.metrics.BeaconMetrics;
+import com.kolich.beacon.components.state.BeaconStateSnapshotCache;
+import com.kolich.beacon.entities.BeaconStateSnapshot;
+import com.kolich.beacon.entities.ByteArrayEntity;
+import curacao.annotations.Controller;
+import curacao.annotations.Injectable;
+import curacao.annotations.RequestMapping;
+
+import static com.google.common.net.MediaType.JSON_UTF_8;
+import static jakarta.servlet.http.HttpServletResponse.SC_OK;
+
+@Controller
+public final class Api {
+
+    private static final String JSON_UTF_8_STRING = JSON_UTF_8.toString();
+
+    private final BeaconStateSnapshotCache stateSnapshotCache_;
+
+    private final BeaconMetrics metrics_;
+
+    private final ObjectMapper objectMapper_;
+
+    @Injectable
+    public Api(
+            final BeaconStateSnapshotCache stateSnapshotCache,
+            final BeaconMetrics metrics,
+            final BeaconJacksonObjectMapper beaconJacksonObjectMapper) {
+        stateSnapshotCache_ = stateSnapshotCache;
+        metrics_ = metrics;
+        objectMapper_ = beaconJacksonObjectMapper.getObjectMapper();
+    }
+
+    @RequestMapping("^/api/state$")
+    public BeaconStateSnapshot state() {
+        return stateSnapshotCache_.getSnapshot();
+    }
+
+    @RequestMapping("^/api/metrics$")
+    public ByteArrayEntity metrics() throws Exception {
+        return new ByteArrayEntity(SC_OK, JSON_UTF_8_STRING, objectMapper_.writeValueAsBytes(metrics_.getSnapshot()));
+    }
+
+}
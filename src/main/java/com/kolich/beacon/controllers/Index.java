@@ -27,9 +27,9 @@
 package com.kolich.beacon.controllers;
 
 import com.kolich.beacon.components.BeaconConfig;
-import com.kolich.beacon.components.unifi.BeaconUdmConfig;
-import com.kolich.beacon.components.unifi.UdmClient;
+import com.kolich.beacon.components.unifi.BeaconUplinkIpCache;
 import com.kolich.beacon.entities.freemarker.FreeMarkerContent;
+import com.kolich.beacon.entities.unifi.UdmUplinkResult;
 import curacao.annotations.Controller;
 import curacao.annotations.Injectable;
 import curacao.annotations.RequestMapping;
@@ -44,26 +44,27 @@ public final class Index {
     private static final String TEMPLATE_ATTR_IP = "ip";
 
     private final BeaconConfig beaconConfig_;
-    private final BeaconUdmConfig beaconUdmConfig_;
 
-    private final UdmClient udmClient_;
+    private final BeaconUplinkIpCache uplinkIpCache_;
 
     @Injectable
     public Index(
             final BeaconConfig beaconConfig,
-            final BeaconUdmConfig beaconUdmConfig,
-            final UdmClient udmClient) {
+            final BeaconUplinkIpCache uplinkIpCache) {
         beaconConfig_ = beaconConfig;
-        beaconUdmConfig_ = beaconUdmConfig;
-        udmClient_ = udmClient;
+        uplinkIpCache_ = uplinkIpCache;
     }
 
     @RequestMapping("^/$")
     public FreeMarkerContent index() throws Exception {
-        final String jwtAuthToken = udmClient_.getJwtAuthToken(
-                beaconUdmConfig_.getUsername(),
-                beaconUdmConfig_.getPassword());
-        final String udmUplinkIp = udmClient_.getUdmUplinkIp(jwtAuthToken);
+        // In the common case the cached uplink IP is fresh (or stale, and being refreshed
+        // in the background) and this is a memory read.
+        final UdmUplinkResult udmUplinkResult = uplinkIpCache_.getUplinkAsync().join();
+        if (!udmUplinkResult.isSuccess()) {
+            LOG.warn("Failed to get UDM uplink IP.", udmUplinkResult.getFailureCause());
+        }
+
+        final String udmUplinkIp = udmUplinkResult.getUplinkIp();
 
         return new FreeMarkerContent.Builder("templates/index.ftl")
                 .withAttr(TEMPLATE_ATTR_IP, udmUplinkIp)
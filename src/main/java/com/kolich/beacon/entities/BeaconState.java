@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.annotation.Nullable;
+import java.time.Instant;
+
+/**
+ * A point-in-time snapshot of what Beacon knows: the uplink IP of the gateway, and the
+ * state of the last DNS sync with Route53.
+ */
+public interface BeaconState {
+
+    /**
+     * A counter bumped every time the state changes.
+     */
+    @JsonProperty("version")
+    long getVersion();
+
+    @Nullable
+    @JsonProperty("uplinkIp")
+    String getUplinkIp();
+
+    /**
+     * The global IPv6 address of the WAN the gateway is currently using, if any.
+     */
+    @Nullable
+    @JsonProperty("uplinkIpv6")
+    String getUplinkIpv6();
+
+    /**
+     * The name of the WAN the gateway is currently using, e.g., <code>wan1</code>.
+     */
+    @Nullable
+    @JsonProperty("activeWan")
+    String getActiveWan();
+
+    /**
+     * The value of the DNS record in Route53 as of the last sync.
+     */
+    @Nullable
+    @JsonProperty("route53Value")
+    String getRoute53Value();
+
+    @Nullable
+    @JsonProperty("lastSyncTime")
+    Instant getLastSyncTime();
+
+    /**
+     * The ID of the last Route53 change submitted to update the DNS record.
+     */
+    @Nullable
+    @JsonProperty("lastChangeId")
+    String getLastChangeId();
+
+    /**
+     * The status of the last Route53 change, PENDING until it has propagated to all of the
+     * Route53 name servers, then INSYNC.
+     */
+    @Nullable
+    @JsonProperty("lastChangeStatus")
+    String getLastChangeStatus();
+
+    /**
+     * How long the last Route53 change took to become INSYNC, in milliseconds.
+     */
+    @Nullable
+    @JsonProperty("lastPropagationLatencyMs")
+    Long getLastPropagationLatencyMs();
+
+    @JsonIgnore
+    default Builder toBuilder() {
+        return new Builder()
+                .setVersion(getVersion())
+                .setUplinkIp(getUplinkIp())
+                .setUplinkIpv6(getUplinkIpv6())
+                .setActiveWan(getActiveWan())
+                .setRoute53Value(getRoute53Value())
+                .setLastSyncTime(getLastSyncTime())
+                .setLastChangeId(getLastChangeId())
+                .setLastChangeStatus(getLastChangeStatus())
+                .setLastPropagationLatencyMs(getLastPropagationLatencyMs());
+    }
+
+    final class Builder {
+
+        private long version_;
+
+        private String uplinkIp_;
+        private String uplinkIpv6_;
+        private String activeWan_;
+
+        private String route53Value_;
+        private Instant lastSyncTime_;
+        private String lastChangeId_;
+        private String lastChangeStatus_;
+        private Long lastPropagationLatencyMs_;
+
+        public Builder setVersion(
+                final long version) {
+            version_ = version;
+            return this;
+        }
+
+        public Builder setUplinkIp(
+                final String uplinkIp) {
+            uplinkIp_ = uplinkIp;
+            return this;
+        }
+
+        public Builder setUplinkIpv6(
+                final String uplinkIpv6) {
+            uplinkIpv6_ = uplinkIpv6;
+            return this;
+        }
+
+        public Builder setActiveWan(
+                final String activeWan) {
+            activeWan_ = activeWan;
+            return this;
+        }
+
+        public Builder setRoute53Value(
+                final String route53Value) {
+            route53Value_ = route53Value;
+            return this;
+        }
+
+        public Builder setLastSyncTime(
+                final Instant lastSyncTime) {
+            lastSyncTime_ = lastSyncTime;
+            return this;
+        }
+
+        public Builder setLastChangeId(
+                final String lastChangeId) {
+            lastChangeId_ = lastChangeId;
+            return this;
+        }
+
+        public Builder setLastChangeStatus(
+                final String lastChangeStatus) {
+            lastChangeStatus_ = lastChangeStatus;
+            return this;
+        }
+
+        public Builder setLastPropagationLatencyMs(
+                final Long lastPropagationLatencyMs) {
+            lastPropagationLatencyMs_ = lastPropagationLatencyMs;
+            return this;
+        }
+
+        public BeaconState build() {
+            return new BeaconState() {
+                @Override
+                public long getVersion() {
+                    return version_;
+                }
+
+                @Nullable
+                @Override
+                public String getUplinkIp() {
+                    return uplinkIp_;
+                }
+
+                @Nullable
+                @Override
+                public String getUplinkIpv6() {
+                    return uplinkIpv6_;
+                }
+
+                @Nullable
+                @Override
+                public String getActiveWan() {
+                    return activeWan_;
+                }
+
+                @Nullable
+                @Override
+                public String getRoute53Value() {
+                    return route53Value_;
+                }
+
+                @Nullable
+                @Override
+                public Instant getLastSyncTime() {
+                    return lastSyncTime_;
+                }
+
+                @Nullable
+                @Override
+                public String getLastChangeId() {
+                    return lastChangeId_;
+                }
+
+                @Nullable
+                @Override
+                public String getLastChangeStatus() {
+                    return lastChangeStatus_;
+                }
+
+                @Nullable
+                @Override
+                public Long getLastPropagationLatencyMs() {
+                    return lastPropagationLatencyMs_;
+                }
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities;
+
+import com.google.common.hash.Hashing;
+import com.kolich.beacon.entities.util.ContentEncodingUtils;
+import curacao.entities.CuracaoEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.OutputStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.net.MediaType.JSON_UTF_8;
+import static jakarta.servlet.http.HttpServletResponse.SC_OK;
+
+/**
+ * An immutable, pre-serialized JSON representation of a {@link BeaconState} along with
+ * its strong entity tag, and its gzip'ed variant if it's large enough to be worth it.
+ * Snapshots are built once per state change, and written as-is to every response that
+ * needs them.
+ */
+public final class BeaconStateSnapshot implements CuracaoEntity {
+
+    private static final String JSON_UTF_8_STRING = JSON_UTF_8.toString();
+
+    private static final String ETAG_WILDCARD = "*";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+
+    private final byte[] json_;
+
+    private final String etag_;
+
+    @Nullable
+    private final byte[] gzipped_;
+
+    /**
+     * Strong entity tags must differ between content-codings of the same representation.
+     */
+    private final String gzipETag_;
+
+    public BeaconStateSnapshot(
+            @Nonnull final byte[] json) {
+        json_ = checkNotNull(json, "State JSON cannot be null.");
+        // The entity tag is derived from the serialized bytes, and not the state version,
+        // such that it remains valid (and unique) across restarts.
+        final String hash = Hashing.sha256().hashBytes(json_).toString();
+        etag_ = "\"" + hash + "\"";
+        gzipETag_ = "\"" + hash + "-" + ContentEncodingUtils.GZIP + "\"";
+        gzipped_ = (json_.length >= ContentEncodingUtils.MIN_COMPRESSIBLE_SIZE)
+                ? ContentEncodingUtils.gzip(json_, json_.length)
+                : null;
+    }
+
+    public String getETag() {
+        return etag_;
+    }
+
+    public int getContentLength() {
+        return json_.length;
+    }
+
+    public boolean hasGzipVariant() {
+        return gzipped_ != null;
+    }
+
+    public String getGzipETag() {
+        return gzipETag_;
+    }
+
+    /**
+     * Returns the gzip'ed variant of this snapshot as an entity; only valid if this
+     * snapshot {@link #hasGzipVariant()}.
+     */
+    public ByteArrayEntity toGzipEntity() {
+        return new ByteArrayEntity(SC_OK, JSON_UTF_8_STRING, checkNotNull(gzipped_, "No gzip variant."));
+    }
+
+    /**
+     * Returns true if the given <code>If-None-Match</code> request header value matches
+     * the entity tag of this snapshot, or of its gzip'ed variant. Per RFC 9110,
+     * <code>If-None-Match</code> uses the weak comparison function, so a weak validator
+     * matches its strong counterpart.
+     */
+    public boolean matches(
+            @Nullable final String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            if (ETAG_WILDCARD.equals(tag)) {
+                return true;
+            }
+
+            final String opaque = tag.startsWith(WEAK_ETAG_PREFIX)
+                    ? tag.substring(WEAK_ETAG_PREFIX.length())
+                    : tag;
+            if (etag_.equals(opaque) || gzipETag_.equals(opaque)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public int getStatus() {
+        return SC_OK;
+    }
+
+    @Override
+    public String getContentType() {
+        return JSON_UTF_8_STRING;
+    }
+
+    @Override
+    public void write(
+            final OutputStream os) throws Exception {
+        os.write(json_);
+    }
+
+}
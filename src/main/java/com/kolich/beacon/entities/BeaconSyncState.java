@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import javax.annotation.Nullable;
+import java.time.Instant;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The last state successfully applied to Route53, persisted across restarts such that
+ * runs which discover an unchanged uplink IP can skip Route53 entirely.
+ */
+@JsonDeserialize(builder = BeaconSyncState.Builder.class)
+public interface BeaconSyncState {
+
+    /**
+     * The uplink IP that was last applied to every managed DNS record.
+     */
+    @JsonProperty("appliedIp")
+    String getAppliedIp();
+
+    /**
+     * The uplink IPv6 address that was last applied to every managed AAAA record, or null
+     * if the uplink had no global IPv6 address.
+     */
+    @Nullable
+    @JsonProperty("appliedIpv6")
+    String getAppliedIpv6();
+
+    /**
+     * The value of the DNS records in Route53 as of the last reconcile.
+     */
+    @JsonProperty("route53Value")
+    String getRoute53Value();
+
+    /**
+     * The ID of the last Route53 change submitted to update the DNS records.
+     */
+    @Nullable
+    @JsonProperty("lastChangeId")
+    String getLastChangeId();
+
+    /**
+     * A fingerprint of the desired DNS records as of the last reconcile; a change to the
+     * configured records always forces a full reconcile.
+     */
+    @JsonProperty("recordsFingerprint")
+    String getRecordsFingerprint();
+
+    /**
+     * When the managed DNS records were last fully reconciled with Route53.
+     */
+    @JsonProperty("lastReconcileTime")
+    Instant getLastReconcileTime();
+
+    @JsonIgnore
+    default Builder toBuilder() {
+        return new Builder()
+                .setAppliedIp(getAppliedIp())
+                .setAppliedIpv6(getAppliedIpv6())
+                .setRoute53Value(getRoute53Value())
+                .setLastChangeId(getLastChangeId())
+                .setRecordsFingerprint(getRecordsFingerprint())
+                .setLastReconcileTime(getLastReconcileTime());
+    }
+
+    final class Builder {
+
+        private String appliedIp_;
+        private String appliedIpv6_;
+        private String route53Value_;
+        private String lastChangeId_;
+        private String recordsFingerprint_;
+        private Instant lastReconcileTime_;
+
+        @JsonProperty("appliedIp")
+        public Builder setAppliedIp(
+                final String appliedIp) {
+            appliedIp_ = appliedIp;
+            return this;
+        }
+
+        @JsonProperty("appliedIpv6")
+        public Builder setAppliedIpv6(
+                final String appliedIpv6) {
+            appliedIpv6_ = appliedIpv6;
+            return this;
+        }
+
+        @JsonProperty("route53Value")
+        public Builder setRoute53Value(
+                final String route53Value) {
+            route53Value_ = route53Value;
+            return this;
+        }
+
+        @JsonProperty("lastChangeId")
+        public Builder setLastChangeId(
+                final String lastChangeId) {
+            lastChangeId_ = lastChangeId;
+            return this;
+        }
+
+        @JsonProperty("recordsFingerprint")
+        public Builder setRecordsFingerprint(
+                final String recordsFingerprint) {
+            recordsFingerprint_ = recordsFingerprint;
+            return this;
+        }
+
+        @JsonProperty("lastReconcileTime")
+        public Builder setLastReconcileTime(
+                final Instant lastReconcileTime) {
+            lastReconcileTime_ = lastReconcileTime;
+            return this;
+        }
+
+        public BeaconSyncState build() {
+            checkNotNull(appliedIp_, "Applied IP cannot be null.");
+            checkNotNull(route53Value_, "Route53 value cannot be null.");
+            checkNotNull(recordsFingerprint_, "Records fingerprint cannot be null.");
+            checkNotNull(lastReconcileTime_, "Last reconcile time cannot be null.");
+
+            final String appliedIp = appliedIp_;
+            final String appliedIpv6 = appliedIpv6_;
+            final String route53Value = route53Value_;
+            final String lastChangeId = lastChangeId_;
+            final String recordsFingerprint = recordsFingerprint_;
+            final Instant lastReconcileTime = lastReconcileTime_;
+            return new BeaconSyncState() {
+                @Override
+                public String getAppliedIp() {
+                    return appliedIp;
+                }
+
+                @Nullable
+                @Override
+                public String getAppliedIpv6() {
+                    return appliedIpv6;
+                }
+
+                @Override
+                public String getRoute53Value() {
+                    return route53Value;
+                }
+
+                @Nullable
+                @Override
+                public String getLastChangeId() {
+                    return lastChangeId;
+                }
+
+                @Override
+                public String getRecordsFingerprint() {
+                    return recordsFingerprint;
+                }
+
+                @Override
+                public Instant getLastReconcileTime() {
+                    return lastReconcileTime;
+                }
+            };
+        }
+
+    }
+
+}
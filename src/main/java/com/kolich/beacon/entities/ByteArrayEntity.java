@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities;
+
+import curacao.entities.CuracaoEntity;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.OutputStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+
+/**
+ * An entity whose body is written as-is from the first <code>length</code> bytes of an
+ * array, e.g., a body that is already encoded and content-coded.
+ */
+public final class ByteArrayEntity implements CuracaoEntity {
+
+    private final int status_;
+    private final String contentType_;
+    private final byte[] body_;
+    private final int length_;
+
+    public ByteArrayEntity(
+            @Nonnegative final int status,
+            @Nonnull final String contentType,
+            @Nonnull final byte[] body,
+            @Nonnegative final int length) {
+        status_ = status;
+        contentType_ = checkNotNull(contentType, "Content type cannot be null.");
+        body_ = checkNotNull(body, "Body cannot be null.");
+        checkPositionIndex(length, body.length, "Body length");
+        length_ = length;
+    }
+
+    public ByteArrayEntity(
+            @Nonnegative final int status,
+            @Nonnull final String contentType,
+            @Nonnull final byte[] body) {
+        this(status, contentType, body, body.length);
+    }
+
+    @Override
+    public int getStatus() {
+        return status_;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType_;
+    }
+
+    public int getContentLength() {
+        return length_;
+    }
+
+    @Override
+    public void write(
+            final OutputStream os) throws Exception {
+        os.write(body_, 0, length_);
+    }
+
+}
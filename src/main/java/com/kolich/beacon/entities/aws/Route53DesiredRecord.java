@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.aws;
+
+import software.amazon.awssdk.services.route53.model.RRType;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A DNS record that should exist in Route53, pointed at the uplink of the gateway.
+ */
+public interface Route53DesiredRecord {
+
+    String getHostedZoneId();
+
+    /**
+     * The fully qualified name of the record, e.g., <code>vpn.example.com.</code>
+     */
+    String getName();
+
+    RRType getType();
+
+    /**
+     * The TTL of the record, in seconds.
+     */
+    long getTtl();
+
+    final class Builder {
+
+        private String hostedZoneId_;
+        private String name_;
+        private RRType type_ = RRType.A;
+        private long ttl_;
+
+        public Builder setHostedZoneId(
+                final String hostedZoneId) {
+            hostedZoneId_ = hostedZoneId;
+            return this;
+        }
+
+        public Builder setName(
+                final String name) {
+            name_ = name;
+            return this;
+        }
+
+        public Builder setType(
+                final RRType type) {
+            type_ = type;
+            return this;
+        }
+
+        public Builder setTtl(
+                final long ttl) {
+            ttl_ = ttl;
+            return this;
+        }
+
+        public Route53DesiredRecord build() {
+            checkNotNull(hostedZoneId_, "Hosted zone ID cannot be null.");
+            checkNotNull(name_, "Record name cannot be null.");
+            checkNotNull(type_, "Record type cannot be null.");
+            checkState(ttl_ > 0L, "Record TTL must be > 0: %s", name_);
+
+            final String hostedZoneId = hostedZoneId_;
+            final String name = name_;
+            final RRType type = type_;
+            final long ttl = ttl_;
+            return new Route53DesiredRecord() {
+                @Override
+                public String getHostedZoneId() {
+                    return hostedZoneId;
+                }
+
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public RRType getType() {
+                    return type;
+                }
+
+                @Override
+                public long getTtl() {
+                    return ttl;
+                }
+
+                @Override
+                public String toString() {
+                    return String.format("%s %s (%s)", name, type, hostedZoneId);
+                }
+            };
+        }
+
+    }
+
+}
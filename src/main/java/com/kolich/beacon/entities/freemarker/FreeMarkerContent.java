@@ -112,6 +112,8 @@ public interface FreeMarkerContent {
         }
 
         public FreeMarkerContent build() {
+            // Built once, here, rather than on every call to getDataMap().
+            final Map<String, Object> dataMap = dataMap_.build();
             return new FreeMarkerContent() {
                 @Override
                 public String getTemplateName() {
@@ -131,7 +133,7 @@ public interface FreeMarkerContent {
                 @Nonnull
                 @Override
                 public Map<String, Object> getDataMap() {
-                    return dataMap_.build();
+                    return dataMap;
                 }
             };
         }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.freemarker;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link Writer} filter that compresses HTML written through it with
+ * {@link Utf8TextEntity#compressHtml(String)}. The compressor needs the whole document, so
+ * written characters are collected until the writer is closed, at which point the compressed
+ * document is written to the underlying writer. The underlying writer is flushed, but left open.
+ */
+public final class HtmlCompressingWriter extends Writer {
+
+    private final Writer out_;
+
+    private final StringBuilder uncompressed_ = new StringBuilder();
+
+    private boolean closed_;
+
+    public HtmlCompressingWriter(
+            final Writer out) {
+        out_ = checkNotNull(out, "Underlying writer cannot be null.");
+    }
+
+    @Override
+    public void write(
+            final char[] cbuf,
+            final int off,
+            final int len) throws IOException {
+        ensureOpen();
+        uncompressed_.append(cbuf, off, len);
+    }
+
+    @Override
+    public void write(
+            final String str,
+            final int off,
+            final int len) throws IOException {
+        ensureOpen();
+        uncompressed_.append(str, off, off + len);
+    }
+
+    @Override
+    public void flush() {
+        // Nothing can be written until the whole document is known.
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed_) {
+            return;
+        }
+
+        closed_ = true;
+        out_.write(Utf8TextEntity.compressHtml(uncompressed_.toString()));
+        out_.flush();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed_) {
+            throw new IOException("Writer closed.");
+        }
+    }
+
+}
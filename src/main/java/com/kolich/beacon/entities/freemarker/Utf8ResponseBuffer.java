@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.freemarker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pooled, per-thread buffer that a response is rendered into. Characters written to
+ * {@link #getWriter()} are encoded to UTF-8 once, as they're written, into a reusable
+ * byte array which is then written out to the response as-is.
+ *
+ * Buffers are acquired with {@link #acquire()} and must be released by closing them,
+ * after which the bytes returned by {@link #getBytes()} are no longer valid.
+ */
+public final class Utf8ResponseBuffer implements Closeable {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024; // 8KiB
+
+    /**
+     * Buffers that grew larger than this are not returned to the pool, such that a single
+     * large response doesn't pin a large buffer to the thread forever.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024; // 1MiB
+
+    private static final ThreadLocal<Utf8ResponseBuffer> POOL = ThreadLocal.withInitial(Utf8ResponseBuffer::new);
+
+    private final ExposedByteArrayOutputStream bytes_;
+
+    private final Writer writer_;
+
+    private boolean inUse_;
+
+    private Utf8ResponseBuffer() {
+        bytes_ = new ExposedByteArrayOutputStream(INITIAL_CAPACITY);
+        writer_ = new OutputStreamWriter(bytes_, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the buffer of the calling thread, or a new unpooled buffer if the buffer of
+     * the calling thread is already in use (e.g., an error page rendered mid-render).
+     */
+    public static Utf8ResponseBuffer acquire() {
+        final Utf8ResponseBuffer pooled = POOL.get();
+        if (pooled.inUse_) {
+            return new Utf8ResponseBuffer();
+        }
+
+        pooled.inUse_ = true;
+        return pooled;
+    }
+
+    public Writer getWriter() {
+        return writer_;
+    }
+
+    /**
+     * Flushes any characters not yet encoded, and returns the underlying byte array. Only
+     * the first {@link #size()} bytes of the returned array are valid.
+     */
+    public byte[] getBytes() throws IOException {
+        writer_.flush();
+        return bytes_.getBuffer();
+    }
+
+    public int size() throws IOException {
+        writer_.flush();
+        return bytes_.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Drain whatever the writer still holds (e.g., after a failed render) before discarding
+        // it, such that none of it leaks into the next response rendered into this buffer.
+        writer_.flush();
+        bytes_.reset();
+        inUse_ = false;
+        if (bytes_.getBuffer().length > MAX_RETAINED_CAPACITY && POOL.get() == this) {
+            POOL.remove();
+        }
+    }
+
+    /**
+     * Exposes the internal buffer of the stream such that it can be written from without
+     * copying it.
+     */
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        private ExposedByteArrayOutputStream(
+                final int size) {
+            super(size);
+        }
+
+        private byte[] getBuffer() {
+            return buf;
+        }
+
+    }
+
+}
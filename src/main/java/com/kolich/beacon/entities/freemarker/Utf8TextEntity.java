@@ -26,33 +26,60 @@
 
 package com.kolich.beacon.entities.freemarker;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.googlecode.htmlcompressor.compressor.HtmlCompressor;
-import com.googlecode.htmlcompressor.compressor.YuiJavaScriptCompressor;
 import com.kolich.beacon.entities.util.HtmlUtils;
-import curacao.entities.AbstractAppendableCuracaoEntity;
+import com.kolich.beacon.exceptions.BeaconException;
+import curacao.entities.CuracaoEntity;
 import org.apache.commons.codec.binary.StringUtils;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import java.io.ByteArrayOutputStream;
-import java.io.Reader;
-import java.io.StringReader;
-import java.io.Writer;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.net.MediaType.HTML_UTF_8;
 import static com.google.common.net.MediaType.PLAIN_TEXT_UTF_8;
 import static com.google.common.net.MediaType.XML_UTF_8;
 import static jakarta.servlet.http.HttpServletResponse.SC_OK;
-import static org.apache.commons.io.IOUtils.copyLarge;
 
-public final class Utf8TextEntity extends AbstractAppendableCuracaoEntity {
+public final class Utf8TextEntity implements CuracaoEntity {
 
     private static final String HTML_UTF_8_STRING = HTML_UTF_8.toString();
     private static final String XML_UTF_8_STRING = XML_UTF_8.toString();
     private static final String TEXT_UTF_8_STRING = PLAIN_TEXT_UTF_8.toString();
 
+    /**
+     * The maximum number of compressed bodies held in the compression cache. Rendered pages
+     * are small and almost always identical, so a handful of entries covers the working set.
+     */
+    private static final int COMPRESSION_CACHE_MAX_SIZE = 64;
+
+    /**
+     * Compressed bodies keyed by the SHA-256 hash of their uncompressed form. Identical renders
+     * skip compression entirely; least recently used entries are evicted first.
+     */
+    private static final Cache<HashCode, String> COMPRESSION_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(COMPRESSION_CACHE_MAX_SIZE)
+            .recordStats()
+            .build();
+
+    /**
+     * The HTML compressor (and its YUI JavaScript compressor) are not safe for concurrent use
+     * but are expensive to build, so each thread gets its own reusable instance.
+     */
+    private static final ThreadLocal<HtmlCompressor> HTML_COMPRESSOR =
+            ThreadLocal.withInitial(HtmlUtils::newHtmlCompressor);
+
     public enum EntityType {
 
         /**
@@ -101,23 +128,54 @@ public final class Utf8TextEntity extends AbstractAppendableCuracaoEntity {
 
     private final EntityType type_;
     private final int status_;
-    private final String body_;
 
+    /**
+     * The UTF-8 encoded body, already compressed if the entity type is compressable. Only the
+     * first {@link #length_} bytes are part of the body, allowing a pooled buffer to be written
+     * from without copying it.
+     */
+    private final byte[] body_;
+    private final int length_;
+
+    /**
+     * Creates a new entity from a body that is already UTF-8 encoded, and compressed (or even
+     * content-coded, e.g., gzip'ed) if need be, which is written as-is.
+     */
     public Utf8TextEntity(
             @Nonnull final EntityType type,
             @Nonnegative final int status,
-            @Nonnull final String body) {
+            @Nonnull final byte[] body,
+            @Nonnegative final int length) {
         type_ = checkNotNull(type, "HTML entity type cannot be null.");
-        checkState(status >= SC_OK, "HTTP response status cannot be < " + SC_OK);
-        status_ = status;
+        status_ = checkStatus(status);
         body_ = checkNotNull(body, "HTML body cannot be null.");
+        checkPositionIndex(length, body.length, "HTML body length");
+        length_ = length;
+    }
+
+    public Utf8TextEntity(
+            @Nonnull final EntityType type,
+            @Nonnegative final int status,
+            @Nonnull final String body) {
+        type_ = checkNotNull(type, "HTML entity type cannot be null.");
+        status_ = checkStatus(status);
+        checkNotNull(body, "HTML body cannot be null.");
+        body_ = (type.isCompressable() ? compressHtml(body) : body).getBytes(StandardCharsets.UTF_8);
+        length_ = body_.length;
     }
 
     public Utf8TextEntity(
             @Nonnull final EntityType type,
             @Nonnegative final int status,
             @Nonnull final byte[] body) {
-        this(type, status, StringUtils.newStringUtf8(body));
+        type_ = checkNotNull(type, "HTML entity type cannot be null.");
+        status_ = checkStatus(status);
+        checkNotNull(body, "HTML body cannot be null.");
+        // Byte bodies are only decoded if they actually need compressing.
+        body_ = type.isCompressable()
+                ? compressHtml(StringUtils.newStringUtf8(body)).getBytes(StandardCharsets.UTF_8)
+                : body;
+        length_ = body_.length;
     }
 
     public Utf8TextEntity(
@@ -155,26 +213,50 @@ public final class Utf8TextEntity extends AbstractAppendableCuracaoEntity {
         return type_.getType();
     }
 
+    /**
+     * The exact length of the UTF-8 encoded body, in bytes.
+     */
+    public int getContentLength() {
+        return length_;
+    }
+
     @Override
-    public void toWriter(
-            final Writer writer) throws Exception {
-        final String body = type_.isCompressable() ? compressHtml(body_) : body_;
-        try (Reader reader = new StringReader(body)) {
-            copyLarge(reader, writer);
-        }
+    public void write(
+            final OutputStream os) throws Exception {
+        os.write(body_, 0, length_);
     }
 
-    private static String compressHtml(
+    /**
+     * Returns a snapshot of the hit, miss and eviction counters of the compression cache.
+     */
+    public static CacheStats getCompressionCacheStats() {
+        return COMPRESSION_CACHE.stats();
+    }
+
+    /**
+     * Minifies and compresses the given HTML, or returns the cached result of having done so
+     * for an identical body before.
+     */
+    public static String compressHtml(
             final String uncompressed) {
-        final String minified = HtmlUtils.minify(uncompressed);
+        final HashCode key = Hashing.sha256().hashString(uncompressed, StandardCharsets.UTF_8);
+        try {
+            return COMPRESSION_CACHE.get(key, () -> {
+                final String minified = HtmlUtils.minify(uncompressed);
 
-        // Run the stripped result through the HTML compressor, compressing script blocks and
-        // stripping out HTML comments and other junk.
-        final HtmlCompressor compressor = new HtmlCompressor();
-        compressor.setJavaScriptCompressor(new YuiJavaScriptCompressor());
-        compressor.setCompressJavaScript(true);
+                // Run the stripped result through the HTML compressor, compressing script blocks and
+                // stripping out HTML comments and other junk.
+                return HTML_COMPRESSOR.get().compress(minified);
+            });
+        } catch (final ExecutionException e) {
+            throw new BeaconException("Failed to compress HTML body.", e);
+        }
+    }
 
-        return compressor.compress(minified);
+    private static int checkStatus(
+            final int status) {
+        checkState(status >= SC_OK, "HTTP response status cannot be < " + SC_OK);
+        return status;
     }
 
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.unifi;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletionException;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * The outcome of discovering the uplink IP of the gateway; carries either the
+ * uplink IP (and, if the gateway has one, its global IPv6 address) on success,
+ * or the cause of the failure.
+ */
+public interface UdmUplinkResult {
+
+    @Nullable
+    String getUplinkIp();
+
+    /**
+     * The global IPv6 address of the WAN the gateway is currently using, or null if
+     * it has none, or it's unknown.
+     */
+    @Nullable
+    String getUplinkIpv6();
+
+    /**
+     * Whether the WAN the gateway is currently using reported its IPv6 addresses; only
+     * then does a null {@link #getUplinkIpv6()} mean the WAN has no global IPv6 address,
+     * rather than that it's unknown, e.g., with the "health" uplink strategy.
+     */
+    boolean isUplinkIpv6Reported();
+
+    /**
+     * The name of the WAN the gateway is currently using, e.g., <code>wan2</code> after
+     * a failover, or null if unknown.
+     */
+    @Nullable
+    String getActiveWan();
+
+    @Nullable
+    Throwable getFailureCause();
+
+    default boolean isSuccess() {
+        return getFailureCause() == null;
+    }
+
+    final class Builder {
+
+        private String uplinkIp_;
+        private String uplinkIpv6_;
+        private boolean uplinkIpv6Reported_ = false;
+        private String activeWan_;
+        private Throwable failureCause_;
+
+        public Builder setUplinkIp(
+                final String uplinkIp) {
+            uplinkIp_ = uplinkIp;
+            return this;
+        }
+
+        public Builder setUplinkIpv6(
+                final String uplinkIpv6) {
+            uplinkIpv6_ = uplinkIpv6;
+            return this;
+        }
+
+        public Builder setUplinkIpv6Reported(
+                final boolean uplinkIpv6Reported) {
+            uplinkIpv6Reported_ = uplinkIpv6Reported;
+            return this;
+        }
+
+        public Builder setActiveWan(
+                final String activeWan) {
+            activeWan_ = activeWan;
+            return this;
+        }
+
+        /**
+         * Sets the cause of the failure; wrapping {@link CompletionException}'s are
+         * unwrapped such that the result carries the underlying cause.
+         */
+        public Builder setFailureCause(
+                final Throwable failureCause) {
+            if (failureCause instanceof CompletionException && failureCause.getCause() != null) {
+                failureCause_ = failureCause.getCause();
+            } else {
+                failureCause_ = failureCause;
+            }
+            return this;
+        }
+
+        public UdmUplinkResult build() {
+            checkState(uplinkIp_ != null ^ failureCause_ != null,
+                    "Exactly one of uplink IP or failure cause must be set.");
+
+            return new UdmUplinkResult() {
+                @Nullable
+                @Override
+                public String getUplinkIp() {
+                    return uplinkIp_;
+                }
+
+                @Nullable
+                @Override
+                public String getUplinkIpv6() {
+                    return uplinkIpv6_;
+                }
+
+                @Override
+                public boolean isUplinkIpv6Reported() {
+                    return uplinkIpv6Reported_;
+                }
+
+                @Nullable
+                @Override
+                public String getActiveWan() {
+                    return activeWan_;
+                }
+
+                @Nullable
+                @Override
+                public Throwable getFailureCause() {
+                    return failureCause_;
+                }
+            };
+        }
+
+    }
+
+}
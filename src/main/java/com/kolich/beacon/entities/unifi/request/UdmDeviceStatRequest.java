@@ -24,43 +24,45 @@
  * OTHER DEALINGS IN THE SOFTWARE.
  */
 
-package com.kolich.beacon.entities.unifi.response;
+package com.kolich.beacon.entities.unifi.request;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.google.common.collect.ImmutableList;
 
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-@JsonDeserialize(builder = UdmDeviceStatResponse.Builder.class)
-public interface UdmDeviceStatResponse {
+@JsonDeserialize(builder = UdmDeviceStatRequest.Builder.class)
+public interface UdmDeviceStatRequest {
 
-    @JsonProperty("data")
-    List<UdmDevice> getDevices();
+    @JsonProperty("macs")
+    List<String> getMacs();
 
     @JsonIgnore
     default Builder toBuilder() {
-        return new UdmDeviceStatResponse.Builder()
-                .setDevices(getDevices());
+        return new UdmDeviceStatRequest.Builder()
+                .setMacs(getMacs());
     }
 
     final class Builder {
 
-        private List<UdmDevice> devices_;
+        private List<String> macs_;
 
-        @JsonProperty("data")
-        public Builder setDevices(
-                final List<UdmDevice> devices) {
-            devices_ = devices;
+        @JsonProperty("macs")
+        public Builder setMacs(
+                final List<String> macs) {
+            macs_ = macs;
             return this;
         }
 
-        public UdmDeviceStatResponse build() {
-            checkNotNull(devices_, "Devices cannot be null.");
+        public UdmDeviceStatRequest build() {
+            checkNotNull(macs_, "MACs cannot be null.");
 
-            return () -> devices_;
+            final List<String> macs = ImmutableList.copyOf(macs_);
+            return () -> macs;
         }
 
     }
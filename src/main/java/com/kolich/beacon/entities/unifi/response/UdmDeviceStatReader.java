@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.unifi.response;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A streaming reader for the UniFi controller <code>stat/device</code> API response.
+ *
+ * Unlike binding the whole response into a list of device objects, this reader walks
+ * the response token by token, skips over every device (and every field) that
+ * isn't needed, and stops reading as soon as the matching device has been read. On
+ * sites with many access points and switches this avoids materializing hundreds of KB
+ * worth of device objects just to find a single device.
+ */
+public final class UdmDeviceStatReader {
+
+    private static final String DATA_FIELD = "data";
+    private static final String UPLINK_FIELD = "uplink";
+    private static final String IP_FIELD = "ip";
+
+    private static final String WAN_IF_NAME_FIELD = "ifname";
+    private static final String WAN_IP_FIELD = "ip";
+    private static final String WAN_UP_FIELD = "up";
+    private static final String WAN_IPV6_FIELD = "ipv6";
+
+    /**
+     * Gateways report each of their WAN interfaces as a top-level device field named
+     * <code>wan1</code>, <code>wan2</code>, and so on.
+     */
+    private static final Pattern WAN_FIELD_PATTERN = Pattern.compile("^wan\\d+$");
+
+    // Cannot instantiate
+    private UdmDeviceStatReader() {
+    }
+
+    /**
+     * Reads the uplink, and every WAN interface, of the first device whose string field
+     * with the given name matches the given predicate.
+     *
+     * @param parser a parser positioned before the start of the response
+     * @param matchField name of the device field used to pick the device of interest,
+     *                   e.g., "mac" or "type"
+     * @param matcher predicate applied to the value of the match field
+     * @return the uplink of the matching device, or null if no device matched
+     */
+    @Nullable
+    public static UdmDeviceUplink readUplink(
+            final JsonParser parser,
+            final String matchField,
+            final Predicate<String> matcher) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected device stat response to start with an object.");
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            final JsonToken token = parser.nextToken();
+            if (DATA_FIELD.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    final UdmDeviceUplink uplink = readDevice(parser, matchField, matcher);
+                    if (uplink != null) {
+                        // Found it; intentionally stop reading here and ignore the rest of the response.
+                        return uplink;
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads a single device object; the parser is expected to be positioned on the
+     * {@link JsonToken#START_OBJECT} token of the device. Always consumes the whole
+     * device object, and returns its uplink if the device matches, otherwise null.
+     */
+    @Nullable
+    private static UdmDeviceUplink readDevice(
+            final JsonParser parser,
+            final String matchField,
+            final Predicate<String> matcher) throws IOException {
+        // Fields of a device object can arrive in any order, so the uplink and WANs may be
+        // read before it's known whether this is the device of interest.
+        Boolean matched = null;
+        String uplinkIp = null;
+        final UdmDeviceUplink.Builder builder = new UdmDeviceUplink.Builder();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            final JsonToken token = parser.nextToken();
+            if (Boolean.FALSE.equals(matched)) {
+                // Not the device we're looking for; skip everything else in it.
+                parser.skipChildren();
+            } else if (matchField.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                matched = matcher.test(parser.getText());
+            } else if (UPLINK_FIELD.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                uplinkIp = readIp(parser);
+            } else if (WAN_FIELD_PATTERN.matcher(fieldName).matches() && token == JsonToken.START_OBJECT) {
+                builder.addWan(fieldName, readWan(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (!Boolean.TRUE.equals(matched) || uplinkIp == null) {
+            return null;
+        }
+
+        return builder
+                .setIp(uplinkIp)
+                .build();
+    }
+
+    /**
+     * Reads the <code>ip</code> field of an uplink object, consuming the whole object;
+     * the parser is expected to be positioned on its {@link JsonToken#START_OBJECT} token.
+     */
+    @Nullable
+    static String readIp(
+            final JsonParser parser) throws IOException {
+        String ip = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            final JsonToken token = parser.nextToken();
+            if (IP_FIELD.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                ip = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return ip;
+    }
+
+    /**
+     * Reads a WAN interface object, consuming the whole object; the parser is expected
+     * to be positioned on its {@link JsonToken#START_OBJECT} token.
+     */
+    private static UdmDeviceUplink.Wan readWan(
+            final JsonParser parser) throws IOException {
+        final UdmDeviceUplink.Wan.Builder builder = new UdmDeviceUplink.Wan.Builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            final JsonToken token = parser.nextToken();
+            if (WAN_IF_NAME_FIELD.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                builder.setIfName(parser.getText());
+            } else if (WAN_IP_FIELD.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                builder.setIp(parser.getText());
+            } else if (WAN_UP_FIELD.equals(fieldName) && token.isBoolean()) {
+                builder.setUp(parser.getBooleanValue());
+            } else if (WAN_IPV6_FIELD.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                final ImmutableList.Builder<String> ipv6 = ImmutableList.builder();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                        ipv6.add(parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                builder.setIpv6(ipv6.build());
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return builder.build();
+    }
+
+}
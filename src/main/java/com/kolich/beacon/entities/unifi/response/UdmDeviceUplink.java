@@ -29,22 +29,122 @@ package com.kolich.beacon.entities.unifi.response;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.InetAddresses;
 
+import javax.annotation.Nullable;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The uplink of a gateway device: the IP of the WAN it's currently using, and every one of
+ * its WAN interfaces, keyed by name, e.g., <code>wan1</code> and <code>wan2</code>.
+ */
 @JsonDeserialize(builder = UdmDeviceUplink.Builder.class)
 public interface UdmDeviceUplink {
 
+    /**
+     * The IPv4 address of the WAN the gateway is currently using.
+     */
     @JsonProperty("ip")
     String getIp();
 
+    /**
+     * Gateways report their WAN interfaces as top-level device fields, next to the uplink.
+     */
+    @JsonIgnore
+    Map<String, Wan> getWans();
+
+    /**
+     * Returns the name of the WAN the gateway is currently using: the WAN with the uplink IP,
+     * or else the first WAN that's up. Returns null if the gateway reported no such WAN.
+     */
+    @Nullable
+    @JsonIgnore
+    default String getActiveWanName() {
+        String firstUp = null;
+        for (final Map.Entry<String, Wan> wan : getWans().entrySet()) {
+            if (getIp().equals(wan.getValue().getIp())) {
+                return wan.getKey();
+            } else if (firstUp == null && wan.getValue().isUp()) {
+                firstUp = wan.getKey();
+            }
+        }
+
+        return firstUp;
+    }
+
+    /**
+     * Returns the first global IPv6 address of the WAN the gateway is currently using, or
+     * null if it has none, or didn't report its IPv6 addresses at all; tell the two apart
+     * with {@link #isIpv6Reported()}. Link-local and unique local addresses are never returned.
+     */
+    @Nullable
+    @JsonIgnore
+    default String getIpv6() {
+        final String activeWanName = getActiveWanName();
+        if (activeWanName == null) {
+            return null;
+        }
+
+        for (final String ipv6 : getWans().get(activeWanName).getIpv6()) {
+            // Addresses may be reported with their prefix length, e.g., "2001:db8::1/64".
+            final int prefixIndex = ipv6.indexOf('/');
+            final String address = (prefixIndex < 0) ? ipv6 : ipv6.substring(0, prefixIndex);
+            if (isGlobalIpv6(address)) {
+                return InetAddresses.toAddrString(InetAddresses.forString(address));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns true if the WAN the gateway is currently using reported its IPv6 addresses,
+     * even if none of them; only then does a null {@link #getIpv6()} mean the WAN really
+     * has no global IPv6 address.
+     */
+    @JsonIgnore
+    default boolean isIpv6Reported() {
+        final String activeWanName = getActiveWanName();
+        return activeWanName != null && getWans().get(activeWanName).isIpv6Reported();
+    }
+
     @JsonIgnore
     default Builder toBuilder() {
-        return new UdmDeviceUplink.Builder()
+        final Builder builder = new UdmDeviceUplink.Builder()
                 .setIp(getIp());
+        getWans().forEach(builder::addWan);
+        return builder;
+    }
+
+    private static boolean isGlobalIpv6(
+            final String address) {
+        if (!InetAddresses.isInetAddress(address)) {
+            return false;
+        }
+
+        final InetAddress inetAddress = InetAddresses.forString(address);
+        if (!(inetAddress instanceof Inet6Address)) {
+            return false;
+        }
+
+        // Unique local addresses (fc00::/7) aren't routable on the internet either.
+        final boolean uniqueLocal = (inetAddress.getAddress()[0] & 0xfe) == 0xfc;
+        return !inetAddress.isLinkLocalAddress() && !inetAddress.isSiteLocalAddress()
+                && !inetAddress.isLoopbackAddress() && !inetAddress.isAnyLocalAddress()
+                && !inetAddress.isMulticastAddress() && !uniqueLocal;
     }
 
     final class Builder {
 
         private String ip_;
+        private final ImmutableMap.Builder<String, Wan> wans_ = ImmutableMap.builder();
 
         @JsonProperty("ip")
         public Builder setIp(
@@ -53,8 +153,144 @@ public interface UdmDeviceUplink {
             return this;
         }
 
+        public Builder addWan(
+                final String name,
+                final Wan wan) {
+            wans_.put(name, wan);
+            return this;
+        }
+
         public UdmDeviceUplink build() {
-            return () -> ip_;
+            checkNotNull(ip_, "Uplink IP cannot be null.");
+
+            final Map<String, Wan> wans = wans_.build();
+            return new UdmDeviceUplink() {
+                @Override
+                public String getIp() {
+                    return ip_;
+                }
+
+                @Override
+                public Map<String, Wan> getWans() {
+                    return wans;
+                }
+            };
+        }
+
+    }
+
+    /**
+     * A WAN interface of a gateway device, e.g., the <code>wan1</code> or <code>wan2</code>
+     * object of a UDM in the <code>stat/device</code> API response.
+     */
+    @JsonDeserialize(builder = Wan.Builder.class)
+    interface Wan {
+
+        /**
+         * The name of the network interface, e.g., <code>eth8</code>.
+         */
+        @Nullable
+        @JsonProperty("ifname")
+        String getIfName();
+
+        @Nullable
+        @JsonProperty("ip")
+        String getIp();
+
+        @JsonProperty("up")
+        boolean isUp();
+
+        /**
+         * Every IPv6 address of the interface, global and link-local alike; empty if the
+         * interface has none, or didn't report any.
+         */
+        @JsonProperty("ipv6")
+        List<String> getIpv6();
+
+        /**
+         * Whether the interface reported its IPv6 addresses at all, i.e., whether an empty
+         * {@link #getIpv6()} means it has none rather than that they're unknown.
+         */
+        @JsonIgnore
+        boolean isIpv6Reported();
+
+        @JsonIgnore
+        default Builder toBuilder() {
+            return new Wan.Builder()
+                    .setIfName(getIfName())
+                    .setIp(getIp())
+                    .setUp(isUp())
+                    .setIpv6(isIpv6Reported() ? getIpv6() : null);
+        }
+
+        final class Builder {
+
+            private String ifName_;
+            private String ip_;
+            private boolean up_;
+            private List<String> ipv6_ = ImmutableList.of();
+            private boolean ipv6Reported_ = false;
+
+            @JsonProperty("ifname")
+            public Builder setIfName(
+                    final String ifName) {
+                ifName_ = ifName;
+                return this;
+            }
+
+            @JsonProperty("ip")
+            public Builder setIp(
+                    final String ip) {
+                ip_ = ip;
+                return this;
+            }
+
+            @JsonProperty("up")
+            public Builder setUp(
+                    final boolean up) {
+                up_ = up;
+                return this;
+            }
+
+            @JsonProperty("ipv6")
+            public Builder setIpv6(
+                    final List<String> ipv6) {
+                ipv6_ = (ipv6 == null) ? ImmutableList.of() : ImmutableList.copyOf(ipv6);
+                ipv6Reported_ = (ipv6 != null);
+                return this;
+            }
+
+            public Wan build() {
+                return new Wan() {
+                    @Nullable
+                    @Override
+                    public String getIfName() {
+                        return ifName_;
+                    }
+
+                    @Nullable
+                    @Override
+                    public String getIp() {
+                        return ip_;
+                    }
+
+                    @Override
+                    public boolean isUp() {
+                        return up_;
+                    }
+
+                    @Override
+                    public List<String> getIpv6() {
+                        return ipv6_;
+                    }
+
+                    @Override
+                    public boolean isIpv6Reported() {
+                        return ipv6Reported_;
+                    }
+                };
+            }
+
         }
 
     }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.unifi.response;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A streaming reader for the messages of the UniFi controller event stream (websocket).
+ *
+ * Every message carries a <code>data</code> array of either events, e.g., a WAN transition
+ * keyed <code>EVT_GW_WANTransition</code>, or of device updates, e.g., a <code>device:sync</code>
+ * of the gateway with its current uplink. The controller sends many such messages, most of
+ * which are of no interest, so the reader stops as soon as it has found a sign that the
+ * uplink of the gateway may have changed, and otherwise skips over everything else.
+ */
+public final class UdmEventReader {
+
+    private static final String DATA_FIELD = "data";
+    private static final String KEY_FIELD = "key";
+    private static final String UPLINK_FIELD = "uplink";
+
+    // Cannot instantiate
+    private UdmEventReader() {
+    }
+
+    /**
+     * Reads a single event stream message, looking for a sign that the uplink of the gateway
+     * may have changed: an event with one of the given keys, or an update of the gateway whose
+     * uplink IP differs from the known uplink IP.
+     *
+     * @param parser a parser positioned before the start of the message
+     * @param matchField name of the device field used to pick the gateway, e.g., "mac" or "type"
+     * @param matcher predicate applied to the value of the match field
+     * @param uplinkEventKeys keys of the events that signal a change of the uplink
+     * @param knownUplinkIp the last known uplink IP of the gateway, or null if none is known
+     * @return a short description of the first sign of an uplink change found in the message,
+     * or null if there was none
+     */
+    @Nullable
+    public static String readUplinkChange(
+            final JsonParser parser,
+            final String matchField,
+            final Predicate<String> matcher,
+            final Set<String> uplinkEventKeys,
+            @Nullable final String knownUplinkIp) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected event stream message to start with an object.");
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            final JsonToken token = parser.nextToken();
+            if (DATA_FIELD.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    final String change = readItemUplinkChange(parser, matchField, matcher,
+                            uplinkEventKeys, knownUplinkIp);
+                    if (change != null) {
+                        // Found one; intentionally stop reading here and ignore the rest of the message.
+                        return change;
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads a single event or device object; the parser is expected to be positioned on its
+     * {@link JsonToken#START_OBJECT} token. Always consumes the whole object.
+     */
+    @Nullable
+    private static String readItemUplinkChange(
+            final JsonParser parser,
+            final String matchField,
+            final Predicate<String> matcher,
+            final Set<String> uplinkEventKeys,
+            @Nullable final String knownUplinkIp) throws IOException {
+        String eventKey = null;
+        boolean matched = false;
+        String uplinkIp = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            final JsonToken token = parser.nextToken();
+            if (KEY_FIELD.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                eventKey = parser.getText();
+            } else if (matchField.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                matched = matcher.test(parser.getText());
+            } else if (UPLINK_FIELD.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                uplinkIp = UdmDeviceStatReader.readIp(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (eventKey != null && uplinkEventKeys.contains(eventKey)) {
+            return "event " + eventKey;
+        } else if (matched && uplinkIp != null && !uplinkIp.equals(knownUplinkIp)) {
+            return "gateway uplink " + uplinkIp;
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.unifi.response;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * A streaming reader for the UniFi controller <code>stat/health</code> API response,
+ * which lists the health of each subsystem on the site. Only the "wan" subsystem is
+ * of interest; reading stops as soon as its WAN IP has been found.
+ */
+public final class UdmHealthReader {
+
+    private static final String DATA_FIELD = "data";
+    private static final String SUBSYSTEM_FIELD = "subsystem";
+    private static final String WAN_IP_FIELD = "wan_ip";
+
+    private static final String WAN_SUBSYSTEM = "wan";
+
+    // Cannot instantiate
+    private UdmHealthReader() {
+    }
+
+    /**
+     * Reads the WAN IP from the "wan" subsystem of the site health.
+     *
+     * @param parser a parser positioned before the start of the response
+     * @return the WAN IP, or null if the response has no "wan" subsystem with an IP
+     */
+    @Nullable
+    public static String readWanIp(
+            final JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected health response to start with an object.");
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            final JsonToken token = parser.nextToken();
+            if (DATA_FIELD.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    final String wanIp = readSubsystemWanIp(parser);
+                    if (wanIp != null) {
+                        return wanIp;
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private static String readSubsystemWanIp(
+            final JsonParser parser) throws IOException {
+        Boolean wan = null;
+        String wanIp = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            final JsonToken token = parser.nextToken();
+            if (Boolean.FALSE.equals(wan)) {
+                parser.skipChildren();
+            } else if (SUBSYSTEM_FIELD.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                wan = WAN_SUBSYSTEM.equals(parser.getText());
+            } else if (WAN_IP_FIELD.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                wanIp = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+
+            if (Boolean.TRUE.equals(wan) && wanIp != null) {
+                return wanIp;
+            }
+        }
+
+        return null;
+    }
+
+}
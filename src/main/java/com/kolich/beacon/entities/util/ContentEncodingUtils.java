@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.kolich.beacon.exceptions.BeaconException;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPOutputStream;
+
+public final class ContentEncodingUtils {
+
+    /**
+     * The value of the <code>Content-Encoding</code> response header for gzip'ed bodies.
+     */
+    public static final String GZIP = "gzip";
+
+    /**
+     * Bodies smaller than this are always sent as-is; the gzip header and trailer alone
+     * would eat most, if not all, of the savings.
+     */
+    public static final int MIN_COMPRESSIBLE_SIZE = 512;
+
+    private static final String X_GZIP = "x-gzip";
+    private static final String WILDCARD = "*";
+    private static final String QUALITY_PARAM = "q=";
+
+    /**
+     * The maximum number of gzip'ed bodies held in the cache. Rendered pages are small and
+     * almost always identical, so a handful of entries covers the working set.
+     */
+    private static final int GZIP_CACHE_MAX_SIZE = 64;
+
+    /**
+     * Gzip'ed bodies keyed by the SHA-256 hash of their uncompressed form, such that each
+     * distinct body is compressed once; least recently used entries are evicted first.
+     */
+    private static final Cache<HashCode, byte[]> GZIP_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(GZIP_CACHE_MAX_SIZE)
+            .recordStats()
+            .build();
+
+    // Cannot instantiate
+    private ContentEncodingUtils() {
+    }
+
+    /**
+     * Returns true if the given <code>Accept-Encoding</code> request header value accepts
+     * gzip, either explicitly or through a wildcard, with a non-zero quality.
+     */
+    public static boolean acceptsGzip(
+            @Nullable final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        double gzipQuality = -1.0d;
+        double wildcardQuality = -1.0d;
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] params = coding.split(";");
+            final String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0d;
+            for (int i = 1; i < params.length; i++) {
+                final String param = params[i].trim();
+                if (param.startsWith(QUALITY_PARAM)) {
+                    try {
+                        quality = Double.parseDouble(param.substring(QUALITY_PARAM.length()));
+                    } catch (final NumberFormatException e) {
+                        quality = 0.0d;
+                    }
+                }
+            }
+
+            if (GZIP.equals(name) || X_GZIP.equals(name)) {
+                gzipQuality = quality;
+            } else if (WILDCARD.equals(name)) {
+                wildcardQuality = quality;
+            }
+        }
+
+        return gzipQuality > 0.0d || (gzipQuality < 0.0d && wildcardQuality > 0.0d);
+    }
+
+    /**
+     * Gzip's the first <code>length</code> bytes of the given body.
+     */
+    public static byte[] gzip(
+            final byte[] body,
+            final int length) {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream(length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(os)) {
+            gzip.write(body, 0, length);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return os.toByteArray();
+    }
+
+    /**
+     * Gzip's the first <code>length</code> bytes of the given body, or returns the cached
+     * result of having done so for an identical body before. The returned array is shared,
+     * and must not be modified.
+     */
+    public static byte[] gzipCached(
+            final byte[] body,
+            final int length) {
+        final HashCode key = Hashing.sha256().hashBytes(body, 0, length);
+        try {
+            return GZIP_CACHE.get(key, () -> gzip(body, length));
+        } catch (final ExecutionException e) {
+            throw new BeaconException("Failed to gzip body.", e);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss and eviction counters of the gzip cache.
+     */
+    public static CacheStats getGzipCacheStats() {
+        return GZIP_CACHE.stats();
+    }
+
+}
@@ -26,24 +26,30 @@
 
 package com.kolich.beacon.entities.util;
 
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableList;
+import com.googlecode.htmlcompressor.compressor.HtmlCompressor;
+import com.googlecode.htmlcompressor.compressor.YuiJavaScriptCompressor;
 
-import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.List;
 
 public final class HtmlUtils {
 
     /**
-     * A pre-compiled set of {@link Pattern}'s used to "compress" strings of HTML
-     * by removing whitespace, new lines, and other useless whitespace formatting
-     * characters.  Pre-compiling the patterns ideally performs better than running
-     * through a bunch of chained {@link String#replaceAll(String, String)} calls.
+     * Elements whose bodies are whitespace sensitive, and so are copied through
+     * {@link #minify(String)} verbatim, from their opening tag through their closing tag.
      */
-    private static final Set<Pattern> HTML_COMPRESSOR_PATTERNS = ImmutableSet.of(
-            Pattern.compile("^[\\x20\\t]+"),
-            Pattern.compile("[\\x20\\t]+$"),
-            Pattern.compile("\\s*(\\r\\n|\\n)+\\s*"),
-            Pattern.compile("^[\\r\\n]+"));
+    private static final List<String> PRESERVED_ELEMENTS = ImmutableList.of("pre", "textarea", "script");
+
+    /**
+     * Builders larger than this are not retained by {@link #BUILDER} between calls, such that
+     * a single large document doesn't pin a large buffer to the thread forever.
+     */
+    private static final int MAX_RETAINED_BUILDER_CAPACITY = 1024 * 1024; // 1MiB
+
+    /**
+     * A reusable per-thread builder that {@link #minify(String)} writes its output into.
+     */
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(StringBuilder::new);
 
     // Cannot instantiate
     private HtmlUtils() {
@@ -51,17 +57,166 @@ public final class HtmlUtils {
 
     /**
      * Strips whitespace and other non-printable HTML characters between tags.
+     *
+     * This is a single pass equivalent of applying, in order, the patterns
+     * <code>^[\x20\t]+</code>, <code>[\x20\t]+$</code>, <code>\s*(\r\n|\n)+\s*</code>
+     * and <code>^[\r\n]+</code>: leading spaces and tabs are removed, as are the spaces and
+     * tabs at the end of the input (or before its final line terminator), every run of
+     * whitespace containing a new line is removed, and any leading carriage returns left
+     * over are removed. The bodies of <code>&lt;pre&gt;</code>, <code>&lt;textarea&gt;</code>
+     * and <code>&lt;script&gt;</code> elements are preserved as-is.
+     *
      * @param uncompressed the string to minify
      * @return the minified response
      */
     public static String minify(
             final String uncompressed) {
-        String stripped = uncompressed;
-        for (final Pattern p : HTML_COMPRESSOR_PATTERNS) {
-            stripped = p.matcher(stripped).replaceAll("");
+        final int length = uncompressed.length();
+
+        // Leading spaces and tabs.
+        int start = 0;
+        while (start < length && isSpaceOrTab(uncompressed.charAt(start))) {
+            start++;
+        }
+
+        // The run of spaces and tabs at the end of the input, or before its final line terminator.
+        final int trailingEnd = getEndOfInputIndex(uncompressed, start);
+        int trailingStart = trailingEnd;
+        while (trailingStart > start && isSpaceOrTab(uncompressed.charAt(trailingStart - 1))) {
+            trailingStart--;
+        }
+
+        final StringBuilder sb = getBuilder(length - start);
+        int index = start;
+        while (index < length) {
+            final char ch = uncompressed.charAt(index);
+            if (isWhitespace(ch)) {
+                // Find the end of this run of whitespace, and if it contains a new line.
+                int runEnd = index;
+                boolean hasNewLine = false;
+                while (runEnd < length && isWhitespace(uncompressed.charAt(runEnd))) {
+                    hasNewLine |= uncompressed.charAt(runEnd) == '\n';
+                    runEnd++;
+                }
+
+                // Runs containing a new line are dropped entirely; others are kept, less any
+                // trailing spaces and tabs and any carriage returns that would lead the output.
+                if (!hasNewLine) {
+                    for (int j = index; j < runEnd; j++) {
+                        final char ws = uncompressed.charAt(j);
+                        if ((j >= trailingStart && j < trailingEnd) || (ws == '\r' && sb.length() == 0)) {
+                            continue;
+                        }
+                        sb.append(ws);
+                    }
+                }
+                index = runEnd;
+            } else {
+                final int preservedEnd = (ch == '<') ? getPreservedElementEnd(uncompressed, index) : -1;
+                if (preservedEnd > 0) {
+                    sb.append(uncompressed, index, preservedEnd);
+                    index = preservedEnd;
+                } else {
+                    sb.append(ch);
+                    index++;
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns a new {@link HtmlCompressor} that compresses script blocks and strips out
+     * HTML comments and other junk. Compressors are not safe for concurrent use.
+     */
+    public static HtmlCompressor newHtmlCompressor() {
+        final HtmlCompressor compressor = new HtmlCompressor();
+        compressor.setJavaScriptCompressor(new YuiJavaScriptCompressor());
+        compressor.setCompressJavaScript(true);
+        return compressor;
+    }
+
+    /**
+     * Returns the index at which <code>$</code> matches in the input, starting at the given
+     * index: before a final <code>\r\n</code> or other final line terminator, else at the end.
+     */
+    private static int getEndOfInputIndex(
+            final String input,
+            final int start) {
+        final int length = input.length();
+        if (length - start >= 2 && input.charAt(length - 2) == '\r' && input.charAt(length - 1) == '\n') {
+            return length - 2;
+        } else if (length > start && isLineTerminator(input.charAt(length - 1))) {
+            return length - 1;
         }
 
-        return stripped;
+        return length;
+    }
+
+    /**
+     * If a preserved element opens at the given index, returns the index just past its
+     * closing tag. Returns -1 otherwise, or if the element is never closed.
+     */
+    private static int getPreservedElementEnd(
+            final String input,
+            final int index) {
+        for (final String element : PRESERVED_ELEMENTS) {
+            final int nameEnd = index + 1 + element.length();
+            if (!input.regionMatches(true, index + 1, element, 0, element.length())
+                    || nameEnd >= input.length() || !isTagNameEnd(input.charAt(nameEnd))) {
+                continue;
+            }
+
+            // Find the matching closing tag, e.g., </script>
+            int close = input.indexOf("</", nameEnd);
+            while (close >= 0) {
+                if (input.regionMatches(true, close + 2, element, 0, element.length())) {
+                    final int closeEnd = input.indexOf('>', close + 2 + element.length());
+                    return (closeEnd < 0) ? -1 : closeEnd + 1;
+                }
+                close = input.indexOf("</", close + 2);
+            }
+
+            return -1;
+        }
+
+        return -1;
+    }
+
+    private static StringBuilder getBuilder(
+            final int capacity) {
+        StringBuilder sb = BUILDER.get();
+        if (sb.capacity() > MAX_RETAINED_BUILDER_CAPACITY) {
+            sb = new StringBuilder(capacity);
+            BUILDER.set(sb);
+        }
+        sb.setLength(0);
+        sb.ensureCapacity(capacity);
+        return sb;
+    }
+
+    /**
+     * Equivalent to the <code>\s</code> character class: <code>[ \t\n\x0B\f\r]</code>.
+     */
+    private static boolean isWhitespace(
+            final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isSpaceOrTab(
+            final char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static boolean isLineTerminator(
+            final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean isTagNameEnd(
+            final char c) {
+        return c == '>' || c == '/' || isWhitespace(c);
     }
 
 }
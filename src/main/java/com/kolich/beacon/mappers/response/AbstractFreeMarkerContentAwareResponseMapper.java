@@ -26,13 +26,19 @@
 
 package com.kolich.beacon.mappers.response;
 
+import com.google.common.net.HttpHeaders;
 import com.kolich.beacon.components.freemarker.FreeMarkerContentToString;
 import com.kolich.beacon.entities.freemarker.FreeMarkerContent;
+import com.kolich.beacon.entities.freemarker.HtmlCompressingWriter;
+import com.kolich.beacon.entities.freemarker.Utf8ResponseBuffer;
 import com.kolich.beacon.entities.freemarker.Utf8TextEntity;
+import com.kolich.beacon.entities.util.ContentEncodingUtils;
+import curacao.core.servlet.AsyncContext;
 import curacao.core.servlet.HttpResponse;
 import curacao.mappers.response.AbstractControllerReturnTypeMapper;
 
 import javax.annotation.Nonnull;
+import java.io.Writer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -47,10 +53,41 @@ public abstract class AbstractFreeMarkerContentAwareResponseMapper<T>
     }
 
     protected final void renderFreeMarkerContent(
+            final AsyncContext context,
             final HttpResponse response,
             final FreeMarkerContent content) throws Exception {
-        final String rendered = fmContentToString_.contentToString(content);
-        renderEntity(response, new Utf8TextEntity(content.getEntityType(), content.getStatus(), rendered));
+        final Utf8TextEntity.EntityType entityType = content.getEntityType();
+        final boolean compress = entityType.isCompressable() && !fmContentToString_.isPrecompressed(content);
+
+        // Render straight into a pooled buffer, encoding to UTF-8 once, and write that buffer
+        // as-is with an exact Content-Length.
+        try (Utf8ResponseBuffer buffer = Utf8ResponseBuffer.acquire()) {
+            if (compress) {
+                try (Writer writer = new HtmlCompressingWriter(buffer.getWriter())) {
+                    fmContentToString_.contentToWriter(content, writer);
+                }
+            } else {
+                fmContentToString_.contentToWriter(content, buffer.getWriter());
+            }
+
+            final byte[] body = buffer.getBytes();
+            final int size = buffer.size();
+
+            // Large enough bodies are gzip'ed, once per distinct body, for clients that accept it.
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            final Utf8TextEntity entity;
+            if (size >= ContentEncodingUtils.MIN_COMPRESSIBLE_SIZE && ContentEncodingUtils.acceptsGzip(
+                    context.getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                final byte[] gzipped = ContentEncodingUtils.gzipCached(body, size);
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, ContentEncodingUtils.GZIP);
+                entity = new Utf8TextEntity(entityType, content.getStatus(), gzipped, gzipped.length);
+            } else {
+                entity = new Utf8TextEntity(entityType, content.getStatus(), body, size);
+            }
+
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(entity.getContentLength()));
+            renderEntity(response, entity);
+        }
     }
 
 }
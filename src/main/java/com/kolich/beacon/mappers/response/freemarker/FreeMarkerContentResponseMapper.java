@@ -56,7 +56,7 @@ public final class FreeMarkerContentResponseMapper
             final AsyncContext context,
             final HttpResponse response,
             @Nonnull final FreeMarkerContent content) throws Exception {
-        renderFreeMarkerContent(response, content);
+        renderFreeMarkerContent(context, response, content);
     }
 
 }
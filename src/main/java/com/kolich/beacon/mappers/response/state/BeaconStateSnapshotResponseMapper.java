@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.mappers.response.state;
+
+import com.google.common.net.HttpHeaders;
+import com.kolich.beacon.entities.BeaconStateSnapshot;
+import com.kolich.beacon.entities.ByteArrayEntity;
+import com.kolich.beacon.entities.util.ContentEncodingUtils;
+import curacao.annotations.Mapper;
+import curacao.core.servlet.AsyncContext;
+import curacao.core.servlet.HttpRequest;
+import curacao.core.servlet.HttpResponse;
+import curacao.mappers.response.AbstractControllerReturnTypeMapper;
+
+import javax.annotation.Nonnull;
+
+import static jakarta.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
+
+@Mapper
+public final class BeaconStateSnapshotResponseMapper
+        extends AbstractControllerReturnTypeMapper<BeaconStateSnapshot> {
+
+    /**
+     * Clients may cache the state, but must revalidate it on every use.
+     */
+    private static final String CACHE_CONTROL_NO_CACHE = "no-cache";
+
+    @Override
+    public void render(
+            final AsyncContext context,
+            final HttpResponse response,
+            @Nonnull final BeaconStateSnapshot snapshot) throws Exception {
+        final HttpRequest request = context.getRequest();
+        final boolean gzip = snapshot.hasGzipVariant()
+                && ContentEncodingUtils.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, gzip ? snapshot.getGzipETag() : snapshot.getETag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_NO_CACHE);
+
+        final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (snapshot.matches(ifNoneMatch)) {
+            response.setStatus(SC_NOT_MODIFIED);
+            return;
+        }
+
+        if (gzip) {
+            final ByteArrayEntity entity = snapshot.toGzipEntity();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, ContentEncodingUtils.GZIP);
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(entity.getContentLength()));
+            renderEntity(response, entity);
+        } else {
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(snapshot.getContentLength()));
+            renderEntity(response, snapshot);
+        }
+    }
+
+}
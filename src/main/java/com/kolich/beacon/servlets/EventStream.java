@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.servlets;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A Server-Sent Events (SSE) stream broadcast to every subscribed client.
+ *
+ * Each event is encoded exactly once and the same bytes are handed to every subscriber.
+ * Subscribers are written to with non-blocking servlet I/O, so a slow client never ties
+ * up a thread; instead, each subscriber has a small bounded queue of pending events and
+ * once that queue is full the oldest pending event is dropped. Every event carries the
+ * full state, so a slow client that misses intermediate events still converges on the
+ * latest one. A shared single thread sends periodic heartbeats (SSE comments) to keep
+ * idle connections open through proxies and the server idle timeout.
+ */
+public final class EventStream extends AbstractLifeCycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventStream.class);
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final String EVENT_FORMAT = "event: %s\ndata: %s\n\n";
+
+    private final int subscriberQueueSize_;
+    private final long heartbeatIntervalInMs_;
+
+    private final Set<Subscriber> subscribers_ = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The most recently published event, sent to new subscribers as soon as they connect.
+     */
+    private volatile byte[] lastEvent_;
+
+    private ScheduledExecutorService heartbeatExecutor_;
+
+    public EventStream(
+            final int subscriberQueueSize,
+            final long heartbeatIntervalInMs) {
+        subscriberQueueSize_ = subscriberQueueSize;
+        heartbeatIntervalInMs_ = heartbeatIntervalInMs;
+    }
+
+    /**
+     * Publishes an event to every subscriber.
+     *
+     * @param event the name of the event
+     * @param data the event data; must be a single line (e.g., compact JSON)
+     */
+    public void publish(
+            final String event,
+            final String data) {
+        checkNotNull(event, "Event name cannot be null.");
+        checkNotNull(data, "Event data cannot be null.");
+
+        final byte[] encoded = String.format(EVENT_FORMAT, event, data).getBytes(StandardCharsets.UTF_8);
+        lastEvent_ = encoded;
+        broadcast(encoded);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers_.size();
+    }
+
+    /**
+     * Subscribes the client of an already started, asynchronous request to this stream.
+     */
+    public void subscribe(
+            final AsyncContext asyncContext) throws IOException {
+        final Subscriber subscriber = new Subscriber(asyncContext, subscriberQueueSize_);
+        asyncContext.addListener(subscriber);
+        // Switches the output stream into non-blocking mode; from here on the container
+        // calls back into the subscriber whenever it becomes writable.
+        subscriber.getOutputStream().setWriteListener(subscriber);
+        subscribers_.add(subscriber);
+
+        final byte[] lastEvent = lastEvent_;
+        if (lastEvent != null) {
+            subscriber.offer(lastEvent);
+            subscriber.drain();
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        heartbeatExecutor_ = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("beacon-event-stream-%d")
+                .setDaemon(true)
+                .build());
+        heartbeatExecutor_.scheduleAtFixedRate(() -> broadcast(HEARTBEAT),
+                heartbeatIntervalInMs_, heartbeatIntervalInMs_, TimeUnit.MILLISECONDS);
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        heartbeatExecutor_.shutdownNow();
+        for (final Subscriber subscriber : subscribers_) {
+            subscriber.close();
+        }
+        super.doStop();
+    }
+
+    private void broadcast(
+            final byte[] encoded) {
+        for (final Subscriber subscriber : subscribers_) {
+            subscriber.offer(encoded);
+            subscriber.drain();
+        }
+    }
+
+    private final class Subscriber implements AsyncListener, WriteListener {
+
+        private final AsyncContext asyncContext_;
+        private final ServletOutputStream outputStream_;
+
+        private final BlockingQueue<byte[]> queue_;
+
+        private Subscriber(
+                final AsyncContext asyncContext,
+                final int queueSize) throws IOException {
+            asyncContext_ = asyncContext;
+            outputStream_ = asyncContext.getResponse().getOutputStream();
+            queue_ = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        public ServletOutputStream getOutputStream() {
+            return outputStream_;
+        }
+
+        public void offer(
+                final byte[] encoded) {
+            // Bounded; if the subscriber can't keep up, drop the oldest pending event.
+            while (!queue_.offer(encoded)) {
+                queue_.poll();
+            }
+        }
+
+        /**
+         * Writes as many queued events as the container will accept without blocking. When
+         * the output stream isn't ready, the container invokes {@link #onWritePossible()}
+         * once it is, which resumes draining.
+         */
+        public synchronized void drain() {
+            try {
+                while (outputStream_.isReady()) {
+                    final byte[] next = queue_.poll();
+                    if (next == null) {
+                        return;
+                    }
+
+                    outputStream_.write(next);
+                    if (outputStream_.isReady()) {
+                        outputStream_.flush();
+                    }
+                }
+            } catch (final Exception e) {
+                LOG.debug("Failed to write to event stream subscriber; closing.", e);
+                close();
+            }
+        }
+
+        public void close() {
+            if (subscribers_.remove(this)) {
+                try {
+                    asyncContext_.complete();
+                } catch (final Exception e) {
+                    LOG.debug("Failed to complete event stream subscriber.", e);
+                }
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            drain();
+        }
+
+        @Override
+        public void onError(
+                final Throwable t) {
+            close();
+        }
+
+        @Override
+        public void onError(
+                final AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onComplete(
+                final AsyncEvent event) {
+            subscribers_.remove(this);
+        }
+
+        @Override
+        public void onTimeout(
+                final AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(
+                final AsyncEvent event) {
+            // No-op, intentional.
+        }
+
+    }
+
+}
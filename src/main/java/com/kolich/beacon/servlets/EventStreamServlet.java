@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.servlets;
+
+import com.google.common.net.HttpHeaders;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Subscribes clients to an {@link EventStream} over Server-Sent Events. Requests are put
+ * into asynchronous mode and handed off to the stream, so no thread is held per client.
+ */
+public final class EventStreamServlet extends HttpServlet {
+
+    private static final String TEXT_EVENT_STREAM = "text/event-stream";
+
+    private static final String X_ACCEL_BUFFERING = "X-Accel-Buffering";
+
+    private final transient EventStream eventStream_;
+
+    public EventStreamServlet(
+            final EventStream eventStream) {
+        eventStream_ = checkNotNull(eventStream, "Event stream cannot be null.");
+    }
+
+    @Override
+    protected void doGet(
+            final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(TEXT_EVENT_STREAM);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Disables response buffering in nginx, should Beacon sit behind it.
+        response.setHeader(X_ACCEL_BUFFERING, "no");
+        response.flushBuffer();
+
+        final AsyncContext asyncContext = request.startAsync();
+        // The stream is open-ended; subscribers are removed when the client goes away.
+        asyncContext.setTimeout(0L);
+        eventStream_.subscribe(asyncContext);
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.servlets;
+
+import com.google.common.net.HttpHeaders;
+import com.kolich.beacon.components.assets.BeaconStaticAssets;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.util.resource.Resource;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Sets the <code>Cache-Control</code> header of static assets. Only a request for the current
+ * fingerprint of an asset, as resolved by {@link BeaconStaticAssets#getUrl(String)}, is cached
+ * forever; what's behind that URL never changes. Any other request, without a fingerprint or
+ * with a stale one, gets whatever the asset is now, and so is only cached briefly.
+ */
+public final class StaticCacheControlFilter extends HttpFilter {
+
+    private static final String FINGERPRINT_PARAM = "v";
+
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String SHORT_CACHE_CONTROL = "public, max-age=300";
+
+    private final transient Resource staticResource_;
+
+    /**
+     * The fingerprint of each asset requested so far, as of the last modified time of the asset.
+     * Assets are only ever edited in place in dev mode.
+     */
+    private final transient ConcurrentMap<String, Fingerprint> fingerprints_ = new ConcurrentHashMap<>();
+
+    public StaticCacheControlFilter(
+            final Resource staticResource) {
+        staticResource_ = checkNotNull(staticResource, "Static resource cannot be null.");
+    }
+
+    @Override
+    protected void doFilter(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final FilterChain chain) throws IOException, ServletException {
+        final String fingerprint = request.getParameter(FINGERPRINT_PARAM);
+        final boolean current = fingerprint != null && fingerprint.equals(getFingerprint(request.getPathInfo()));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, current ? IMMUTABLE_CACHE_CONTROL : SHORT_CACHE_CONTROL);
+
+        chain.doFilter(request, response);
+    }
+
+    @Nullable
+    private String getFingerprint(
+            @Nullable final String assetPath) {
+        if (assetPath == null) {
+            return null;
+        }
+
+        try {
+            final Resource asset = staticResource_.addPath(assetPath);
+            final long lastModified = asset.lastModified();
+            final Fingerprint cached = fingerprints_.get(assetPath);
+            if (cached != null && cached.lastModified_ == lastModified) {
+                return cached.value_;
+            }
+
+            final String fingerprint = BeaconStaticAssets.fingerprint(asset);
+            if (fingerprint == null) {
+                return null;
+            }
+            fingerprints_.put(assetPath, new Fingerprint(lastModified, fingerprint));
+            return fingerprint;
+        } catch (final IOException e) {
+            // Includes paths that would resolve outside of the static directory.
+            return null;
+        }
+    }
+
+    private static final class Fingerprint {
+
+        private final long lastModified_;
+        private final String value_;
+
+        private Fingerprint(
+                final long lastModified,
+                final String value) {
+            lastModified_ = lastModified;
+            value_ = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+(function () {
+    "use strict";
+
+    var script = document.currentScript;
+
+    var fontsize = function () {
+        var h1 = document.querySelector("h1");
+        h1.style.fontSize = (document.body.clientWidth * 0.1) + "px";
+    };
+    window.addEventListener("resize", fontsize);
+    document.addEventListener("DOMContentLoaded", fontsize);
+
+    // Follow uplink IP changes pushed by the server instead of reloading the page.
+    if (window.EventSource && script && script.dataset.events) {
+        var events = new EventSource(script.dataset.events);
+        events.addEventListener("state", function (e) {
+            var ip = JSON.parse(e.data).uplinkIp || "null";
+            document.title = ip;
+            document.querySelector("h1").textContent = ip;
+            fontsize();
+        });
+    }
+})();
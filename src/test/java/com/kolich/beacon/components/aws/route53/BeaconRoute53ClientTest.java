@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.aws.route53;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class BeaconRoute53ClientTest {
+
+    private static final int JITTER_SAMPLES = 10_000;
+
+    @ParameterizedTest
+    @CsvSource({
+            // base, max, previous, upper bound
+            "100, 20000, 100, 300",
+            "100, 20000, 2000, 6000",
+            "100, 20000, 10000, 20000",
+            "100, 1000, 900, 1000",
+            "100, 20000, 10, 100",
+            "100, 100, 100, 100"
+    })
+    public void decorrelatedJitterStaysWithinBounds(
+            final long baseDelayInMs,
+            final long maxDelayInMs,
+            final long previousDelayInMs,
+            final long upperBoundInMs) {
+        for (int i = 0; i < JITTER_SAMPLES; i++) {
+            final long delayInMs =
+                    BeaconRoute53Client.getDecorrelatedJitterDelay(baseDelayInMs, maxDelayInMs, previousDelayInMs);
+            assertTrue(delayInMs >= baseDelayInMs && delayInMs <= upperBoundInMs,
+                    "Delay out of bounds [" + baseDelayInMs + ", " + upperBoundInMs + "]: " + delayInMs);
+        }
+    }
+
+    @Test
+    public void decorrelatedJitterSpansItsWholeRange() {
+        // Over a range of 21 delays, both ends come up in practically every run.
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < JITTER_SAMPLES; i++) {
+            final long delayInMs = BeaconRoute53Client.getDecorrelatedJitterDelay(100L, 20000L, 40L);
+            min = Math.min(min, delayInMs);
+            max = Math.max(max, delayInMs);
+        }
+
+        assertEquals(100L, min);
+        assertEquals(120L, max);
+    }
+
+}
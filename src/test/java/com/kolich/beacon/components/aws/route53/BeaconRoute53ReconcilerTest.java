@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.aws.route53;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.kolich.beacon.entities.aws.Route53DesiredRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.awssdk.services.route53.model.AliasTarget;
+import software.amazon.awssdk.services.route53.model.Change;
+import software.amazon.awssdk.services.route53.model.ChangeAction;
+import software.amazon.awssdk.services.route53.model.RRType;
+import software.amazon.awssdk.services.route53.model.ResourceRecord;
+import software.amazon.awssdk.services.route53.model.ResourceRecordSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class BeaconRoute53ReconcilerTest {
+
+    private static final String HOSTED_ZONE_ID = "Z0123456789ABCDEFGHIJ";
+
+    private static final String RECORD_NAME = "home.example.com";
+
+    private static final long TTL = 300L;
+
+    private static final String IPV4 = "203.0.113.10";
+    private static final String IPV6 = "2001:db8::1";
+
+    /**
+     * Current record sets of a desired A record, and whether each one is already up to date
+     * with the desired value.
+     */
+    private static Stream<Arguments> currentIpv4RecordSets() {
+        return Stream.of(
+                Arguments.of(recordSet(RECORD_NAME + ".", RRType.A, TTL, IPV4), true),
+                // Route53 returns names with a trailing dot, in any case.
+                Arguments.of(recordSet("HOME.example.com.", RRType.A, TTL, IPV4), true),
+                Arguments.of(null, false),
+                Arguments.of(recordSet(RECORD_NAME + ".", RRType.A, TTL, "203.0.113.11"), false),
+                Arguments.of(recordSet(RECORD_NAME + ".", RRType.A, 60L, IPV4), false),
+                Arguments.of(recordSet(RECORD_NAME + ".", RRType.A, TTL, IPV4, "203.0.113.11"), false),
+                Arguments.of(ResourceRecordSet.builder()
+                        .name(RECORD_NAME + ".")
+                        .type(RRType.A)
+                        .aliasTarget(AliasTarget.builder()
+                                .hostedZoneId(HOSTED_ZONE_ID)
+                                .dnsName("elb.example.com.")
+                                .evaluateTargetHealth(false)
+                                .build())
+                        .build(), false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("currentIpv4RecordSets")
+    public void upsertsOnlyOnRealDifference(
+            final ResourceRecordSet current,
+            final boolean upToDate) {
+        final Route53DesiredRecord record = desiredRecord(RECORD_NAME, RRType.A);
+        final List<Change> changes = toChanges(ImmutableList.of(record), current, ImmutableMap.of(RRType.A, IPV4));
+
+        if (upToDate) {
+            assertEquals(ImmutableList.of(), changes);
+        } else {
+            assertEquals(1, changes.size());
+            assertEquals(ChangeAction.UPSERT, changes.get(0).action());
+            assertEquals(recordSet(RECORD_NAME, RRType.A, TTL, IPV4), changes.get(0).resourceRecordSet());
+        }
+    }
+
+    /**
+     * Current values of a desired AAAA record, and whether each is the desired address.
+     */
+    private static Stream<Arguments> currentIpv6Values() {
+        return Stream.of(
+                Arguments.of("2001:db8::1", true),
+                Arguments.of("2001:DB8::1", true),
+                Arguments.of("2001:db8:0:0:0:0:0:1", true),
+                Arguments.of("2001:0db8:0000::0001", true),
+                Arguments.of("2001:db8::2", false),
+                Arguments.of("2001:db8:0:0:1::1", false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("currentIpv6Values")
+    public void comparesIpv6InCanonicalForm(
+            final String currentValue,
+            final boolean upToDate) {
+        final Route53DesiredRecord record = desiredRecord(RECORD_NAME, RRType.AAAA);
+        final List<Change> changes = toChanges(ImmutableList.of(record),
+                recordSet(RECORD_NAME + ".", RRType.AAAA, TTL, currentValue), ImmutableMap.of(RRType.AAAA, IPV6));
+
+        assertEquals(upToDate ? 0 : 1, changes.size());
+    }
+
+    @Test
+    public void deletesCurrentRecordSetAsIsWithoutValue() {
+        final Route53DesiredRecord record = desiredRecord(RECORD_NAME, RRType.AAAA);
+        final ResourceRecordSet current = recordSet(RECORD_NAME + ".", RRType.AAAA, 60L, "2001:db8::2");
+
+        final List<Change> changes = toChanges(ImmutableList.of(record), current, ImmutableMap.of(RRType.A, IPV4));
+
+        assertEquals(1, changes.size());
+        assertEquals(ChangeAction.DELETE, changes.get(0).action());
+        // A delete must match the current record set exactly, TTL and all.
+        assertSame(current, changes.get(0).resourceRecordSet());
+        // Nothing to delete if there's no current record set.
+        assertEquals(ImmutableList.of(), toChanges(ImmutableList.of(record), null, ImmutableMap.of(RRType.A, IPV4)));
+    }
+
+    @Test
+    public void keepsIpv4AndIpv6RecordsOfZoneInSameBatch() {
+        final List<Route53DesiredRecord> records = ImmutableList.of(
+                desiredRecord(RECORD_NAME, RRType.A),
+                desiredRecord(RECORD_NAME, RRType.AAAA),
+                desiredRecord("vpn.example.com", RRType.A),
+                desiredRecord("vpn.example.com", RRType.AAAA));
+
+        final List<Change> changes = toChanges(records, null, ImmutableMap.of(RRType.A, IPV4, RRType.AAAA, IPV6));
+        final List<List<Change>> batches = BeaconRoute53Reconciler.toBatches(changes);
+
+        assertEquals(1, batches.size());
+        assertEquals(ImmutableMap.of(RRType.A, 2L, RRType.AAAA, 2L), batches.get(0).stream()
+                .collect(Collectors.groupingBy(change -> change.resourceRecordSet().type(), Collectors.counting())));
+    }
+
+    @Test
+    public void splitsBatchesAtResourceRecordLimitWithUpsertsCountingTwice() {
+        // 500 UPSERTs of a single record are 1000 resource record elements, just within the limit.
+        assertEquals(ImmutableList.of(500), toBatchSizes(changes(500, ChangeAction.UPSERT, IPV4)));
+        assertEquals(ImmutableList.of(500, 1), toBatchSizes(changes(501, ChangeAction.UPSERT, IPV4)));
+        assertEquals(ImmutableList.of(1000), toBatchSizes(changes(1000, ChangeAction.DELETE, IPV4)));
+        assertEquals(ImmutableList.of(1000, 1000, 1), toBatchSizes(changes(2001, ChangeAction.DELETE, IPV4)));
+
+        final List<Change> mixed = new ArrayList<>(changes(999, ChangeAction.DELETE, IPV4));
+        mixed.addAll(changes(1, ChangeAction.UPSERT, IPV4));
+        assertEquals(ImmutableList.of(999, 1), toBatchSizes(mixed));
+    }
+
+    @Test
+    public void splitsBatchesAtValueCharacterLimitWithUpsertsCountingTwice() {
+        final String value = Strings.repeat("x", 4000);
+        // 4 UPSERTs of 4000 characters are 32000 characters, just within the limit.
+        assertEquals(ImmutableList.of(4), toBatchSizes(changes(4, ChangeAction.UPSERT, value)));
+        assertEquals(ImmutableList.of(4, 1), toBatchSizes(changes(5, ChangeAction.UPSERT, value)));
+        assertEquals(ImmutableList.of(8, 8, 1), toBatchSizes(changes(17, ChangeAction.DELETE, value)));
+    }
+
+    @Test
+    public void neverSplitsSingleChangeOverLimit() {
+        final List<Change> changes = changes(2, ChangeAction.UPSERT, Strings.repeat("x", 20000));
+        assertEquals(ImmutableList.of(1, 1), toBatchSizes(changes));
+        assertTrue(BeaconRoute53Reconciler.toBatches(ImmutableList.of()).isEmpty());
+    }
+
+    private static List<Change> toChanges(
+            final List<Route53DesiredRecord> records,
+            final ResourceRecordSet current,
+            final Map<RRType, String> valuesByType) {
+        final Map<String, Route53DesiredRecord> desired = new HashMap<>();
+        records.forEach(record -> desired.put(
+                BeaconRoute53Reconciler.toRecordKey(record.getName(), record.getType()), record));
+        final Map<String, ResourceRecordSet> currentRecordSets = new HashMap<>();
+        if (current != null) {
+            currentRecordSets.put(BeaconRoute53Reconciler.toRecordKey(current.name(), current.type()), current);
+        }
+
+        return BeaconRoute53Reconciler.toChanges(desired, currentRecordSets, valuesByType);
+    }
+
+    private static List<Integer> toBatchSizes(
+            final List<Change> changes) {
+        return BeaconRoute53Reconciler.toBatches(changes).stream()
+                .map(List::size)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private static List<Change> changes(
+            final int count,
+            final ChangeAction action,
+            final String value) {
+        final ImmutableList.Builder<Change> changes = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            changes.add(Change.builder()
+                    .action(action)
+                    .resourceRecordSet(recordSet("host" + i + ".example.com", RRType.A, TTL, value))
+                    .build());
+        }
+
+        return changes.build();
+    }
+
+    private static Route53DesiredRecord desiredRecord(
+            final String name,
+            final RRType type) {
+        return new Route53DesiredRecord.Builder()
+                .setHostedZoneId(HOSTED_ZONE_ID)
+                .setName(name)
+                .setType(type)
+                .setTtl(TTL)
+                .build();
+    }
+
+    private static ResourceRecordSet recordSet(
+            final String name,
+            final RRType type,
+            final long ttl,
+            final String... values) {
+        return ResourceRecordSet.builder()
+                .name(name)
+                .type(type)
+                .ttl(ttl)
+                .resourceRecords(Stream.of(values)
+                        .map(value -> ResourceRecord.builder()
+                                .value(value)
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+}
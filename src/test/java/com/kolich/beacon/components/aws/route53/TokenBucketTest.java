@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.aws.route53;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TokenBucketTest {
+
+    @Test
+    public void fullBucketServesItsCapacityRightAway() {
+        final TokenBucket bucket = new TokenBucket(2.0d, 3, new ManualTicker());
+
+        assertEquals(0L, bucket.take(0L));
+        assertEquals(0L, bucket.take(0L));
+        assertEquals(0L, bucket.take(0L));
+        assertEquals(-1L, bucket.take(0L));
+    }
+
+    @Test
+    public void emptyBucketGoesIntoDebt() {
+        final TokenBucket bucket = new TokenBucket(2.0d, 1, new ManualTicker());
+
+        assertEquals(0L, bucket.take(Long.MAX_VALUE));
+        // Each token taken on credit waits for one more refill than the one before it.
+        assertEquals(500L, bucket.take(Long.MAX_VALUE));
+        assertEquals(1000L, bucket.take(Long.MAX_VALUE));
+        assertEquals(1500L, bucket.take(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void waitBeyondMaxTakesNothing() {
+        final TokenBucket bucket = new TokenBucket(2.0d, 1, new ManualTicker());
+
+        assertEquals(0L, bucket.take(1000L));
+        assertEquals(-1L, bucket.take(499L));
+        assertEquals(-1L, bucket.take(0L));
+        // Refusals left the bucket untouched; the wait is exactly as long as before.
+        assertEquals(500L, bucket.take(500L));
+        assertEquals(-1L, bucket.take(999L));
+        assertEquals(1000L, bucket.take(1000L));
+    }
+
+    @Test
+    public void refillsContinuouslyUpToCapacity() {
+        final ManualTicker ticker = new ManualTicker();
+        final TokenBucket bucket = new TokenBucket(2.0d, 2, ticker);
+
+        assertEquals(0L, bucket.take(0L));
+        assertEquals(0L, bucket.take(0L));
+        assertEquals(500L, bucket.take(500L));
+
+        // Pays off the debt of one token, and refills a quarter of the next.
+        ticker.advance(625L, TimeUnit.MILLISECONDS);
+        assertEquals(375L, bucket.take(1000L));
+
+        // However long the bucket sits idle, it never holds more than its capacity.
+        ticker.advance(1L, TimeUnit.HOURS);
+        assertEquals(0L, bucket.take(0L));
+        assertEquals(0L, bucket.take(0L));
+        assertEquals(-1L, bucket.take(0L));
+    }
+
+    @Test
+    public void roundsWaitUp() {
+        final TokenBucket bucket = new TokenBucket(3.0d, 1, new ManualTicker());
+
+        assertEquals(0L, bucket.take(0L));
+        assertEquals(334L, bucket.take(1000L));
+    }
+
+    @Test
+    public void rejectsInvalidRateOrCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0.0d, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1.0d, 0));
+    }
+
+    private static final class ManualTicker extends Ticker {
+
+        private long nanos_ = 0L;
+
+        @Override
+        public long read() {
+            return nanos_;
+        }
+
+        private void advance(
+                final long time,
+                final TimeUnit timeUnit) {
+            nanos_ += timeUnit.toNanos(time);
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.freemarker;
+
+import com.kolich.beacon.components.BeaconConfig;
+import com.kolich.beacon.components.assets.BeaconStaticAssets;
+import com.kolich.beacon.entities.freemarker.FreeMarkerContent;
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateHashModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class FreeMarkerContentToStringTest {
+
+    private static final String TEMPLATE_NAME = "test.ftl";
+
+    /**
+     * Generous upper bound on what building the data model of a single render may allocate;
+     * the layered model itself is a single small object over the cached models.
+     */
+    private static final long MAX_DATA_MODEL_BYTES_PER_RENDER = 256L;
+
+    private static final int ALLOCATION_ITERATIONS = 10_000;
+
+    /**
+     * Exercises every layer of the data model: template attributes, entity attributes that
+     * shadow the global data map, entity attributes shadowed by template attributes, and the
+     * global data map itself.
+     */
+    private static final String TEMPLATE =
+            "<#ftl attributes={\"title\": \"From template\", \"shadowed\": \"template\"}>"
+            + "${title}|${shadowed}|${name}|${contextPath}|${fullUri}|${devMode?c}|${asset('js/beacon.js')}"
+            + "|${missing!\"none\"}";
+
+    private Configuration configuration_;
+    private FreeMarkerContentToString contentToString_;
+
+    /**
+     * Holds on to whatever is measured, such that the JIT can't optimize away its allocation.
+     */
+    private Object sink_;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        final StringTemplateLoader templateLoader = new StringTemplateLoader();
+        templateLoader.putTemplate(TEMPLATE_NAME, TEMPLATE);
+        configuration_ = new Configuration(Configuration.VERSION_2_3_30);
+        configuration_.setTemplateLoader(templateLoader);
+
+        final BeaconConfig beaconConfig = mock(BeaconConfig.class);
+        when(beaconConfig.getViewSafeContentPath()).thenReturn("/beacon");
+        when(beaconConfig.getViewSafeFullUri()).thenReturn("https://example.com/beacon");
+        when(beaconConfig.isDevMode()).thenReturn(false);
+
+        final BeaconFreeMarkerConfig beaconFreeMarkerConfig = mock(BeaconFreeMarkerConfig.class);
+        when(beaconFreeMarkerConfig.getFreeMarkerConfig()).thenReturn(configuration_);
+
+        final BeaconStaticAssets beaconStaticAssets = mock(BeaconStaticAssets.class);
+        when(beaconStaticAssets.getUrl("js/beacon.js")).thenReturn("/beacon/static/js/beacon.js?v=abc123");
+
+        contentToString_ = new FreeMarkerContentToString(beaconConfig, beaconFreeMarkerConfig,
+                beaconStaticAssets);
+    }
+
+    @Test
+    public void renderOutputIsUnchanged() throws Exception {
+        final FreeMarkerContent[] contents = new FreeMarkerContent[] {
+                new FreeMarkerContent.Builder(TEMPLATE_NAME)
+                        .withAttr("name", "first")
+                        .withAttr("shadowed", "entity")
+                        .build(),
+                new FreeMarkerContent.Builder(TEMPLATE_NAME)
+                        .withAttr("name", "second")
+                        .withAttr("contextPath", "/overridden")
+                        .withAttr("devMode", true)
+                        .build()
+        };
+
+        for (final FreeMarkerContent content : contents) {
+            final String expected = renderWithMergedDataMap(content);
+            assertEquals(expected, contentToString_.contentToString(content));
+            // Rendering the same content again, off the cached models, changes nothing.
+            assertEquals(expected, contentToString_.contentToString(content));
+        }
+    }
+
+    @Test
+    public void cachedModelsAreReusedAcrossRenders() throws Exception {
+        final Template tp = configuration_.getTemplate(TEMPLATE_NAME);
+
+        final TemplateHashModel first = contentToString_.getTemplateDataModel(tp,
+                new FreeMarkerContent.Builder(TEMPLATE_NAME).withAttr("name", "first").build());
+        final TemplateHashModel second = contentToString_.getTemplateDataModel(tp,
+                new FreeMarkerContent.Builder(TEMPLATE_NAME).withAttr("name", "second").build());
+
+        // Template attributes are wrapped once per loaded template.
+        assertNotNull(first.get("title"));
+        assertSame(first.get("title"), second.get("title"));
+        // The global data map is wrapped once, up front.
+        for (final String globalAttr : contentToString_.getGlobalDataMap().keySet()) {
+            assertNotNull(first.get(globalAttr));
+            assertSame(first.get(globalAttr), second.get(globalAttr));
+        }
+        // Entity attributes are per render.
+        assertEquals("first", first.get("name").toString());
+        assertEquals("second", second.get("name").toString());
+    }
+
+    @Test
+    public void dataModelAllocationIsBoundedPerRender() throws Exception {
+        final com.sun.management.ThreadMXBean threadMxBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMxBean.isThreadAllocatedMemorySupported() && threadMxBean.isThreadAllocatedMemoryEnabled());
+
+        final Template tp = configuration_.getTemplate(TEMPLATE_NAME);
+        final FreeMarkerContent content = new FreeMarkerContent.Builder(TEMPLATE_NAME)
+                .withAttr("name", "first")
+                .withAttr("shadowed", "entity")
+                .build();
+
+        final long layeredBytes = getAllocatedBytesPerCall(threadMxBean,
+                () -> contentToString_.getTemplateDataModel(tp, content));
+        final long mergedBytes = getAllocatedBytesPerCall(threadMxBean,
+                () -> getMergedDataMap(tp, content));
+
+        assertTrue(layeredBytes <= MAX_DATA_MODEL_BYTES_PER_RENDER,
+                "Layered data model allocated " + layeredBytes + " bytes per render.");
+        assertTrue(layeredBytes < mergedBytes,
+                "Layered data model allocated " + layeredBytes + " bytes per render, merged data map "
+                        + mergedBytes + " bytes.");
+    }
+
+    /**
+     * Returns the average number of bytes allocated by the current thread per call of the
+     * given supplier, after as many calls to warm it up.
+     */
+    private long getAllocatedBytesPerCall(
+            final com.sun.management.ThreadMXBean threadMxBean,
+            final Supplier<Object> supplier) {
+        for (int i = 0; i < ALLOCATION_ITERATIONS; i++) {
+            sink_ = supplier.get();
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = threadMxBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ALLOCATION_ITERATIONS; i++) {
+            sink_ = supplier.get();
+        }
+
+        return (threadMxBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / ALLOCATION_ITERATIONS;
+    }
+
+    /**
+     * Merges the global data map, then entity attributes, then template attributes into a
+     * fresh map, as every render did before the data model was cached.
+     */
+    private Map<String, Object> getMergedDataMap(
+            final Template tp,
+            final FreeMarkerContent content) {
+        final Map<String, Object> dataMap = new HashMap<>(contentToString_.getGlobalDataMap());
+        dataMap.putAll(content.getDataMap());
+        for (final String attrName : tp.getCustomAttributeNames()) {
+            dataMap.put(attrName, tp.getCustomAttribute(attrName));
+        }
+
+        return dataMap;
+    }
+
+    /**
+     * Renders the given content with a freshly merged data map, as every render did before the
+     * data model was cached: global data map, then entity attributes, then template attributes.
+     */
+    private String renderWithMergedDataMap(
+            final FreeMarkerContent content) throws Exception {
+        final Template tp = configuration_.getTemplate(content.getTemplateName());
+
+        final StringWriter writer = new StringWriter();
+        tp.process(getMergedDataMap(tp, content), writer);
+        return writer.toString();
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.freemarker;
+
+import com.google.common.collect.ImmutableMap;
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MinifyingTemplateLoaderTest {
+
+    private static final String TEMPLATE_NAME = "test.ftl";
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+            "<#if (a > b)>x                                 | <#if (a > b)>",
+            "<#assign s = \"a > b\">x                       | <#assign s = \"a > b\">",
+            "<#assign s = 'a > b'>x                         | <#assign s = 'a > b'>",
+            "<#assign s = \"${x?string(\"}\")} > y\">x      | <#assign s = \"${x?string(\"}\")} > y\">",
+            "<#assign p = r\"C:\\\">x                       | <#assign p = r\"C:\\\">",
+            "<#list xs?filter(x -> x > 1) as x>x            | <#list xs?filter(x -> x > 1) as x>",
+            "</#if>x                                        | </#if>",
+            "<@layout.page title=\"a > b\">x                | <@layout.page title=\"a > b\">",
+            "</@>x                                          | </@>",
+            "<#-- a > b -->x                                | <#-- a > b -->",
+            "${ {\"a\": 1}[\"a\"] }x                        | ${ {\"a\": 1}[\"a\"] }",
+            "`#{n; m2}x`                                    | `#{n; m2}`"
+    })
+    public void freeMarkerConstructEndsAfterItsLastCharacter(
+            final String source,
+            final String construct) {
+        assertEquals(construct.length(), MinifyingTemplateLoader.getFreeMarkerConstructEnd(source, 0));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "<div>",
+            "</div>",
+            "<# a>",
+            "a > b",
+            "<#if (a > b>"
+    })
+    public void noFreeMarkerConstruct(
+            final String source) {
+        assertEquals(-1, MinifyingTemplateLoader.getFreeMarkerConstructEnd(source, 0));
+    }
+
+    @Test
+    public void directiveWithGreaterThanIsPreservedVerbatim() throws Exception {
+        final String source = "<div>\n"
+                + "  <#if (a > b)>\n"
+                + "    <p title=\"${title}\">${a}</p>\n"
+                + "  </#if>\n"
+                + "</div>\n";
+
+        final String minified = load(source);
+        assertTrue(minified.contains("<#if (a > b)>"), minified);
+        assertEquals("<div><p title=\"t\">2</p></div>",
+                render(minified, ImmutableMap.of("a", 2, "b", 1, "title", "t")));
+        assertEquals("<div></div>",
+                render(minified, ImmutableMap.of("a", 1, "b", 2, "title", "t")));
+    }
+
+    @Test
+    public void directiveSpanningLinesIsNotJoined() throws Exception {
+        final String source = "<#assign a = 1\n"
+                + "    b = 2>\n"
+                + "<p>${a + b}</p>\n";
+
+        final String minified = load(source);
+        assertTrue(minified.contains("<#assign a = 1\n    b = 2>"), minified);
+        assertEquals("<p>3</p>", render(minified, ImmutableMap.of()));
+    }
+
+    private static String load(
+            final String source) throws Exception {
+        final StringTemplateLoader delegate = new StringTemplateLoader();
+        delegate.putTemplate(TEMPLATE_NAME, source);
+
+        final MinifyingTemplateLoader loader = new MinifyingTemplateLoader(delegate);
+        final Object templateSource = loader.findTemplateSource(TEMPLATE_NAME);
+        try (Reader reader = loader.getReader(templateSource, "UTF-8")) {
+            final String minified = IOUtils.toString(reader);
+            assertTrue(loader.isMinified(TEMPLATE_NAME));
+            return minified;
+        } finally {
+            loader.closeTemplateSource(templateSource);
+        }
+    }
+
+    private static String render(
+            final String template,
+            final Map<String, Object> dataModel) throws Exception {
+        final Configuration configuration = new Configuration(Configuration.VERSION_2_3_30);
+        final StringWriter writer = new StringWriter();
+        new Template(TEMPLATE_NAME, template, configuration).process(dataModel, writer);
+        return writer.toString();
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.quartz;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class AdaptiveIntervalTest {
+
+    private static final Duration MIN_INTERVAL = Duration.ofSeconds(30L);
+    private static final Duration MAX_INTERVAL = Duration.ofMinutes(15L);
+    private static final Duration FAST_PERIOD = Duration.ofMinutes(5L);
+
+    private static final double MULTIPLIER = 2.0d;
+    private static final double JITTER = 0.2d;
+
+    private static final int JITTER_ITERATIONS = 10_000;
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    public void startsAtTheMinInterval() {
+        final AdaptiveInterval interval = newInterval(MIN_INTERVAL, MAX_INTERVAL, MULTIPLIER, 0.0d);
+
+        assertEquals(MIN_INTERVAL.toMillis(), interval.getIntervalInMs());
+    }
+
+    @Test
+    public void unchangedRunsBackOffByTheMultiplierUpToTheMax() {
+        final AdaptiveInterval interval = newInterval(MIN_INTERVAL, MAX_INTERVAL, MULTIPLIER, 0.0d);
+
+        final long[] expected = {
+                Duration.ofMinutes(1L).toMillis(),
+                Duration.ofMinutes(2L).toMillis(),
+                Duration.ofMinutes(4L).toMillis(),
+                Duration.ofMinutes(8L).toMillis(),
+                MAX_INTERVAL.toMillis(),
+                MAX_INTERVAL.toMillis()
+        };
+        for (final long expectedInMs : expected) {
+            assertEquals(expectedInMs, interval.next(BeaconJobOutcome.UNCHANGED, NOW));
+            assertEquals(expectedInMs, interval.getIntervalInMs());
+        }
+    }
+
+    @Test
+    public void maxBelowTheMinIsClampedToTheMin() {
+        final AdaptiveInterval interval = newInterval(MIN_INTERVAL, Duration.ofSeconds(10L), MULTIPLIER, 0.0d);
+
+        assertEquals(MIN_INTERVAL.toMillis(), interval.next(BeaconJobOutcome.UNCHANGED, NOW));
+        assertEquals(MIN_INTERVAL.toMillis(), interval.next(BeaconJobOutcome.UNCHANGED, NOW));
+    }
+
+    @Test
+    public void multiplierBelowOneNeverShrinksTheInterval() {
+        final AdaptiveInterval interval = newInterval(MIN_INTERVAL, MAX_INTERVAL, 0.5d, 0.0d);
+
+        assertEquals(MIN_INTERVAL.toMillis(), interval.next(BeaconJobOutcome.UNCHANGED, NOW));
+        assertEquals(MIN_INTERVAL.toMillis(), interval.next(BeaconJobOutcome.UNCHANGED, NOW));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = BeaconJobOutcome.class, names = {"CHANGED", "FAILED"})
+    public void changeOrFailureResetsToTheMinForTheFastPeriod(
+            final BeaconJobOutcome outcome) {
+        final AdaptiveInterval interval = newInterval(MIN_INTERVAL, MAX_INTERVAL, MULTIPLIER, 0.0d);
+        for (int i = 0; i < 4; i++) {
+            interval.next(BeaconJobOutcome.UNCHANGED, NOW);
+        }
+        assertEquals(Duration.ofMinutes(8L).toMillis(), interval.getIntervalInMs());
+
+        assertEquals(MIN_INTERVAL.toMillis(), interval.next(outcome, NOW));
+
+        // Still within the fast period: stable runs stay at the min.
+        final Instant lastFastRun = NOW.plus(FAST_PERIOD).minusMillis(1L);
+        assertEquals(MIN_INTERVAL.toMillis(), interval.next(BeaconJobOutcome.UNCHANGED, NOW.plusSeconds(30L)));
+        assertEquals(MIN_INTERVAL.toMillis(), interval.next(BeaconJobOutcome.UNCHANGED, lastFastRun));
+
+        // Once the fast period is over, the interval grows again.
+        final Instant afterFastPeriod = NOW.plus(FAST_PERIOD);
+        assertEquals(MIN_INTERVAL.toMillis() * 2L, interval.next(BeaconJobOutcome.UNCHANGED, afterFastPeriod));
+    }
+
+    @Test
+    public void jitterOnlyShortensTheDelay() {
+        final AdaptiveInterval interval = newInterval(MIN_INTERVAL, MIN_INTERVAL, MULTIPLIER, JITTER);
+        final long intervalInMs = MIN_INTERVAL.toMillis();
+        final long shortestInMs = (long) (intervalInMs * (1.0d - JITTER));
+
+        long minSeenInMs = Long.MAX_VALUE;
+        for (int i = 0; i < JITTER_ITERATIONS; i++) {
+            final long delayInMs = interval.next(BeaconJobOutcome.UNCHANGED, NOW);
+            assertTrue(delayInMs <= intervalInMs, "Delay " + delayInMs + " > " + intervalInMs);
+            assertTrue(delayInMs >= shortestInMs, "Delay " + delayInMs + " < " + shortestInMs);
+            minSeenInMs = Math.min(minSeenInMs, delayInMs);
+        }
+        // The jitter is never applied to the interval itself.
+        assertEquals(intervalInMs, interval.getIntervalInMs());
+        assertTrue(minSeenInMs < intervalInMs, "Jitter never shortened the delay");
+    }
+
+    @Test
+    public void jitterAboveOneIsClampedAndTheDelayStaysPositive() {
+        final AdaptiveInterval interval = newInterval(MIN_INTERVAL, MIN_INTERVAL, MULTIPLIER, 5.0d);
+
+        for (int i = 0; i < JITTER_ITERATIONS; i++) {
+            final long delayInMs = interval.next(BeaconJobOutcome.UNCHANGED, NOW);
+            assertTrue(delayInMs >= 1L && delayInMs <= MIN_INTERVAL.toMillis(), "Delay " + delayInMs);
+        }
+    }
+
+    private static AdaptiveInterval newInterval(
+            final Duration minInterval,
+            final Duration maxInterval,
+            final double multiplier,
+            final double jitter) {
+        final BeaconQuartzConfig quartzConfig = mock(BeaconQuartzConfig.class);
+        when(quartzConfig.getAdaptiveScheduleMinInterval(TimeUnit.MILLISECONDS)).thenReturn(minInterval.toMillis());
+        when(quartzConfig.getAdaptiveScheduleMaxInterval(TimeUnit.MILLISECONDS)).thenReturn(maxInterval.toMillis());
+        when(quartzConfig.getAdaptiveScheduleMultiplier()).thenReturn(multiplier);
+        when(quartzConfig.getAdaptiveScheduleFastPeriod(TimeUnit.MILLISECONDS)).thenReturn(FAST_PERIOD.toMillis());
+        when(quartzConfig.getAdaptiveScheduleJitter()).thenReturn(jitter);
+        return new AdaptiveInterval(quartzConfig);
+    }
+
+}
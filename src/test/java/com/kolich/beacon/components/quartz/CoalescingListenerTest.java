@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.quartz;
+
+import com.kolich.beacon.components.metrics.BeaconMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobExecutionContext;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerKey;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static com.kolich.beacon.components.quartz.CoalescingListener.COALESCED_METRIC;
+import static com.kolich.beacon.components.quartz.CoalescingListener.DURATION_METRIC;
+import static com.kolich.beacon.components.quartz.CoalescingListener.OVERRUNS_METRIC;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class CoalescingListenerTest {
+
+    private static final long RUN_TIMEOUT_IN_MS = 60_000L;
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private BeaconMetrics metrics_;
+
+    private ManualClock clock_;
+
+    private CoalescingListener listener_;
+
+    private Trigger trigger_;
+
+    @BeforeEach
+    public void setUp() {
+        metrics_ = mock(BeaconMetrics.class);
+        clock_ = new ManualClock(START);
+        listener_ = new CoalescingListener(metrics_, RUN_TIMEOUT_IN_MS, clock_);
+
+        trigger_ = mock(Trigger.class);
+        when(trigger_.getKey()).thenReturn(new TriggerKey("beacon"));
+    }
+
+    @Test
+    public void firstFireIsLetThrough() {
+        assertFalse(fire(START));
+        verify(metrics_, never()).increment(COALESCED_METRIC);
+    }
+
+    @Test
+    public void fireDueBeforeThePreviousRunStartedIsVetoed() {
+        clock_.advance(10_000L);
+        assertFalse(fire(START.plusMillis(10_000L)));
+
+        // Held back since before that run started, so the run already covered it.
+        assertTrue(fire(START.plusMillis(5_000L)));
+        verify(metrics_, times(1)).increment(COALESCED_METRIC);
+    }
+
+    @Test
+    public void fireDueWhenThePreviousRunStartedIsLetThrough() {
+        assertFalse(fire(START));
+        assertFalse(fire(START));
+        verify(metrics_, never()).increment(COALESCED_METRIC);
+    }
+
+    @Test
+    public void overlappingFiresAreCoalescedIntoOneFollowUp() {
+        // A run starts on time, and overruns past three more fire times.
+        assertFalse(fire(START));
+        clock_.advance(90_000L);
+
+        // Once it completes, the fires held back are released in order: the first is let through
+        // as the follow-up run, which the others are then coalesced into.
+        assertFalse(fire(START.plusMillis(30_000L)));
+        assertTrue(fire(START.plusMillis(60_000L)));
+        assertTrue(fire(START.plusMillis(89_999L)));
+        verify(metrics_, times(2)).increment(COALESCED_METRIC);
+
+        // The next fire on schedule, after the follow-up started, runs as usual.
+        clock_.advance(1_000L);
+        assertFalse(fire(START.plusMillis(120_000L)));
+        verify(metrics_, times(2)).increment(COALESCED_METRIC);
+    }
+
+    @Test
+    public void fireWithoutScheduledFireTimeIsNeverVetoed() {
+        clock_.advance(10_000L);
+        assertFalse(fire(START));
+
+        final JobExecutionContext context = mock(JobExecutionContext.class);
+        when(context.getScheduledFireTime()).thenReturn(null);
+        assertFalse(listener_.vetoJobExecution(trigger_, context));
+        verify(metrics_, never()).increment(COALESCED_METRIC);
+    }
+
+    @Test
+    public void everyRunIsRecordedAndOnlyOverrunsAreCounted() {
+        complete(RUN_TIMEOUT_IN_MS);
+        verify(metrics_).record(DURATION_METRIC, RUN_TIMEOUT_IN_MS);
+        verify(metrics_, never()).increment(OVERRUNS_METRIC);
+
+        complete(RUN_TIMEOUT_IN_MS + 1L);
+        verify(metrics_).record(DURATION_METRIC, RUN_TIMEOUT_IN_MS + 1L);
+        verify(metrics_, times(1)).increment(OVERRUNS_METRIC);
+    }
+
+    private boolean fire(
+            final Instant scheduledFireTime) {
+        final JobExecutionContext context = mock(JobExecutionContext.class);
+        when(context.getScheduledFireTime()).thenReturn(Date.from(scheduledFireTime));
+        return listener_.vetoJobExecution(trigger_, context);
+    }
+
+    private void complete(
+            final long runTimeInMs) {
+        final JobExecutionContext context = mock(JobExecutionContext.class);
+        when(context.getJobRunTime()).thenReturn(runTimeInMs);
+        listener_.triggerComplete(trigger_, context, CompletedExecutionInstruction.NOOP);
+    }
+
+    private static final class ManualClock extends Clock {
+
+        private Instant now_;
+
+        private ManualClock(
+                final Instant now) {
+            now_ = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(
+                final ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now_;
+        }
+
+        private void advance(
+                final long millis) {
+            now_ = now_.plusMillis(millis);
+        }
+
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.state;
+
+import com.kolich.beacon.components.jackson.BeaconJacksonObjectMapper;
+import com.kolich.beacon.entities.BeaconSyncState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class BeaconSyncStateStoreTest {
+
+    private static final String IP = "203.0.113.10";
+    private static final String IPV6 = "2001:db8::1";
+    private static final String FINGERPRINT = "fingerprint";
+
+    private static final Instant LAST_RECONCILE_TIME = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static final Duration FULL_RECONCILE_INTERVAL = Duration.ofHours(6L);
+
+    @TempDir
+    Path directory_;
+
+    private Path file_;
+
+    private BeaconSyncStateConfig syncStateConfig_;
+
+    @BeforeEach
+    public void setUp() {
+        file_ = directory_.resolve("state").resolve("sync-state.json");
+
+        syncStateConfig_ = mock(BeaconSyncStateConfig.class);
+        when(syncStateConfig_.isEnabled()).thenReturn(true);
+        when(syncStateConfig_.getFile()).thenReturn(file_);
+        when(syncStateConfig_.getFullReconcileInterval(TimeUnit.MILLISECONDS))
+                .thenReturn(FULL_RECONCILE_INTERVAL.toMillis());
+    }
+
+    @Test
+    public void savedStateIsReadBackOnStartup() throws Exception {
+        final BeaconSyncState saved = syncState(IP, IPV6, FINGERPRINT);
+        newStore().save(saved);
+
+        // Written whole, in place of the state file, without leaving a temporary file behind.
+        assertTrue(Files.isRegularFile(file_));
+        assertEquals(List.of(file_), listFiles());
+
+        final BeaconStateTracker beaconStateTracker = mock(BeaconStateTracker.class);
+        final BeaconSyncState loaded = newStore(beaconStateTracker).getSyncState();
+
+        assertNotNull(loaded);
+        assertEquals(saved.getAppliedIp(), loaded.getAppliedIp());
+        assertEquals(saved.getAppliedIpv6(), loaded.getAppliedIpv6());
+        assertEquals(saved.getRoute53Value(), loaded.getRoute53Value());
+        assertEquals(saved.getLastChangeId(), loaded.getLastChangeId());
+        assertEquals(saved.getRecordsFingerprint(), loaded.getRecordsFingerprint());
+        assertEquals(saved.getLastReconcileTime(), loaded.getLastReconcileTime());
+        verify(beaconStateTracker).restoreDnsSynced(loaded);
+    }
+
+    @Test
+    public void saveReplacesPreviousState() throws Exception {
+        final BeaconSyncStateStore store = newStore();
+        store.save(syncState(IP, IPV6, FINGERPRINT));
+        store.save(syncState("203.0.113.11", null, FINGERPRINT));
+
+        assertEquals(List.of(file_), listFiles());
+
+        final BeaconSyncState loaded = newStore().getSyncState();
+        assertNotNull(loaded);
+        assertEquals("203.0.113.11", loaded.getAppliedIp());
+        assertNull(loaded.getAppliedIpv6());
+    }
+
+    @Test
+    public void missingOrUnreadableStateIsNoState() throws Exception {
+        final BeaconStateTracker beaconStateTracker = mock(BeaconStateTracker.class);
+        assertNull(newStore(beaconStateTracker).getSyncState());
+
+        Files.createDirectories(file_.getParent());
+        Files.write(file_, "{\"appliedIp\": \"203.0.113".getBytes(StandardCharsets.UTF_8));
+        assertNull(newStore(beaconStateTracker).getSyncState());
+
+        verify(beaconStateTracker, never()).restoreDnsSynced(any());
+    }
+
+    @Test
+    public void disabledStoreNeitherWritesNorSkipsReconcile() throws Exception {
+        when(syncStateConfig_.isEnabled()).thenReturn(false);
+        final BeaconSyncStateStore store = newStore();
+        store.save(syncState(IP, IPV6, FINGERPRINT));
+
+        assertFalse(Files.exists(file_));
+        assertFalse(store.isUpToDate(IP, IPV6, FINGERPRINT, LAST_RECONCILE_TIME));
+    }
+
+    @Test
+    public void neverUpToDateWithoutState() {
+        assertFalse(newStore().isUpToDate(IP, IPV6, FINGERPRINT, LAST_RECONCILE_TIME));
+    }
+
+    /**
+     * The uplink IP, IPv6 address, records fingerprint and time of a run, and whether the
+     * state saved by the last reconcile is up to date with them.
+     */
+    private static Stream<Arguments> runs() {
+        final Instant dueAt = LAST_RECONCILE_TIME.plus(FULL_RECONCILE_INTERVAL);
+        return Stream.of(
+                Arguments.of(IP, IPV6, FINGERPRINT, LAST_RECONCILE_TIME, true),
+                Arguments.of(IP, IPV6, FINGERPRINT, dueAt.minusMillis(1L), true),
+                Arguments.of("203.0.113.11", IPV6, FINGERPRINT, LAST_RECONCILE_TIME, false),
+                Arguments.of(IP, "2001:db8::2", FINGERPRINT, LAST_RECONCILE_TIME, false),
+                Arguments.of(IP, null, FINGERPRINT, LAST_RECONCILE_TIME, false),
+                Arguments.of(IP, IPV6, "other", LAST_RECONCILE_TIME, false),
+                // Route53 is consulted again once a full reconcile is due.
+                Arguments.of(IP, IPV6, FINGERPRINT, dueAt, false),
+                Arguments.of(IP, IPV6, FINGERPRINT, dueAt.plusSeconds(1L), false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("runs")
+    public void isUpToDate(
+            final String uplinkIp,
+            final String uplinkIpv6,
+            final String recordsFingerprint,
+            final Instant now,
+            final boolean upToDate) {
+        final BeaconSyncStateStore store = newStore();
+        store.save(syncState(IP, IPV6, FINGERPRINT));
+
+        assertEquals(upToDate, store.isUpToDate(uplinkIp, uplinkIpv6, recordsFingerprint, now));
+    }
+
+    @Test
+    public void isUpToDateWithoutIpv6() {
+        final BeaconSyncStateStore store = newStore();
+        store.save(syncState(IP, null, FINGERPRINT));
+
+        assertTrue(store.isUpToDate(IP, null, FINGERPRINT, LAST_RECONCILE_TIME));
+        assertFalse(store.isUpToDate(IP, IPV6, FINGERPRINT, LAST_RECONCILE_TIME));
+    }
+
+    private BeaconSyncStateStore newStore() {
+        return newStore(mock(BeaconStateTracker.class));
+    }
+
+    private BeaconSyncStateStore newStore(
+            final BeaconStateTracker beaconStateTracker) {
+        return new BeaconSyncStateStore(syncStateConfig_, new BeaconJacksonObjectMapper(), beaconStateTracker);
+    }
+
+    private List<Path> listFiles() throws Exception {
+        try (Stream<Path> files = Files.list(file_.getParent())) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private static BeaconSyncState syncState(
+            final String appliedIp,
+            final String appliedIpv6,
+            final String recordsFingerprint) {
+        return new BeaconSyncState.Builder()
+                .setAppliedIp(appliedIp)
+                .setAppliedIpv6(appliedIpv6)
+                .setRoute53Value(appliedIp)
+                .setLastChangeId("/change/C0123456789")
+                .setRecordsFingerprint(recordsFingerprint)
+                .setLastReconcileTime(LAST_RECONCILE_TIME)
+                .build();
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.components.unifi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class BodyPartInputStreamTest {
+
+    @Test
+    public void readsPartsInOrderAcrossBoundaries() throws IOException {
+        final BodyPartInputStream stream = new BodyPartInputStream();
+        stream.offer(bytes("{\"da"));
+        stream.offer(new byte[0]);
+        stream.offer(bytes("ta\":[]"));
+        stream.offer(bytes("}"));
+        stream.end();
+
+        assertEquals('{', stream.read());
+        final byte[] buffer = new byte[64];
+        // A bulk read never spans more than the current part.
+        assertEquals(3, stream.read(buffer, 0, buffer.length));
+        assertEquals("\"da", new String(buffer, 0, 3, StandardCharsets.UTF_8));
+        assertEquals(0, stream.read(buffer, 0, 0));
+        assertArrayEquals(bytes("ta\":[]}"), stream.readAllBytes());
+        assertEquals(-1, stream.read());
+        assertEquals(-1, stream.read(buffer, 0, buffer.length));
+    }
+
+    @Test
+    public void blocksUntilNextPartArrives() throws Exception {
+        final BodyPartInputStream stream = new BodyPartInputStream();
+        final CompletableFuture<byte[]> body = CompletableFuture.supplyAsync(() -> {
+            try {
+                return stream.readAllBytes();
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        stream.offer(bytes("abc"));
+        assertThrows(TimeoutException.class, () -> body.get(100L, TimeUnit.MILLISECONDS));
+        stream.offer(bytes("def"));
+        stream.end();
+
+        assertArrayEquals(bytes("abcdef"), body.get(5L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void surfacesFailureAfterPartsHandedOverBeforeIt() throws IOException {
+        final BodyPartInputStream stream = new BodyPartInputStream();
+        final Exception cause = new IllegalStateException("Connection reset.");
+        stream.offer(bytes("ab"));
+        stream.fail(cause);
+
+        assertEquals('a', stream.read());
+        assertEquals('b', stream.read());
+        final IOException failure = assertThrows(IOException.class, stream::read);
+        assertSame(cause, failure.getCause());
+        // Once the failure has been seen, the body is over.
+        assertEquals(-1, stream.read());
+    }
+
+    @Test
+    public void closeDiscardsPendingAndLaterParts() throws IOException {
+        final BodyPartInputStream stream = new BodyPartInputStream();
+        stream.offer(bytes("abc"));
+        assertFalse(stream.isClosed());
+
+        stream.close();
+        stream.offer(bytes("def"));
+
+        assertTrue(stream.isClosed());
+        assertEquals(-1, stream.read());
+    }
+
+    @Test
+    public void interruptWhileWaitingIsAnIoException() throws InterruptedException {
+        final BodyPartInputStream stream = new BodyPartInputStream();
+        final CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        final Thread reader = new Thread(() -> {
+            try {
+                stream.read();
+                failure.complete(null);
+            } catch (final Throwable t) {
+                failure.complete(t);
+            }
+        });
+        reader.start();
+        reader.interrupt();
+        reader.join(TimeUnit.SECONDS.toMillis(5L));
+
+        try {
+            assertTrue(failure.get(5L, TimeUnit.SECONDS) instanceof InterruptedIOException);
+        } catch (final ExecutionException | TimeoutException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static byte[] bytes(
+            final String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
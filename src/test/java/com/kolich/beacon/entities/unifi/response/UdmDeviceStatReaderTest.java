@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.unifi.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class UdmDeviceStatReaderTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String GATEWAY_MAC = "f0:9f:c2:00:00:01";
+
+    private static final Predicate<String> GATEWAY_MAC_MATCHER = GATEWAY_MAC::equalsIgnoreCase;
+
+    /**
+     * The same gateway, with its fields in a different order each time: the match field
+     * before, between, and after the uplink and the WANs.
+     */
+    private static Stream<String> gatewaysInAnyFieldOrder() {
+        return Stream.of(
+                "{'mac':'f0:9f:c2:00:00:01','type':'udm','uplink':{'ip':'203.0.113.10'},"
+                        + "'wan1':{'ifname':'eth8','ip':'203.0.113.10','up':true}}",
+                "{'uplink':{'ip':'203.0.113.10'},'type':'udm','mac':'f0:9f:c2:00:00:01',"
+                        + "'wan1':{'ifname':'eth8','ip':'203.0.113.10','up':true}}",
+                "{'wan1':{'up':true,'ip':'203.0.113.10','ifname':'eth8'},'type':'udm',"
+                        + "'uplink':{'ip':'203.0.113.10'},'mac':'F0:9F:C2:00:00:01'}");
+    }
+
+    @ParameterizedTest
+    @MethodSource("gatewaysInAnyFieldOrder")
+    public void readsGatewayWithFieldsInAnyOrder(
+            final String gateway) throws IOException {
+        final UdmDeviceUplink uplink = readUplink(
+                "{'meta':{'rc':'ok'},'data':[" + gateway + "]}", "mac", GATEWAY_MAC_MATCHER);
+
+        assertNotNull(uplink);
+        assertEquals("203.0.113.10", uplink.getIp());
+        assertEquals(ImmutableSet.of("wan1"), uplink.getWans().keySet());
+        assertEquals("eth8", uplink.getWans().get("wan1").getIfName());
+        assertTrue(uplink.getWans().get("wan1").isUp());
+        assertEquals("wan1", uplink.getActiveWanName());
+    }
+
+    @Test
+    public void matchesGatewayByMac() throws IOException {
+        final UdmDeviceUplink uplink = readUplink(
+                "{'data':["
+                        + "{'mac':'f0:9f:c2:00:00:02','type':'uap','uplink':{'ip':'192.168.1.2'}},"
+                        + "{'mac':'f0:9f:c2:00:00:01','type':'udm','uplink':{'ip':'203.0.113.10'}}"
+                        + "]}", "mac", GATEWAY_MAC_MATCHER);
+
+        assertNotNull(uplink);
+        assertEquals("203.0.113.10", uplink.getIp());
+    }
+
+    @Test
+    public void matchesGatewayByType() throws IOException {
+        final UdmDeviceUplink uplink = readUplink(
+                "{'data':["
+                        + "{'mac':'f0:9f:c2:00:00:02','type':'usw','uplink':{'ip':'192.168.1.3'}},"
+                        + "{'mac':'f0:9f:c2:00:00:01','type':'udm','uplink':{'ip':'203.0.113.10'}}"
+                        + "]}", "type", ImmutableSet.of("udm", "ugw", "uxg")::contains);
+
+        assertNotNull(uplink);
+        assertEquals("203.0.113.10", uplink.getIp());
+    }
+
+    @Test
+    public void returnsNullWithoutMatchingDevice() throws IOException {
+        assertNull(readUplink(
+                "{'data':["
+                        + "{'mac':'f0:9f:c2:00:00:02','type':'uap','uplink':{'ip':'192.168.1.2'}},"
+                        + "{'mac':'f0:9f:c2:00:00:03','type':'usw','uplink':{'ip':'192.168.1.3'}}"
+                        + "]}", "mac", GATEWAY_MAC_MATCHER));
+        assertNull(readUplink("{'data':[]}", "mac", GATEWAY_MAC_MATCHER));
+        assertNull(readUplink("{'meta':{'rc':'ok'}}", "mac", GATEWAY_MAC_MATCHER));
+    }
+
+    @Test
+    public void returnsNullWhenMatchingDeviceHasNoUplinkIp() throws IOException {
+        assertNull(readUplink(
+                "{'data':[{'mac':'f0:9f:c2:00:00:01','uplink':{'type':'wire'}}]}", "mac", GATEWAY_MAC_MATCHER));
+    }
+
+    @Test
+    public void readsWansWithAndWithoutIpv6() throws IOException {
+        final UdmDeviceUplink uplink = readUplink(
+                "{'data':[{'mac':'f0:9f:c2:00:00:01','uplink':{'ip':'198.51.100.20'},"
+                        + "'wan1':{'ifname':'eth8','ip':'203.0.113.10','up':false},"
+                        + "'wan2':{'ifname':'eth9','ip':'198.51.100.20','up':true,"
+                        + "'ipv6':['fe80::1','2001:db8:0:0::1/64',{'unexpected':true}]}}]}",
+                "mac", GATEWAY_MAC_MATCHER);
+
+        assertNotNull(uplink);
+        assertEquals(ImmutableList.of(), uplink.getWans().get("wan1").getIpv6());
+        assertFalse(uplink.getWans().get("wan1").isIpv6Reported());
+        assertEquals(ImmutableList.of("fe80::1", "2001:db8:0:0::1/64"), uplink.getWans().get("wan2").getIpv6());
+        assertTrue(uplink.getWans().get("wan2").isIpv6Reported());
+        // The uplink IP picks the active WAN, whose first global address is returned canonicalized.
+        assertEquals("wan2", uplink.getActiveWanName());
+        assertEquals("2001:db8::1", uplink.getIpv6());
+        assertTrue(uplink.isIpv6Reported());
+    }
+
+    /**
+     * The ipv6 field of the active WAN, and whether it counts as reported.
+     */
+    private static Stream<Arguments> activeWanIpv6Fields() {
+        return Stream.of(
+                Arguments.of(",'ipv6':[]", true),
+                Arguments.of(",'ipv6':['fe80::1','fd00::1']", true),
+                Arguments.of(",'ipv6':null", false),
+                Arguments.of(",'ipv6':'2001:db8::1'", false),
+                Arguments.of("", false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("activeWanIpv6Fields")
+    public void tellsNoIpv6ApartFromUnreportedIpv6(
+            final String ipv6Field,
+            final boolean reported) throws IOException {
+        final UdmDeviceUplink uplink = readUplink(
+                "{'data':[{'mac':'f0:9f:c2:00:00:01','uplink':{'ip':'203.0.113.10'},"
+                        + "'wan1':{'ip':'203.0.113.10','up':true" + ipv6Field + "}}]}",
+                "mac", GATEWAY_MAC_MATCHER);
+
+        assertNotNull(uplink);
+        // Either way there's no global IPv6 address, but only a reported one means there's none.
+        assertNull(uplink.getIpv6());
+        assertEquals(reported, uplink.isIpv6Reported());
+    }
+
+    @Test
+    public void ignoresFieldsThatOnlyLookLikeWans() throws IOException {
+        final UdmDeviceUplink uplink = readUplink(
+                "{'data':[{'mac':'f0:9f:c2:00:00:01','uplink':{'ip':'203.0.113.10'},"
+                        + "'wan_ip':'203.0.113.10','wan1_stats':{'ip':'203.0.113.10'},'wan':{'ip':'203.0.113.10'}}]}",
+                "mac", GATEWAY_MAC_MATCHER);
+
+        assertNotNull(uplink);
+        assertTrue(uplink.getWans().isEmpty());
+        assertNull(uplink.getActiveWanName());
+        assertNull(uplink.getIpv6());
+        assertFalse(uplink.isIpv6Reported());
+    }
+
+    @Test
+    public void stopsReadingAfterMatchingDevice() throws IOException {
+        // Everything after the gateway is malformed: it must never be read.
+        final String response = "{'data':["
+                + "{'mac':'f0:9f:c2:00:00:01','uplink':{'ip':'203.0.113.10'}},"
+                + "{'mac': oops";
+
+        try (JsonParser parser = createParser(response)) {
+            final UdmDeviceUplink uplink = UdmDeviceStatReader.readUplink(parser, "mac", GATEWAY_MAC_MATCHER);
+
+            assertNotNull(uplink);
+            assertEquals("203.0.113.10", uplink.getIp());
+            assertFalse(parser.isClosed());
+        }
+    }
+
+    @Test
+    public void skipsNonMatchingDevicesWhole() throws IOException {
+        // A non-matching device's uplink and WANs, even ones nested deeply, must not leak into the match.
+        final UdmDeviceUplink uplink = readUplink(
+                "{'data':["
+                        + "{'mac':'f0:9f:c2:00:00:02','uplink':{'ip':'192.168.1.2','nested':{'ip':'x'}},"
+                        + "'wan1':{'ip':'192.168.1.2','ipv6':['2001:db8::2']},'port_table':[{'ip':'y'}]},"
+                        + "{'uplink':{'ip':'203.0.113.10'},'mac':'f0:9f:c2:00:00:01'}"
+                        + "]}", "mac", GATEWAY_MAC_MATCHER);
+
+        assertNotNull(uplink);
+        assertEquals("203.0.113.10", uplink.getIp());
+        assertTrue(uplink.getWans().isEmpty());
+    }
+
+    @Test
+    public void rejectsResponseThatIsNotAnObject() {
+        assertThrows(IOException.class, () -> readUplink("[]", "mac", GATEWAY_MAC_MATCHER));
+    }
+
+    private static UdmDeviceUplink readUplink(
+            final String response,
+            final String matchField,
+            final Predicate<String> matcher) throws IOException {
+        try (JsonParser parser = createParser(response)) {
+            return UdmDeviceStatReader.readUplink(parser, matchField, matcher);
+        }
+    }
+
+    /**
+     * Creates a parser over the given JSON, written with single quotes for readability.
+     */
+    private static JsonParser createParser(
+            final String json) throws IOException {
+        return JSON_FACTORY.createParser(json.replace('\'', '"'));
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.unifi.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class UdmHealthReaderTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static Stream<String> wanSubsystemsInAnyFieldOrder() {
+        return Stream.of(
+                "{'subsystem':'wan','status':'ok','wan_ip':'203.0.113.10'}",
+                "{'wan_ip':'203.0.113.10','gw_system-stats':{'cpu':'3.1'},'subsystem':'wan'}",
+                "{'status':'ok','wan_ip':'203.0.113.10','subsystem':'wan'}");
+    }
+
+    @ParameterizedTest
+    @MethodSource("wanSubsystemsInAnyFieldOrder")
+    public void readsWanIpWithFieldsInAnyOrder(
+            final String wanSubsystem) throws IOException {
+        assertEquals("203.0.113.10", readWanIp(
+                "{'meta':{'rc':'ok'},'data':[{'subsystem':'wlan','num_ap':3}," + wanSubsystem + "]}"));
+    }
+
+    @Test
+    public void ignoresWanIpOfOtherSubsystems() throws IOException {
+        assertEquals("203.0.113.10", readWanIp(
+                "{'data':[{'wan_ip':'192.168.1.1','subsystem':'www'},{'subsystem':'wan','wan_ip':'203.0.113.10'}]}"));
+    }
+
+    @Test
+    public void returnsNullWithoutWanIp() throws IOException {
+        assertNull(readWanIp("{'data':[{'subsystem':'wan','status':'unknown'},{'subsystem':'lan'}]}"));
+        assertNull(readWanIp("{'data':[]}"));
+        assertNull(readWanIp("{'meta':{'rc':'ok'}}"));
+    }
+
+    @Test
+    public void stopsReadingAfterWanIp() throws IOException {
+        // Everything after the WAN IP is malformed: it must never be read.
+        try (JsonParser parser = createParser("{'data':[{'subsystem':'wan','wan_ip':'203.0.113.10', oops")) {
+            assertEquals("203.0.113.10", UdmHealthReader.readWanIp(parser));
+            assertFalse(parser.isClosed());
+        }
+    }
+
+    @Test
+    public void rejectsResponseThatIsNotAnObject() {
+        assertThrows(IOException.class, () -> readWanIp("[]"));
+    }
+
+    private static String readWanIp(
+            final String response) throws IOException {
+        try (JsonParser parser = createParser(response)) {
+            return UdmHealthReader.readWanIp(parser);
+        }
+    }
+
+    /**
+     * Creates a parser over the given JSON, written with single quotes for readability.
+     */
+    private static JsonParser createParser(
+            final String json) throws IOException {
+        return JSON_FACTORY.createParser(json.replace('\'', '"'));
+    }
+
+}
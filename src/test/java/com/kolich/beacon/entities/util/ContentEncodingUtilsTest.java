@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public final class ContentEncodingUtilsTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "gzip                         | true",
+            "GZIP                         | true",
+            "x-gzip                       | true",
+            "deflate, gzip                | true",
+            "gzip;q=1.0                   | true",
+            "gzip; q=0.001                | true",
+            "br;q=1.0, gzip;q=0.5         | true",
+            "gzip;q=0                     | false",
+            "gzip; q=0.0                  | false",
+            "gzip;q=nope                  | false",
+            "*                            | true",
+            "*;q=0.5                      | true",
+            "deflate, *                   | true",
+            "*;q=0                        | false",
+            "gzip;q=0, *                  | false",
+            "*;q=0, gzip                  | true",
+            "identity                     | false",
+            "identity, deflate            | false",
+            "identity;q=0, *              | true",
+            "''                           | false"
+    })
+    public void acceptsGzip(
+            final String acceptEncoding,
+            final boolean expected) {
+        assertEquals(expected, ContentEncodingUtils.acceptsGzip(acceptEncoding));
+    }
+
+    @Test
+    public void noAcceptEncodingDoesNotAcceptGzip() {
+        assertFalse(ContentEncodingUtils.acceptsGzip(null));
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.entities.util;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class HtmlUtilsTest {
+
+    /**
+     * The regular expressions {@link HtmlUtils#minify(String)} used to apply in sequence,
+     * before it was replaced by a single pass scanner.
+     */
+    private static final List<Pattern> REGEX_MINIFY_PATTERNS = ImmutableList.of(
+            Pattern.compile("^[\\x20\\t]+"),
+            Pattern.compile("[\\x20\\t]+$"),
+            Pattern.compile("\\s*(\\r\\n|\\n)+\\s*"),
+            Pattern.compile("^[\\r\\n]+"));
+
+    private static final char[] GENERATED_ALPHABET = {
+            ' ', '\t', '\n', '\r', '\u000B', '\f', '\u0085', '\u2028', '<', '>', '/', '!', '-', 'a', 'b', 'x'
+    };
+
+    private static final int GENERATED_DOCUMENTS = 100_000;
+    private static final int GENERATED_MAX_LENGTH = 64;
+
+    /**
+     * Documents without any preserved elements, which are minified exactly like the regular
+     * expressions did.
+     */
+    private static Stream<String> regexEquivalentDocuments() {
+        return Stream.of(
+                "",
+                " ",
+                "\t \t",
+                "\n",
+                "\r\n",
+                "\r",
+                "\t\t<p>x</p>",
+                "<p>x</p>  \t",
+                "<p>x</p>  \n",
+                "<p>x</p> \t\r\n",
+                "<p>x</p>\n\n",
+                "a\n\nb",
+                "a \t\r\n \t b",
+                "a\rb",
+                "\r\n\r\nabc",
+                "\r\ra",
+                "\r a",
+                "a\u000B\fb",
+                "a  b",
+                "x \u0085",
+                "x \u2028",
+                "<!-- comment -->\n  <p>x</p>",
+                "<!--\n  multi\n  line\n-->",
+                "<!-- <p>\n  x --> \n<p>",
+                "<div>\n  <p>\n    x\n  </p>\n</div>\n",
+                "<prefix>\n  x\n</prefix>",
+                "<scripts>\n  x\n</scripts>",
+                "<pre>\n  never closed",
+                "<script>\n  var a = 1;\n</scrip>",
+                "  <pre> a </pre>  ",
+                "<script src=\"a.js\"></script>\n  <p>x</p>");
+    }
+
+    /**
+     * Documents with preserved elements, whose bodies are copied through verbatim, where
+     * the regular expressions used to minify them too.
+     */
+    private static Stream<Arguments> preservedElementDocuments() {
+        return Stream.of(
+                Arguments.of("<div>\n  <pre>\n  a\n    b\n</pre>\n</div>",
+                        "<div><pre>\n  a\n    b\n</pre></div>"),
+                Arguments.of("<TEXTAREA rows=\"2\">\n  x  \n</TEXTAREA>\n<p>y</p>",
+                        "<TEXTAREA rows=\"2\">\n  x  \n</TEXTAREA><p>y</p>"),
+                Arguments.of("<script>\n  var a = 1;\n  var b = 2;\n</script>\n<p>x</p>",
+                        "<script>\n  var a = 1;\n  var b = 2;\n</script><p>x</p>"),
+                Arguments.of("<p>\n  <script type=\"text/javascript\">\n\tif (a) {\n\t}\n</script >\n</p>",
+                        "<p><script type=\"text/javascript\">\n\tif (a) {\n\t}\n</script ></p>"),
+                Arguments.of("<pre>\n a</pre>\n<pre>\n b</pre>\n",
+                        "<pre>\n a</pre><pre>\n b</pre>"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("regexEquivalentDocuments")
+    public void minifyMatchesRegexMinify(
+            final String document) {
+        assertEquals(regexMinify(document), HtmlUtils.minify(document));
+    }
+
+    @ParameterizedTest
+    @MethodSource("preservedElementDocuments")
+    public void minifyPreservesElementBodies(
+            final String document,
+            final String expected) {
+        assertEquals(expected, HtmlUtils.minify(document));
+    }
+
+    @Test
+    public void minifyMatchesRegexMinifyOnGeneratedDocuments() {
+        // A fixed seed, such that any failure is reproducible.
+        final Random random = new Random(42L);
+        for (int i = 0; i < GENERATED_DOCUMENTS; i++) {
+            final int length = random.nextInt(GENERATED_MAX_LENGTH + 1);
+            final StringBuilder document = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                document.append(GENERATED_ALPHABET[random.nextInt(GENERATED_ALPHABET.length)]);
+            }
+
+            final String generated = document.toString();
+            assertEquals(regexMinify(generated), HtmlUtils.minify(generated), () -> "Document: " + generated);
+        }
+    }
+
+    @Test
+    public void minifyIsRepeatable() {
+        // The builder is re-used across calls on the same thread.
+        final String document = "<div>\n  <p>x</p>\n</div>";
+        assertEquals(HtmlUtils.minify(document), HtmlUtils.minify(document));
+        assertEquals("", HtmlUtils.minify(""));
+        assertEquals("<p>x</p>", HtmlUtils.minify("<p>x</p>\n"));
+    }
+
+    private static String regexMinify(
+            final String document) {
+        String stripped = document;
+        for (final Pattern pattern : REGEX_MINIFY_PATTERNS) {
+            stripped = pattern.matcher(stripped).replaceAll("");
+        }
+
+        return stripped;
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.tools;
+
+import com.google.common.collect.ImmutableList;
+import com.kolich.beacon.entities.util.HtmlUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the single pass {@link HtmlUtils#minify(String)} against the regular expressions
+ * it replaced, applied in sequence. Reports the time and the heap allocated per document,
+ * e.g., on a template of the app:
+ *
+ * <pre>
+ *   HtmlMinifyBenchmark --file src/main/webapp/templates/index.ftl --iterations 20000
+ * </pre>
+ */
+public final class HtmlMinifyBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HtmlMinifyBenchmark.class);
+
+    /**
+     * The regular expressions {@link HtmlUtils#minify(String)} used to apply in sequence.
+     */
+    private static final List<Pattern> REGEX_MINIFY_PATTERNS = ImmutableList.of(
+            Pattern.compile("^[\\x20\\t]+"),
+            Pattern.compile("[\\x20\\t]+$"),
+            Pattern.compile("\\s*(\\r\\n|\\n)+\\s*"),
+            Pattern.compile("^[\\r\\n]+"));
+
+    @Option(names = {"--file"}, paramLabel = "PATH", description = "Document to minify; else one is generated.")
+    private String file_;
+
+    @Option(names = {"--lines"}, paramLabel = "COUNT", description = "Lines of the generated document.",
+            defaultValue = "2000")
+    private int lines_;
+
+    @Option(names = {"--iterations"}, paramLabel = "COUNT", description = "Measured minifications of each kind.",
+            defaultValue = "2000")
+    private int iterations_;
+
+    public static void main(
+            final String... args) {
+        try {
+            final HtmlMinifyBenchmark benchmark = new HtmlMinifyBenchmark();
+            new CommandLine(benchmark).parseArgs(args);
+            benchmark.run();
+        } catch (final Exception e) {
+            LOG.error("HTML minify benchmark failed.", e);
+        }
+    }
+
+    private void run() throws Exception {
+        final String document = (file_ != null)
+                ? new String(Files.readAllBytes(Paths.get(file_)), StandardCharsets.UTF_8)
+                : generateDocument();
+        LOG.info("Document of {} chars", document.length());
+
+        // Warm up both paths first, then measure each in turn.
+        for (int i = 0; i < iterations_; i++) {
+            HtmlUtils.minify(document);
+            regexMinify(document);
+        }
+
+        measure("single-pass", document, HtmlUtils::minify);
+        measure("regex", document, HtmlMinifyBenchmark::regexMinify);
+    }
+
+    private void measure(
+            final String name,
+            final String document,
+            final UnaryOperator<String> minify) {
+        final com.sun.management.ThreadMXBean threadMxBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        long minifiedLength = 0L;
+        final long allocatedBefore = threadMxBean.getThreadAllocatedBytes(threadId);
+        final long startedAt = System.nanoTime();
+        for (int i = 0; i < iterations_; i++) {
+            minifiedLength += minify.apply(document).length();
+        }
+        final long elapsedInNs = System.nanoTime() - startedAt;
+        final long allocated = threadMxBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        LOG.info(String.format("%-11s %8.1f us/document %10d bytes allocated/document (%d chars out)", name,
+                (double) TimeUnit.NANOSECONDS.toMicros(elapsedInNs) / iterations_, allocated / iterations_,
+                minifiedLength / iterations_));
+    }
+
+    private static String regexMinify(
+            final String document) {
+        String stripped = document;
+        for (final Pattern pattern : REGEX_MINIFY_PATTERNS) {
+            stripped = pattern.matcher(stripped).replaceAll("");
+        }
+
+        return stripped;
+    }
+
+    /**
+     * Generates an indented document of nested elements, much like a rendered template.
+     */
+    private String generateDocument() {
+        final StringBuilder document = new StringBuilder();
+        for (int i = 0; i < lines_; i++) {
+            final int depth = i % 8;
+            document.append("    ".repeat(depth));
+            if (i % 4 == 0) {
+                document.append("<div class=\"row\">\n");
+            } else if (i % 4 == 1) {
+                document.append("<span>Beacon status ").append(i).append("</span>  \n");
+            } else if (i % 4 == 2) {
+                document.append("\t<a href=\"/api/status\">Details</a>\r\n\n");
+            } else {
+                document.append("</div>\n");
+            }
+        }
+
+        return document.toString();
+    }
+
+}
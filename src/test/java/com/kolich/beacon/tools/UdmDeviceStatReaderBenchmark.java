@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.tools;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kolich.beacon.entities.unifi.response.UdmDeviceStatReader;
+import com.kolich.beacon.entities.unifi.response.UdmDeviceUplink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming {@link UdmDeviceStatReader} against binding the whole
+ * <code>stat/device</code> response, like the client did before, on a synthetic response
+ * of a site with many access points and switches. Reports the time and the heap allocated
+ * per read, e.g.:
+ *
+ * <pre>
+ *   UdmDeviceStatReaderBenchmark --devices 200 --iterations 2000
+ * </pre>
+ */
+public final class UdmDeviceStatReaderBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UdmDeviceStatReaderBenchmark.class);
+
+    private static final String GATEWAY_MAC = "f0:9f:c2:00:00:01";
+
+    private static final int PORTS_PER_DEVICE = 24;
+
+    @Option(names = {"--devices"}, paramLabel = "COUNT", description = "Devices on the site, besides the gateway.",
+            defaultValue = "200")
+    private int devices_;
+
+    @Option(names = {"--iterations"}, paramLabel = "COUNT", description = "Measured reads of each kind.",
+            defaultValue = "2000")
+    private int iterations_;
+
+    @Option(names = {"--gateway-first"}, description = "List the gateway first, instead of last.",
+            defaultValue = "false")
+    private boolean gatewayFirst_;
+
+    private final ObjectMapper objectMapper_ = new ObjectMapper();
+
+    public static void main(
+            final String... args) {
+        try {
+            final UdmDeviceStatReaderBenchmark benchmark = new UdmDeviceStatReaderBenchmark();
+            new CommandLine(benchmark).parseArgs(args);
+            benchmark.run();
+        } catch (final Exception e) {
+            LOG.error("UDM device stat reader benchmark failed.", e);
+        }
+    }
+
+    private void run() throws Exception {
+        final byte[] response = buildResponse();
+        LOG.info("Response of {} devices: {} bytes", devices_ + 1, response.length);
+
+        // Warm up both paths first, then measure each in turn.
+        for (int i = 0; i < iterations_; i++) {
+            readStreaming(response);
+            readBinding(response);
+        }
+
+        measure("streaming", () -> readStreaming(response));
+        measure("binding", () -> readBinding(response));
+    }
+
+    private void measure(
+            final String name,
+            final Read read) throws IOException {
+        final com.sun.management.ThreadMXBean threadMxBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        final long allocatedBefore = threadMxBean.getThreadAllocatedBytes(threadId);
+        final long startedAt = System.nanoTime();
+        for (int i = 0; i < iterations_; i++) {
+            if (!"203.0.113.10".equals(read.read())) {
+                throw new IllegalStateException("Read the wrong uplink IP.");
+            }
+        }
+        final long elapsedInNs = System.nanoTime() - startedAt;
+        final long allocated = threadMxBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        LOG.info(String.format("%-9s %8.1f us/read %10d bytes allocated/read", name,
+                (double) TimeUnit.NANOSECONDS.toMicros(elapsedInNs) / iterations_, allocated / iterations_));
+    }
+
+    private String readStreaming(
+            final byte[] response) throws IOException {
+        try (JsonParser parser = objectMapper_.getFactory().createParser(response)) {
+            final UdmDeviceUplink uplink = UdmDeviceStatReader.readUplink(parser, "mac", GATEWAY_MAC::equals);
+            return (uplink == null) ? null : uplink.getIp();
+        }
+    }
+
+    /**
+     * Binds every device of the response, then picks the gateway out of them, which is
+     * what the client did before it read the response as a stream.
+     */
+    private String readBinding(
+            final byte[] response) throws IOException {
+        final JsonNode root = objectMapper_.readTree(response);
+        for (final JsonNode device : root.path("data")) {
+            if (GATEWAY_MAC.equals(device.path("mac").asText())) {
+                return device.path("uplink").path("ip").asText();
+            }
+        }
+
+        return null;
+    }
+
+    private byte[] buildResponse() throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper_.getFactory().createGenerator(os)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("meta");
+            generator.writeStringField("rc", "ok");
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("data");
+            if (gatewayFirst_) {
+                writeGateway(generator);
+            }
+            for (int i = 0; i < devices_; i++) {
+                writeDevice(generator, i);
+            }
+            if (!gatewayFirst_) {
+                writeGateway(generator);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        return os.toByteArray();
+    }
+
+    private static void writeGateway(
+            final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("mac", GATEWAY_MAC);
+        generator.writeStringField("type", "udm");
+        generator.writeObjectFieldStart("uplink");
+        generator.writeStringField("ip", "203.0.113.10");
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("wan1");
+        generator.writeStringField("ifname", "eth8");
+        generator.writeStringField("ip", "203.0.113.10");
+        generator.writeBooleanField("up", true);
+        generator.writeArrayFieldStart("ipv6");
+        generator.writeString("fe80::1");
+        generator.writeString("2001:db8::1/64");
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static void writeDevice(
+            final JsonGenerator generator,
+            final int index) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("mac", String.format("f0:9f:c2:01:%02x:%02x", index >> 8, index & 0xff));
+        generator.writeStringField("type", (index % 3 == 0) ? "usw" : "uap");
+        generator.writeStringField("name", "Device " + index);
+        generator.writeObjectFieldStart("uplink");
+        generator.writeStringField("ip", "192.168.1." + (index % 250 + 2));
+        generator.writeStringField("type", "wire");
+        generator.writeNumberField("speed", 1000);
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("port_table");
+        for (int port = 1; port <= PORTS_PER_DEVICE; port++) {
+            generator.writeStartObject();
+            generator.writeNumberField("port_idx", port);
+            generator.writeStringField("name", "Port " + port);
+            generator.writeBooleanField("up", port % 2 == 0);
+            generator.writeNumberField("rx_bytes", 1_234_567_890L * port);
+            generator.writeNumberField("tx_bytes", 987_654_321L * port);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    @FunctionalInterface
+    private interface Read {
+        String read() throws IOException;
+    }
+
+}
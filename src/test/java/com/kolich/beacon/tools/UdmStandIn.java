@@ -0,0 +1,587 @@
+/*
+ * Copyright (c) 2026 Mark S. Kolich
+ * https://mark.koli.ch
+ *
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kolich.beacon.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.HttpHeaders;
+import com.google.common.net.MediaType;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.kolich.beacon.components.jackson.BeaconJacksonObjectMapper;
+import com.kolich.beacon.exceptions.BeaconException;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A local stand-in for a UniFi controller, such that the event stream mode can be exercised
+ * offline. Speaks just enough plain HTTP/1.1 and websocket (RFC 6455) over a plain
+ * {@link ServerSocket} to serve the login, the <code>stat/device</code> and
+ * <code>stat/health</code> APIs, and the event stream of any site.
+ *
+ * Point <code>beacon.udm.api-base-url</code> at it, e.g., <code>http://127.0.0.1:9443</code>,
+ * then type commands on stdin:
+ * <ul>
+ *   <li><code>ip 203.0.113.20</code>: fail over to a new uplink IP, and announce it on every
+ *   event stream with a WAN transition event, and an update of the gateway</li>
+ *   <li><code>sync</code>: announce an update of the gateway with its current uplink IP</li>
+ *   <li><code>expire</code>: expire every auth token issued so far, closing every event stream</li>
+ *   <li><code>drop</code>: drop every event stream without a close frame, like a network failure</li>
+ * </ul>
+ */
+public final class UdmStandIn {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UdmStandIn.class);
+
+    private static final String API_AUTH_LOGIN_PATH = "/api/auth/login";
+    private static final String DEVICE_STAT_PATH_SUFFIX = "/stat/device";
+    private static final String HEALTH_PATH_SUFFIX = "/stat/health";
+    private static final String EVENTS_PATH_SUFFIX = "/events";
+
+    private static final String AUTH_TOKEN_COOKIE_NAME = "TOKEN";
+
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private static final String JSON_UTF_8 = MediaType.JSON_UTF_8.toString();
+
+    private static final int OPCODE_TEXT = 0x1;
+    private static final int OPCODE_CLOSE = 0x8;
+    private static final int OPCODE_PING = 0x9;
+    private static final int OPCODE_PONG = 0xA;
+
+    private static final int CLOSE_POLICY_VIOLATION = 1008;
+
+    private static final int MAX_FRAME_PAYLOAD_SIZE = 65536;
+
+    @Option(names = {"--host"}, paramLabel = "HOST", description = "Listen host.",
+            defaultValue = "127.0.0.1")
+    private String host_;
+
+    @Option(names = {"--port"}, paramLabel = "PORT", description = "Listen port.",
+            defaultValue = "9443")
+    private int port_;
+
+    @Option(names = {"--uplink-ip"}, paramLabel = "IP", description = "Initial uplink IP of the gateway.",
+            defaultValue = "203.0.113.10")
+    private volatile String uplinkIp_;
+
+    @Option(names = {"--gateway-mac"}, paramLabel = "MAC", description = "MAC address of the gateway.",
+            defaultValue = "f0:9f:c2:00:00:01")
+    private String gatewayMac_;
+
+    @Option(names = {"--token-ttl"}, paramLabel = "SECONDS", description = "Lifetime of issued auth tokens.",
+            defaultValue = "300")
+    private long tokenTtlInSeconds_;
+
+    private final ObjectMapper objectMapper_ = new BeaconJacksonObjectMapper().getObjectMapper();
+
+    /**
+     * Every auth token issued, and when it expires.
+     */
+    private final Map<String, Instant> tokens_ = new ConcurrentHashMap<>();
+
+    private final Set<EventStream> eventStreams_ = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService connectionExecutor_ = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("udm-stand-in-%d")
+            .build());
+
+    private final ScheduledExecutorService expiryExecutor_ = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("udm-stand-in-expiry-%d")
+                    .build());
+
+    private volatile String wan1Ip_;
+    private volatile String wan2Ip_;
+
+    public static void main(
+            final String... args) {
+        try {
+            final UdmStandIn standIn = new UdmStandIn();
+            new CommandLine(standIn).parseArgs(args);
+            standIn.run();
+        } catch (final Exception e) {
+            LOG.error("UDM stand-in failed.", e);
+        }
+    }
+
+    private void run() throws Exception {
+        wan1Ip_ = uplinkIp_;
+
+        // Close every event stream whose auth token has expired, like the controller does.
+        expiryExecutor_.scheduleWithFixedDelay(this::closeExpiredEventStreams, 1L, 1L, TimeUnit.SECONDS);
+
+        final ServerSocket serverSocket = new ServerSocket(port_, 0, InetAddress.getByName(host_));
+        connectionExecutor_.execute(() -> accept(serverSocket));
+        LOG.info("UDM stand-in listening on http://{}:{}; uplink IP: {}", host_, port_, uplinkIp_);
+
+        final BufferedReader stdin = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = stdin.readLine()) != null) {
+            final String[] command = StringUtils.split(line.trim());
+            if (command.length == 0) {
+                continue;
+            }
+
+            switch (command[0].toLowerCase(Locale.ROOT)) {
+                case "ip":
+                    if (command.length != 2) {
+                        LOG.info("Usage: ip <new uplink IP>");
+                        break;
+                    }
+                    failover(command[1]);
+                    break;
+                case "sync":
+                    broadcast(toDeviceSyncMessage());
+                    break;
+                case "expire":
+                    tokens_.replaceAll((token, expiresAt) -> Instant.EPOCH);
+                    closeExpiredEventStreams();
+                    break;
+                case "drop":
+                    for (final EventStream eventStream : eventStreams_) {
+                        eventStream.drop();
+                    }
+                    break;
+                default:
+                    LOG.info("Unknown command, expected one of: ip, sync, expire, drop");
+                    break;
+            }
+        }
+
+        serverSocket.close();
+    }
+
+    private void failover(
+            final String newUplinkIp) {
+        // Alternate between the two WANs, like a dual-WAN gateway failing over back and forth.
+        final boolean onWan1 = uplinkIp_.equals(wan1Ip_);
+        if (onWan1) {
+            wan2Ip_ = newUplinkIp;
+        } else {
+            wan1Ip_ = newUplinkIp;
+        }
+        uplinkIp_ = newUplinkIp;
+        LOG.info("Failed over to {}: {}", onWan1 ? "wan2" : "wan1", newUplinkIp);
+
+        broadcast(toMessage("events", ImmutableMap.of(
+                "key", "EVT_GW_WANTransition",
+                "gw_mac", gatewayMac_,
+                "time", System.currentTimeMillis())));
+        broadcast(toDeviceSyncMessage());
+    }
+
+    private void accept(
+            final ServerSocket serverSocket) {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                connectionExecutor_.execute(() -> serve(socket));
+            } catch (final IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOG.warn("Failed to accept connection.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Serves a single request per connection; connections are closed after every response,
+     * except for those upgraded to an event stream.
+     */
+    private void serve(
+            final Socket socket) {
+        try {
+            final InputStream in = socket.getInputStream();
+            final OutputStream out = socket.getOutputStream();
+
+            final String requestLine = readLine(in);
+            if (requestLine == null) {
+                socket.close();
+                return;
+            }
+            final String[] request = StringUtils.split(requestLine);
+            final String method = request[0];
+            final String path = StringUtils.substringBefore(request[1], "?");
+
+            final Map<String, String> headers = new HashMap<>();
+            String header;
+            while (StringUtils.isNotEmpty(header = readLine(in))) {
+                headers.put(StringUtils.substringBefore(header, ":").trim().toLowerCase(Locale.ROOT),
+                        StringUtils.substringAfter(header, ":").trim());
+            }
+            final int contentLength = Integer.parseInt(
+                    headers.getOrDefault(HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT), "0"));
+            in.readNBytes(contentLength);
+
+            LOG.info("{} {}", method, path);
+            if (API_AUTH_LOGIN_PATH.equals(path)) {
+                final String token = issueToken();
+                writeResponse(out, 200, "OK", ImmutableMap.of(HttpHeaders.SET_COOKIE,
+                        String.format("%s=%s; Path=/; HttpOnly", AUTH_TOKEN_COOKIE_NAME, token)), "{}");
+                socket.close();
+                return;
+            }
+
+            final String token = getAuthToken(headers);
+            if (token == null) {
+                writeResponse(out, 401, "Unauthorized", ImmutableMap.of(), "{}");
+                socket.close();
+            } else if (path.endsWith(EVENTS_PATH_SUFFIX) && headers.containsKey("sec-websocket-key")) {
+                upgrade(socket, out, headers.get("sec-websocket-key"), token);
+            } else if (path.endsWith(DEVICE_STAT_PATH_SUFFIX)) {
+                writeResponse(out, 200, "OK", ImmutableMap.of(), objectMapper_.writeValueAsString(
+                        ImmutableMap.of("meta", ImmutableMap.of("rc", "ok"), "data", ImmutableList.of(toGateway()))));
+                socket.close();
+            } else if (path.endsWith(HEALTH_PATH_SUFFIX)) {
+                writeResponse(out, 200, "OK", ImmutableMap.of(), objectMapper_.writeValueAsString(
+                        ImmutableMap.of("meta", ImmutableMap.of("rc", "ok"), "data", ImmutableList.of(
+                                ImmutableMap.of("subsystem", "wan", "wan_ip", uplinkIp_)))));
+                socket.close();
+            } else {
+                writeResponse(out, 404, "Not Found", ImmutableMap.of(), "{}");
+                socket.close();
+            }
+        } catch (final Exception e) {
+            LOG.warn("Failed to serve request.", e);
+            closeQuietly(socket);
+        }
+    }
+
+    private void upgrade(
+            final Socket socket,
+            final OutputStream out,
+            final String webSocketKey,
+            final String token) throws Exception {
+        final byte[] digest = MessageDigest.getInstance("SHA-1")
+                .digest((webSocketKey + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII));
+        final String accept = Base64.getEncoder().encodeToString(digest);
+        out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+
+        final EventStream eventStream = new EventStream(socket, token);
+        eventStreams_.add(eventStream);
+        LOG.info("Event stream opened; {} open.", eventStreams_.size());
+        try {
+            eventStream.readFrames();
+        } catch (final IOException e) {
+            // Expected once the stream is expired or dropped from this end.
+            LOG.debug("Event stream failed.", e);
+        } finally {
+            eventStreams_.remove(eventStream);
+            closeQuietly(socket);
+            LOG.info("Event stream closed; {} open.", eventStreams_.size());
+        }
+    }
+
+    private String issueToken() throws IOException {
+        final Instant expiresAt = Instant.now().plusSeconds(tokenTtlInSeconds_);
+        final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        final String header = encoder.encodeToString(objectMapper_.writeValueAsBytes(
+                ImmutableMap.of("alg", "none", "typ", "JWT")));
+        final String payload = encoder.encodeToString(objectMapper_.writeValueAsBytes(
+                ImmutableMap.of("exp", expiresAt.getEpochSecond(), "jti", Long.toHexString(System.nanoTime()))));
+        final String token = String.format("%s.%s.", header, payload);
+        tokens_.put(token, expiresAt);
+        return token;
+    }
+
+    /**
+     * Returns the auth token from the cookies of a request, if it's known and not expired.
+     */
+    private String getAuthToken(
+            final Map<String, String> headers) {
+        final String cookies = headers.getOrDefault(HttpHeaders.COOKIE.toLowerCase(Locale.ROOT), "");
+        for (final String cookie : StringUtils.split(cookies, ';')) {
+            final String name = StringUtils.substringBefore(cookie, "=").trim();
+            final String value = StringUtils.substringAfter(cookie, "=").trim();
+            if (AUTH_TOKEN_COOKIE_NAME.equals(name) && isValid(value)) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean isValid(
+            final String token) {
+        final Instant expiresAt = tokens_.get(token);
+        return expiresAt != null && Instant.now().isBefore(expiresAt);
+    }
+
+    private void closeExpiredEventStreams() {
+        for (final EventStream eventStream : eventStreams_) {
+            if (!isValid(eventStream.token_)) {
+                eventStream.close(CLOSE_POLICY_VIOLATION, "Token expired");
+            }
+        }
+    }
+
+    private Map<String, Object> toGateway() {
+        final ImmutableMap.Builder<String, Object> gateway = ImmutableMap.<String, Object>builder()
+                .put("mac", gatewayMac_)
+                .put("type", "udm")
+                .put("name", "UDM Stand-In")
+                .put("uplink", ImmutableMap.of("ip", uplinkIp_))
+                .put("wan1", toWan("eth8", wan1Ip_));
+        if (wan2Ip_ != null) {
+            gateway.put("wan2", toWan("eth9", wan2Ip_));
+        }
+
+        return gateway.build();
+    }
+
+    private Map<String, Object> toWan(
+            final String ifName,
+            final String ip) {
+        return ImmutableMap.of("ifname", ifName, "ip", ip, "up", ip.equals(uplinkIp_), "ipv6", ImmutableList.of());
+    }
+
+    private String toDeviceSyncMessage() {
+        return toMessage("device:sync", toGateway());
+    }
+
+    private String toMessage(
+            final String message,
+            final Map<String, Object> data) {
+        try {
+            return objectMapper_.writeValueAsString(ImmutableMap.of(
+                    "meta", ImmutableMap.of("rc", "ok", "message", message),
+                    "data", ImmutableList.of(data)));
+        } catch (final IOException e) {
+            throw new BeaconException(e);
+        }
+    }
+
+    private void broadcast(
+            final String message) {
+        LOG.info("Sending to {} event streams: {}", eventStreams_.size(), message);
+        for (final EventStream eventStream : eventStreams_) {
+            eventStream.sendText(message);
+        }
+    }
+
+    private static void writeResponse(
+            final OutputStream out,
+            final int status,
+            final String reason,
+            final Map<String, String> headers,
+            final String body) throws IOException {
+        final byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        final StringBuilder response = new StringBuilder()
+                .append(String.format("HTTP/1.1 %s %s\r\n", status, reason))
+                .append(String.format("%s: %s\r\n", HttpHeaders.CONTENT_TYPE, JSON_UTF_8))
+                .append(String.format("%s: %s\r\n", HttpHeaders.CONTENT_LENGTH, bodyBytes.length))
+                .append(String.format("%s: close\r\n", HttpHeaders.CONNECTION));
+        for (final Map.Entry<String, String> header : headers.entrySet()) {
+            response.append(String.format("%s: %s\r\n", header.getKey(), header.getValue()));
+        }
+        response.append("\r\n");
+
+        out.write(response.toString().getBytes(StandardCharsets.US_ASCII));
+        out.write(bodyBytes);
+        out.flush();
+    }
+
+    /**
+     * Reads a single CRLF terminated line, or returns null at the end of the stream.
+     */
+    private static String readLine(
+            final InputStream in) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int next;
+        while ((next = in.read()) != -1) {
+            if (next == '\n') {
+                return StringUtils.removeEnd(line.toString(StandardCharsets.US_ASCII), "\r");
+            }
+            line.write(next);
+        }
+
+        return (line.size() == 0) ? null : line.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static void closeQuietly(
+            final Socket socket) {
+        try {
+            socket.close();
+        } catch (final IOException e) {
+            LOG.debug("Failed to close socket.", e);
+        }
+    }
+
+    /**
+     * A single, open event stream. Frames are read on the connection thread; writes from
+     * any thread are serialized on the stream.
+     */
+    private static final class EventStream {
+
+        private final Socket socket_;
+
+        private final String token_;
+
+        private final OutputStream out_;
+
+        private EventStream(
+                final Socket socket,
+                final String token) throws IOException {
+            socket_ = socket;
+            token_ = token;
+            out_ = socket.getOutputStream();
+        }
+
+        /**
+         * Reads (masked) client frames until the stream is closed: answers pings with pongs,
+         * echoes close frames, and ignores everything else.
+         */
+        private void readFrames() throws IOException {
+            final DataInputStream in = new DataInputStream(socket_.getInputStream());
+            while (true) {
+                final int first = in.read();
+                if (first == -1) {
+                    return;
+                }
+                final int opcode = first & 0x0F;
+                final int second = in.readUnsignedByte();
+                long length = second & 0x7F;
+                if (length == 126) {
+                    length = in.readUnsignedShort();
+                } else if (length == 127) {
+                    length = in.readLong();
+                }
+                if (length > MAX_FRAME_PAYLOAD_SIZE) {
+                    throw new IOException("Frame too large: " + length);
+                }
+
+                final byte[] mask = new byte[4];
+                if ((second & 0x80) != 0) {
+                    in.readFully(mask);
+                }
+                final byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i % 4];
+                }
+
+                if (opcode == OPCODE_PING) {
+                    send(OPCODE_PONG, payload);
+                } else if (opcode == OPCODE_CLOSE) {
+                    send(OPCODE_CLOSE, payload);
+                    return;
+                }
+            }
+        }
+
+        private void sendText(
+                final String text) {
+            try {
+                send(OPCODE_TEXT, text.getBytes(StandardCharsets.UTF_8));
+            } catch (final IOException e) {
+                LOG.warn("Failed to send to event stream.", e);
+            }
+        }
+
+        private void close(
+                final int code,
+                final String reason) {
+            final byte[] reasonBytes = reason.getBytes(StandardCharsets.UTF_8);
+            final byte[] payload = new byte[2 + reasonBytes.length];
+            payload[0] = (byte) (code >> 8);
+            payload[1] = (byte) code;
+            System.arraycopy(reasonBytes, 0, payload, 2, reasonBytes.length);
+            try {
+                send(OPCODE_CLOSE, payload);
+            } catch (final IOException e) {
+                LOG.debug("Failed to send close frame.", e);
+            }
+            closeQuietly(socket_);
+        }
+
+        private void drop() {
+            closeQuietly(socket_);
+        }
+
+        /**
+         * Sends a single, final, unmasked frame; servers never mask their frames.
+         */
+        private synchronized void send(
+                final int opcode,
+                final byte[] payload) throws IOException {
+            final ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.length + 10);
+            frame.write(0x80 | opcode);
+            if (payload.length < 126) {
+                frame.write(payload.length);
+            } else if (payload.length < 65536) {
+                frame.write(126);
+                frame.write(payload.length >> 8);
+                frame.write(payload.length);
+            } else {
+                frame.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    frame.write((int) ((long) payload.length >> shift));
+                }
+            }
+            frame.write(payload);
+
+            out_.write(frame.toByteArray());
+            out_.flush();
+        }
+
+    }
+
+}